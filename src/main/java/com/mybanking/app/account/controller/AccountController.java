@@ -2,16 +2,23 @@ package com.mybanking.app.account.controller;
 
 import com.mybanking.app.account.dto.AccountSummary;
 import com.mybanking.app.account.dto.AccountSummaryResponse;
+import com.mybanking.app.account.dto.BalanceReport;
 import com.mybanking.app.account.dto.DepositRequest;
 import com.mybanking.app.account.dto.DepositResponse;
+import com.mybanking.app.account.dto.HotSlotsRequest;
 import com.mybanking.app.account.dto.WithdrawRequest;
 import com.mybanking.app.account.dto.WithdrawResponse;
 import com.mybanking.app.account.service.AccountService;
+import com.mybanking.app.account.service.BalanceReportService;
+import com.mybanking.app.idempotency.service.IdempotencyService;
+import com.mybanking.app.ledger.service.BalanceSummaryService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.UUID;
@@ -26,6 +33,9 @@ import static com.mybanking.app.common.security.SecurityUtils.requireAdmin;
 public class AccountController {
 
     private final AccountService accountService;
+    private final IdempotencyService idempotencyService;
+    private final BalanceReportService balanceReportService;
+    private final BalanceSummaryService balanceSummaryService;
 
     @GetMapping("/admin/balances")
     public List<AccountSummary> getAllBalancesForAdmin() {
@@ -34,6 +44,30 @@ public class AccountController {
         return accountService.getAllBalances();
     }
 
+    @GetMapping("/admin/balances/stream")
+    public ResponseEntity<StreamingResponseBody> streamBalancesForAdmin(
+            @RequestParam(defaultValue = "false") boolean aggregates) {
+        requireAdmin();
+        log.info("admin balance stream requested aggregates={}", aggregates);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(balanceReportService.streamBalances(aggregates));
+    }
+
+    @GetMapping("/admin/balances/summary")
+    public BalanceReport balanceSummaryForAdmin() {
+        requireAdmin();
+        log.info("admin balance summary requested");
+        return balanceSummaryService.report();
+    }
+
+    @PutMapping("/admin/{accountId}/hot-slots")
+    public AccountSummary setHotSlots(@PathVariable UUID accountId, @Valid @RequestBody HotSlotsRequest body) {
+        requireAdmin();
+        log.info("admin hot slots accountId={} slots={}", accountId, body.slots());
+        return accountService.setHotSlots(accountId, body.slots());
+    }
+
     @GetMapping("/detail")
     public ResponseEntity<List<AccountSummaryResponse>> listMine() {
         var userId = currentUserId();
@@ -52,19 +86,27 @@ public class AccountController {
 
     @PostMapping("/{accountId}/withdraw")
     public ResponseEntity<WithdrawResponse> withdraw(@PathVariable UUID accountId,
-                                                     @Valid @RequestBody WithdrawRequest body) {
+                                                     @Valid @RequestBody WithdrawRequest body,
+                                                     @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
         var userId = currentUserId();
         log.info("withdraw start accountId={} userId={} amount={}", accountId, userId, body.amount());
-        var r = accountService.withdraw(accountId, body.amount(), userId);
-        return ResponseEntity.ok(new WithdrawResponse(r.accountId(), r.withdrawn(), r.feeCharged(), r.newBalance()));
+        var response = idempotencyService.execute(userId, idempotencyKey, "withdraw:" + accountId, body, WithdrawResponse.class, () -> {
+            var r = accountService.withdraw(accountId, body.amount(), userId);
+            return new WithdrawResponse(r.accountId(), r.withdrawn(), r.feeCharged(), r.newBalance());
+        });
+        return ResponseEntity.ok(response);
     }
 
     @PostMapping("/{accountId}/deposit")
     public ResponseEntity<DepositResponse> deposit(@PathVariable UUID accountId,
-                                                   @Valid @RequestBody DepositRequest body) {
+                                                   @Valid @RequestBody DepositRequest body,
+                                                   @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
         var userId = currentUserId();
         log.info("deposit start accountId={} userId={} amount={}", accountId, userId, body.amount());
-        var r = accountService.deposit(accountId, body.amount(), userId);
-        return ResponseEntity.ok(new DepositResponse(r.accountId(), r.deposited(), r.feeCharged(), r.newBalance()));
+        var response = idempotencyService.execute(userId, idempotencyKey, "deposit:" + accountId, body, DepositResponse.class, () -> {
+            var r = accountService.deposit(accountId, body.amount(), userId);
+            return new DepositResponse(r.accountId(), r.deposited(), r.feeCharged(), r.newBalance());
+        });
+        return ResponseEntity.ok(response);
     }
 }
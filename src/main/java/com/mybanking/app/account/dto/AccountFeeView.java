@@ -0,0 +1,8 @@
+package com.mybanking.app.account.dto;
+
+import com.mybanking.app.common.util.CardType;
+
+import java.util.UUID;
+
+/** What a fee quote needs from an account: its owner and card type, without the balance. */
+public record AccountFeeView(UUID id, UUID ownerId, CardType cardType) {}
@@ -0,0 +1,10 @@
+package com.mybanking.app.account.dto;
+
+import com.mybanking.app.common.util.CardType;
+import com.mybanking.app.common.util.Money;
+
+import java.util.UUID;
+
+/** What a balance update needs from an account row, read without the owner entity or its roles. */
+public record AccountRow(UUID id, String accountNumber, Money balance, Long version,
+                         UUID ownerId, CardType cardType, int hotSlots) {}
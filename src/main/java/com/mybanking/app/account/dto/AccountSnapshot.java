@@ -0,0 +1,8 @@
+package com.mybanking.app.account.dto;
+
+import com.mybanking.app.common.util.CardType;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record AccountSnapshot(UUID accountId, String accountNumber, UUID ownerId, CardType cardType, BigDecimal balance) {}
@@ -1,9 +1,15 @@
 package com.mybanking.app.account.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.mybanking.app.common.util.CardType;
 
 import java.math.BigDecimal;
 import java.util.UUID;
 
-public record AccountSummary(UUID accountId, String accountNumber, CardType cardType, BigDecimal balance) {}
+public record AccountSummary(UUID accountId, String accountNumber, CardType cardType, BigDecimal balance,
+                             @JsonIgnore Long version) {
 
+    public AccountSummary(UUID accountId, String accountNumber, CardType cardType, BigDecimal balance) {
+        this(accountId, accountNumber, cardType, balance, null);
+    }
+}
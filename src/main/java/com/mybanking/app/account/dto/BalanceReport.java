@@ -0,0 +1,24 @@
+package com.mybanking.app.account.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Totals over customer balances. {@code byCardType} is keyed by card type, {@code NONE} for accounts without
+ * a card; {@code asOf} is set when the report comes from the checkpointed summary rather than a live scan.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BalanceReport(long accounts,
+                            BigDecimal totalLiabilities,
+                            Map<String, Long> byCardType,
+                            List<Bucket> histogram,
+                            Instant asOf) {
+
+    /** Accounts with {@code from <= balance < to}; an open end is left out. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Bucket(BigDecimal from, BigDecimal to, long accounts) {}
+}
@@ -1,6 +1,7 @@
 package com.mybanking.app.account.dto;
 
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotNull;
 
 import java.math.BigDecimal;
@@ -8,6 +9,7 @@ import java.math.BigDecimal;
 public record DepositRequest(
         @NotNull
         @DecimalMin(value = "0.01")
+        @Digits(integer = 16, fraction = 2)
         BigDecimal amount
 ) {}
 
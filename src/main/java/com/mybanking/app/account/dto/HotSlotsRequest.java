@@ -0,0 +1,11 @@
+package com.mybanking.app.account.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public record HotSlotsRequest(
+        @NotNull
+        @Min(0)
+        @Max(64)
+        Integer slots) {}
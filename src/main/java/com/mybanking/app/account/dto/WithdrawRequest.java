@@ -1,6 +1,7 @@
 package com.mybanking.app.account.dto;
 
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 
@@ -10,4 +11,5 @@ public record WithdrawRequest(
         @NotNull
         @Positive
         @DecimalMin(value = "0.01")
+        @Digits(integer = 16, fraction = 2)
         BigDecimal amount) {}
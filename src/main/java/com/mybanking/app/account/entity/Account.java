@@ -1,14 +1,16 @@
 package com.mybanking.app.account.entity;
 
-import com.mybanking.app.card.entity.Card;
+import com.mybanking.app.common.util.CardType;
+import com.mybanking.app.common.util.Money;
 import com.mybanking.app.user.entity.User;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Formula;
 import org.hibernate.annotations.UuidGenerator;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 @Entity
 @Table(name = "accounts", indexes = {
@@ -30,36 +32,61 @@ public class Account {
     private String accountNumber;
 
     @Column(nullable = false,precision = 19, scale = 2)
-    private BigDecimal balance;
+    private Money balance;
 
     @Version
     private Long version;
 
-    @ManyToOne(optional = false, fetch = FetchType.EAGER)
+    /** Number of sub-balance slots taking incoming transfers; 0 for a regular account. */
+    @Builder.Default
+    @Column(nullable = false)
+    private int hotSlots = 0;
+
+    /** Lazy so locked writes check ownership against the user_id column without joining users and roles. */
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @OneToOne(mappedBy = "account", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
-    private Card card;
+    /** Type of the account's card, read in the same select; null without a card. */
+    @Formula("(select c.card_type from cards c where c.account_id = id)")
+    @Enumerated(EnumType.STRING)
+    @Setter(AccessLevel.NONE)
+    private CardType cardType;
 
-    public void setBalance(BigDecimal v) {
-        this.balance = (v == null) ? null : v.setScale(2, RoundingMode.HALF_UP);
+    /** Owner id read from the lazy reference; does not initialize the user. */
+    public UUID ownerId() {
+        return user == null ? null : user.getId();
     }
 
-    public void depositCore(BigDecimal amount) {
-        requirePositive(amount, "Amount");
-        balance = balance.add(amount);
+    public void setBalance(Money balance) {
+        this.balance = balance;
+    }
+
+    public void setBalance(BigDecimal v) {
+        this.balance = (v == null) ? null : Money.of(v);
     }
 
-    private static void requirePositive(BigDecimal v, String amount) {
-        if (v == null || v.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException(amount + " must be positive");
+    public void depositCore(Money amount) {
+        if (amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
         }
+        balance = balance.plus(amount);
     }
 
-    public void withdrawWithFeeOrThrow(BigDecimal amount, BigDecimal fee, java.util.function.Supplier<RuntimeException> onInsufficient) {
-        BigDecimal total = amount.add(fee);
-        if (this.getBalance().compareTo(total) < 0) throw onInsufficient.get();
-        this.setBalance(this.getBalance().subtract(total));
+    public void withdrawWithFeeOrThrow(Money amount, Money fee, Supplier<RuntimeException> onInsufficient) {
+        long total = Math.addExact(amount.minor(), fee.minor());
+        if (balance.minor() < total) throw onInsufficient.get();
+        balance = Money.ofMinor(balance.minor() - total);
+    }
+
+    public static class AccountBuilder {
+        public AccountBuilder balance(Money balance) {
+            this.balance = balance;
+            return this;
+        }
+
+        public AccountBuilder balance(BigDecimal balance) {
+            return balance(balance == null ? null : Money.of(balance));
+        }
     }
 }
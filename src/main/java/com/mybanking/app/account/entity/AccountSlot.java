@@ -0,0 +1,43 @@
+package com.mybanking.app.account.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.UUID;
+
+/** Part of a hot account's balance. The account's balance is its own row plus all of its slots. */
+@Entity
+@Table(name = "account_slots", indexes = {
+        @Index(name = "ux_account_slot", columnList = "accountId, slotNo", unique = true)
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountSlot {
+
+    @Id
+    @GeneratedValue
+    @UuidGenerator
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID accountId;
+
+    @Column(nullable = false)
+    private int slotNo;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal balance;
+
+    @Version
+    private Long version;
+
+    public void setBalance(BigDecimal v) {
+        this.balance = (v == null) ? null : v.setScale(2, RoundingMode.HALF_UP);
+    }
+}
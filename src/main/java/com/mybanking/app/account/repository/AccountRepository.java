@@ -1,22 +1,111 @@
 package com.mybanking.app.account.repository;
 
+import com.mybanking.app.account.dto.AccountFeeView;
+import com.mybanking.app.account.dto.AccountRow;
+import com.mybanking.app.account.dto.AccountSnapshot;
+import com.mybanking.app.account.dto.AccountSummary;
 import com.mybanking.app.account.entity.Account;
+import com.mybanking.app.common.util.Money;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface AccountRepository extends JpaRepository<Account, UUID> {
 
+    String CONSOLIDATED_BALANCE =
+            "a.balance + coalesce((select sum(s.balance) from AccountSlot s where s.accountId = a.id), 0)";
+
+    String ACCOUNT_SUMMARY = "select new com.mybanking.app.account.dto.AccountSummary(a.id, a.accountNumber, " +
+            "c.cardType, " + CONSOLIDATED_BALANCE + ", a.version) from Account a left join Card c on c.account = a ";
+
+    String ACCOUNT_ROW = "select new com.mybanking.app.account.dto.AccountRow(a.id, a.accountNumber, a.balance, " +
+            "a.version, a.user.id, (select c.cardType from Card c where c.account = a), a.hotSlots) from Account a ";
+
     List<Account> findAllByUser_Id(UUID userId);
 
+    /** Read-only so the uncached {@code listMine} load is served by the replica when one is configured. */
+    @Transactional(readOnly = true)
+    @Query(ACCOUNT_SUMMARY + "where a.user.id = :userId order by a.accountNumber")
+    List<AccountSummary> findSummariesByUserId(@Param("userId") UUID userId);
+
+    @Query(ACCOUNT_SUMMARY + "order by a.accountNumber")
+    List<AccountSummary> findAllSummaries();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(ACCOUNT_SUMMARY + "order by a.accountNumber")
+    Stream<AccountSummary> streamAllSummaries();
+
+    @Query(ACCOUNT_SUMMARY + "where a.id in :ids")
+    List<AccountSummary> findSummariesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("select new com.mybanking.app.account.dto.AccountFeeView(a.id, a.user.id, a.cardType) " +
+            "from Account a where a.id in :ids")
+    List<AccountFeeView> findFeeViewsByIdIn(@Param("ids") Collection<UUID> ids);
+
     Optional<Account> findByAccountNumber(String accountNumber);
 
+    @Query("select a.id from Account a where a.accountNumber = :accountNumber")
+    Optional<UUID> findIdByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    @Query("select a.user.id from Account a where a.id = :id")
+    Optional<UUID> findOwnerIdById(@Param("id") UUID id);
+
+    @Query("select new com.mybanking.app.account.dto.AccountSnapshot(a.id, a.accountNumber, a.user.id, c.cardType, " +
+            CONSOLIDATED_BALANCE + ") from Account a left join Card c on c.account = a where a.id = :id")
+    Optional<AccountSnapshot> findSnapshotById(@Param("id") UUID id);
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "2000"))
     @Query("select a from Account a where a.id = :id")
     Optional<Account> findByIdForUpdate(@Param("id") UUID id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "2000"))
+    @Query("select a from Account a where (a.id = :id or a.accountNumber in :accountNumbers) " +
+            "and (a.id = :id or a.hotSlots = 0) order by a.id")
+    List<Account> findAllByIdOrAccountNumberInForUpdate(@Param("id") UUID id,
+                                                        @Param("accountNumbers") Collection<String> accountNumbers);
+
+    @Query("select a from Account a where a.id = :id or a.accountNumber in :accountNumbers")
+    List<Account> findAllByIdOrAccountNumberIn(@Param("id") UUID id,
+                                               @Param("accountNumbers") Collection<String> accountNumbers);
+
+    List<Account> findAllByAccountNumberIn(Collection<String> accountNumbers);
+
+    /**
+     * Locks the source and the destination of a transfer in one statement, in id order. Hot destinations are
+     * left out; they are credited through their slots and read with {@link #findRowByAccountNumber}.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "2000"))
+    @Query(ACCOUNT_ROW + "where (a.id = :id or a.accountNumber = :accountNumber) " +
+            "and (a.id = :id or a.hotSlots = 0) order by a.id")
+    List<AccountRow> findRowsForUpdate(@Param("id") UUID id, @Param("accountNumber") String accountNumber);
+
+    @Query(ACCOUNT_ROW + "where a.id = :id or a.accountNumber = :accountNumber")
+    List<AccountRow> findRows(@Param("id") UUID id, @Param("accountNumber") String accountNumber);
+
+    @Query(ACCOUNT_ROW + "where a.accountNumber = :accountNumber")
+    Optional<AccountRow> findRowByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    /** Writes a balance read through {@link AccountRow}; returns 0 when the row changed since it was read. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Account a set a.balance = :balance, a.version = a.version + 1 " +
+            "where a.id = :id and a.version = :version")
+    int updateBalance(@Param("id") UUID id, @Param("balance") Money balance, @Param("version") Long version);
+
+    @Query("select a.accountNumber from Account a where a.accountNumber in :accountNumbers")
+    List<String> findExistingAccountNumbers(@Param("accountNumbers") Collection<String> accountNumbers);
 }
@@ -0,0 +1,28 @@
+package com.mybanking.app.account.repository;
+
+import com.mybanking.app.account.entity.AccountSlot;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface AccountSlotRepository extends JpaRepository<AccountSlot, UUID> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "2000"))
+    @Query("select s from AccountSlot s where s.accountId = :accountId and s.slotNo = :slotNo")
+    Optional<AccountSlot> findForUpdate(@Param("accountId") UUID accountId, @Param("slotNo") int slotNo);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "2000"))
+    @Query("select s from AccountSlot s where s.accountId = :accountId order by s.slotNo")
+    List<AccountSlot> findAllForUpdate(@Param("accountId") UUID accountId);
+
+    @Query("select coalesce(sum(s.balance), 0) from AccountSlot s where s.accountId = :accountId")
+    BigDecimal sumBalance(@Param("accountId") UUID accountId);
+}
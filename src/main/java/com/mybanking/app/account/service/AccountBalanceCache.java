@@ -0,0 +1,97 @@
+package com.mybanking.app.account.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mybanking.app.account.dto.AccountSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Per-user cache of {@link AccountService#listMine}. Writes drop the owner's entry after commit and record the
+ * committed {@code Account.version}. A load older than that version (a read in flight during the write, or a
+ * lagging replica) is neither returned nor cached: it is repeated on the primary, so a user never reads a
+ * balance from before their own committed write.
+ * Metrics: {@code cache.gets}, {@code cache.puts}, {@code cache.evictions} and {@code cache.size}, tagged
+ * {@code cache=account.balances}.
+ */
+@Component
+public class AccountBalanceCache {
+
+    private final Cache<UUID, List<AccountSummary>> byUser;
+    private final Cache<UUID, Long> committedVersions;
+
+    public AccountBalanceCache(MeterRegistry meterRegistry,
+                               @Value("${app.accounts.cache.max-size:10000}") long maxSize,
+                               @Value("${app.accounts.cache.ttl:PT30S}") Duration ttl) {
+        this.byUser = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.committedVersions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byUser, "account.balances");
+    }
+
+    /** {@code loader} may read a replica; {@code primaryLoader} must read the primary. */
+    public List<AccountSummary> get(UUID userId,
+                                    Function<UUID, List<AccountSummary>> loader,
+                                    Function<UUID, List<AccountSummary>> primaryLoader) {
+        List<AccountSummary> cached = byUser.getIfPresent(userId);
+        if (cached != null) return cached;
+
+        List<AccountSummary> loaded = loader.apply(userId);
+        if (olderThanCommitted(loaded)) loaded = primaryLoader.apply(userId);
+        List<AccountSummary> result = loaded;
+        // compute is atomic with evict's invalidate, so a commit either sees this entry or this put sees its version
+        byUser.asMap().compute(userId, (id, current) -> current != null || olderThanCommitted(result) ? current : result);
+        return result;
+    }
+
+    /**
+     * Drops the owner's entry once the surrounding transaction commits, or right away without one.
+     * {@code version} is read at commit time; it may return null when the account row itself did not change.
+     */
+    public void evictAfterCommit(UUID ownerId, UUID accountId, Supplier<Long> version) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(ownerId, accountId, version.get());
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(ownerId, accountId, version.get());
+            }
+        });
+    }
+
+    /** Same, with the version the account row will have once committed (null when it does not change). */
+    public void evictAfterCommit(UUID ownerId, UUID accountId, Long version) {
+        evictAfterCommit(ownerId, accountId, () -> version);
+    }
+
+    void evict(UUID ownerId, UUID accountId, Long version) {
+        if (version != null) committedVersions.asMap().merge(accountId, version, Math::max);
+        byUser.invalidate(ownerId);
+    }
+
+    private boolean olderThanCommitted(List<AccountSummary> accounts) {
+        for (AccountSummary a : accounts) {
+            Long committed = committedVersions.getIfPresent(a.accountId());
+            if (committed != null && (a.version() == null || a.version() < committed)) return true;
+        }
+        return false;
+    }
+}
@@ -6,98 +6,148 @@ import com.mybanking.app.account.dto.WithdrawResult;
 import com.mybanking.app.account.entity.Account;
 import com.mybanking.app.account.repository.AccountRepository;
 import com.mybanking.app.common.error.AppException;
+import com.mybanking.app.common.retry.RetryOnConflict;
+import com.mybanking.app.common.util.ConcurrencyMode;
 import com.mybanking.app.common.util.FeePolicy;
-import lombok.RequiredArgsConstructor;
+import com.mybanking.app.common.util.Money;
+import com.mybanking.app.common.validation.Amounts;
+import com.mybanking.app.ledger.service.LedgerService;
+import com.mybanking.app.ledger.service.Postings;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static com.mybanking.app.common.error.ErrorCode.*;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class AccountService {
 
     private final AccountRepository accountRepository;
     private final FeePolicy feePolicy;
+    private final LedgerService ledgerService;
+    private final HotAccountSlots hotSlots;
+    private final AccountBalanceCache balanceCache;
+    private final TransactionTemplate txTemplate;
+    private final ConcurrencyMode concurrencyMode;
+
+    public AccountService(AccountRepository accountRepository,
+                          FeePolicy feePolicy,
+                          LedgerService ledgerService,
+                          HotAccountSlots hotSlots,
+                          AccountBalanceCache balanceCache,
+                          TransactionTemplate txTemplate,
+                          @Value("${app.accounts.concurrency:PESSIMISTIC}") ConcurrencyMode concurrencyMode) {
+        this.accountRepository = accountRepository;
+        this.feePolicy = feePolicy;
+        this.ledgerService = ledgerService;
+        this.hotSlots = hotSlots;
+        this.balanceCache = balanceCache;
+        this.txTemplate = txTemplate;
+        this.concurrencyMode = concurrencyMode;
+    }
 
-    @Transactional(readOnly = true)
+    /**
+     * Served from {@link AccountBalanceCache}; a hit does not touch the database. A miss reads the replica
+     * and falls back to the primary when that read is older than the caller's own committed write.
+     */
     public List<AccountSummary> listMine(UUID callerUserId) {
         log.info("listMine done userId={}", callerUserId);
-        return accountRepository.findAllByUser_Id(callerUserId)
-                .stream()
-                .map(a -> new AccountSummary(
-                        a.getId(),
-                        a.getAccountNumber(),
-                        a.getCard() != null ? a.getCard().getCardType() : null,
-                        a.getBalance()
-                ))
-                .toList();
+        return balanceCache.get(callerUserId, accountRepository::findSummariesByUserId, this::findSummariesOnPrimary);
+    }
+
+    /** The read-only repository method joins a read-write transaction, whose connection is the primary's. */
+    private List<AccountSummary> findSummariesOnPrimary(UUID userId) {
+        return txTemplate.execute(status -> accountRepository.findSummariesByUserId(userId));
     }
 
     @Transactional(readOnly = true)
     public List<AccountSummary> getAllBalances() {
         log.debug("getAllBalances start");
-        return accountRepository.findAll().stream()
-                .map(a -> new AccountSummary(
-                        a.getId(),
-                        a.getAccountNumber(),
-                        a.getCard() != null ? a.getCard().getCardType() : null,
-                        a.getBalance()))
-                .toList();
+        return accountRepository.findAllSummaries();
+    }
+
+    @Transactional
+    public AccountSummary setHotSlots(UUID accountId, int slots) {
+        if (slots < 0 || slots > HotAccountSlots.MAX_SLOTS)
+            throw AppException.badRequest(VALIDATION_ERROR, "slots must be between 0 and " + HotAccountSlots.MAX_SLOTS);
+
+        Account acc = accountRepository.findByIdForUpdate(accountId)
+                .orElseThrow(() -> AppException.notFound(ACCOUNT_NOT_FOUND, "Account not found"));
+        hotSlots.resize(acc, slots);
+        accountRepository.saveAndFlush(acc);
+        balanceCache.evictAfterCommit(acc.ownerId(), acc.getId(), acc::getVersion);
+        return new AccountSummary(acc.getId(), acc.getAccountNumber(),
+                acc.getCardType(), balanceOf(acc));
     }
 
+    @RetryOnConflict
     @Transactional
     public WithdrawResult withdraw(UUID accountId, BigDecimal amount, UUID callerUserId) {
         log.info("withdraw start accountId={} userId={} amount={}", accountId, callerUserId, amount);
-        validateAmount(amount);
+        Money value = Amounts.require(amount);
 
-        Account acc = accountRepository.findByIdForUpdate(accountId)
+        Account acc = loadForWrite(accountId)
                 .orElseThrow(() -> AppException.notFound(ACCOUNT_NOT_FOUND, "Account not found"));
 
         ensureOwnerOrThrow(acc, callerUserId);
 
-        BigDecimal fee = feePolicy.feeFor(FeePolicy.Operation.WITHDRAW, acc, amount);
+        Money fee = feePolicy.feeFor(FeePolicy.Operation.WITHDRAW, acc.getCardType(), value);
 
-        acc.withdrawWithFeeOrThrow(amount, fee,
+        hotSlots.coverDebit(acc, value.plus(fee));
+        acc.withdrawWithFeeOrThrow(value, fee,
                 () -> AppException.conflict(INSUFFICIENT_BALANCE, "Insufficient balance"));
 
         accountRepository.saveAndFlush(acc);
-        return new WithdrawResult(acc.getId(), amount, fee, acc.getBalance());
+        balanceCache.evictAfterCommit(acc.ownerId(), acc.getId(), acc::getVersion);
+        ledgerService.append(Postings.withdrawal(acc.getId(), value.toBigDecimal(), fee.toBigDecimal(), Instant.now()));
+        return new WithdrawResult(acc.getId(), value.toBigDecimal(), fee.toBigDecimal(), balanceOf(acc));
     }
 
+    @RetryOnConflict
     @Transactional
     public DepositResult deposit(UUID accountId, BigDecimal amount, UUID callerUserId) {
         log.info("deposit start accountId={} userId={} amount={}", accountId, callerUserId, amount);
-        validateAmount(amount);
+        Money value = Amounts.require(amount);
 
-        Account acc = accountRepository.findByIdForUpdate(accountId)
+        Account acc = loadForWrite(accountId)
                 .orElseThrow(() -> AppException.notFound(ACCOUNT_NOT_FOUND, "Account not found"));
 
         ensureOwnerOrThrow(acc, callerUserId);
 
-        BigDecimal fee = feePolicy.feeFor(FeePolicy.Operation.DEPOSIT, acc, amount);
-        BigDecimal net = amount.subtract(fee);
+        Money fee = feePolicy.feeFor(FeePolicy.Operation.DEPOSIT, acc.getCardType(), value);
+        Money net = value.minus(fee);
         if (net.signum() <= 0)
             throw AppException.badRequest(VALIDATION_ERROR, "Net amount must be > 0");
 
         acc.depositCore(net);
         accountRepository.saveAndFlush(acc);
-        return new DepositResult(acc.getId(), amount, fee, acc.getBalance());
+        balanceCache.evictAfterCommit(acc.ownerId(), acc.getId(), acc::getVersion);
+        ledgerService.append(Postings.deposit(acc.getId(), value.toBigDecimal(), fee.toBigDecimal(), Instant.now()));
+        return new DepositResult(acc.getId(), value.toBigDecimal(), fee.toBigDecimal(), balanceOf(acc));
+    }
+
+    private BigDecimal balanceOf(Account account) {
+        return (account.getHotSlots() > 0 ? hotSlots.consolidatedBalance(account) : account.getBalance()).toBigDecimal();
     }
 
-    private static void validateAmount(BigDecimal amount) {
-        if (amount == null || amount.signum() <= 0)
-            throw AppException.badRequest(VALIDATION_ERROR, "Amount must be > 0");
+    private Optional<Account> loadForWrite(UUID accountId) {
+        return concurrencyMode == ConcurrencyMode.OPTIMISTIC
+                ? accountRepository.findById(accountId)
+                : accountRepository.findByIdForUpdate(accountId);
     }
 
+
     private static void ensureOwnerOrThrow(Account acc, UUID requesterId) {
-        if (!acc.getUser().getId().equals(requesterId)) {
+        if (!acc.ownerId().equals(requesterId)) {
             log.warn("forbidden accountId={} requesterId={}", acc.getId(), requesterId);
             throw AppException.forbidden(ACCOUNT_FORBIDDEN, "Not owner of the account");
         }
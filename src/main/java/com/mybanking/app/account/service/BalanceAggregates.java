@@ -0,0 +1,63 @@
+package com.mybanking.app.account.service;
+
+import com.mybanking.app.account.dto.BalanceReport;
+import com.mybanking.app.common.util.CardType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/** Running totals behind a {@link BalanceReport}. Histogram buckets split at 100, 1k, 10k, 100k and 1M. */
+public final class BalanceAggregates {
+
+    public static final String NO_CARD = "NONE";
+
+    private static final BigDecimal[] BOUNDS = {
+            new BigDecimal("100"), new BigDecimal("1000"), new BigDecimal("10000"),
+            new BigDecimal("100000"), new BigDecimal("1000000")
+    };
+
+    public static final int BUCKETS = BOUNDS.length + 1;
+
+    private long accounts;
+    private BigDecimal total = BigDecimal.ZERO;
+    private final Map<String, Long> byCardType = new TreeMap<>();
+    private final long[] histogram = new long[BUCKETS];
+
+    public static int bucketOf(BigDecimal balance) {
+        int i = 0;
+        while (i < BOUNDS.length && balance.compareTo(BOUNDS[i]) >= 0) i++;
+        return i;
+    }
+
+    public static String cardKey(CardType cardType) {
+        return cardType == null ? NO_CARD : cardType.name();
+    }
+
+    public void add(CardType cardType, BigDecimal balance) {
+        add(cardKey(cardType), bucketOf(balance), 1, balance);
+    }
+
+    /** Adds {@code count} accounts holding {@code sum} in total, all in one card type and bucket. */
+    public void add(String cardKey, int bucket, long count, BigDecimal sum) {
+        if (count == 0) return;
+        accounts += count;
+        total = total.add(sum);
+        byCardType.merge(cardKey, count, Long::sum);
+        histogram[bucket] += count;
+    }
+
+    public BalanceReport toReport(Instant asOf) {
+        List<BalanceReport.Bucket> buckets = new ArrayList<>(BUCKETS);
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.add(new BalanceReport.Bucket(
+                    i == 0 ? null : BOUNDS[i - 1],
+                    i == BOUNDS.length ? null : BOUNDS[i],
+                    histogram[i]));
+        }
+        return new BalanceReport(accounts, total, byCardType, buckets, asOf);
+    }
+}
@@ -0,0 +1,84 @@
+package com.mybanking.app.account.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mybanking.app.account.dto.AccountSummary;
+import com.mybanking.app.account.repository.AccountRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes every account balance as one JSON array while the rows are still being read from a forward-only
+ * cursor, so memory use does not grow with the number of accounts. With aggregates requested the array is
+ * wrapped as {@code {"accounts": [...], "aggregates": {...}}} and the totals are computed in the same pass.
+ */
+@Slf4j
+@Service
+public class BalanceReportService {
+
+    private static final int FLUSH_EVERY = 1000;
+
+    private final AccountRepository accountRepo;
+    private final ObjectWriter rowWriter;
+    private final TransactionTemplate readOnlyTx;
+
+    public BalanceReportService(AccountRepository accountRepo,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager) {
+        this.accountRepo = accountRepo;
+        this.rowWriter = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    public StreamingResponseBody streamBalances(boolean aggregates) {
+        return out -> readOnlyTx.executeWithoutResult(status -> {
+            try (Stream<AccountSummary> rows = accountRepo.streamAllSummaries()) {
+                long count = write(out, rows.iterator(), aggregates);
+                log.info("balance report streamed rows={} aggregates={}", count, aggregates);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    long write(OutputStream out, Iterator<AccountSummary> rows, boolean aggregates) throws IOException {
+        JsonGenerator json = rowWriter.createGenerator(out);
+        BalanceAggregates totals = aggregates ? new BalanceAggregates() : null;
+        if (aggregates) {
+            json.writeStartObject();
+            json.writeFieldName("accounts");
+        }
+        json.writeStartArray();
+
+        long count = 0;
+        while (rows.hasNext()) {
+            AccountSummary row = rows.next();
+            rowWriter.writeValue(json, row);
+            if (totals != null) totals.add(row.cardType(), row.balance());
+            if (++count % FLUSH_EVERY == 0) json.flush();
+        }
+        json.writeEndArray();
+
+        if (aggregates) {
+            json.writeFieldName("aggregates");
+            rowWriter.writeValue(json, totals.toReport(null));
+            json.writeEndObject();
+        }
+        json.close();
+        return count;
+    }
+}
@@ -0,0 +1,117 @@
+package com.mybanking.app.account.service;
+
+import com.mybanking.app.account.entity.Account;
+import com.mybanking.app.account.entity.AccountSlot;
+import com.mybanking.app.account.repository.AccountSlotRepository;
+import com.mybanking.app.common.util.Money;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sub-balances of hot accounts. Credits lock one random slot instead of the account row, so K slots
+ * take K concurrent incoming transfers; debits lock the account row and sweep slots into it when the
+ * row alone cannot cover them. Locks are taken account rows first, then slots in one global order:
+ * account id (as the database orders uuids), then slot number. A caller that credits one hot account
+ * and sweeps another in the same transaction must take the lower account's slots first.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HotAccountSlots {
+
+    public static final int MAX_SLOTS = 64;
+
+    private final AccountSlotRepository slotRepo;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void credit(Account account, Money amount) {
+        credit(account.getId(), account.getHotSlots(), amount);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void credit(UUID accountId, int slots, Money amount) {
+        credit(lockCreditSlot(accountId, slots), amount);
+    }
+
+    /**
+     * Locks one random slot of a hot account for a later {@link #credit(AccountSlot, Money)}. A slot removed
+     * by a concurrent {@link #resize} is reported as an optimistic conflict, so the caller retries with the
+     * new slot count.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public AccountSlot lockCreditSlot(UUID accountId, int slots) {
+        int slotNo = ThreadLocalRandom.current().nextInt(slots);
+        return slotRepo.findForUpdate(accountId, slotNo)
+                .orElseThrow(() -> new OptimisticLockingFailureException(
+                        "Slot " + slotNo + " of account " + accountId + " was removed by a resize"));
+    }
+
+    public void credit(AccountSlot lockedSlot, Money amount) {
+        lockedSlot.setBalance(lockedSlot.getBalance().add(amount.toBigDecimal()));
+    }
+
+    /** Moves slot balances into the locked account row until it covers {@code required} or the slots are empty. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void coverDebit(Account lockedAccount, Money required) {
+        lockedAccount.setBalance(sweep(lockedAccount.getId(), lockedAccount.getHotSlots(), lockedAccount.getBalance(), required));
+    }
+
+    /** {@link #coverDebit} for a row locked through a projection; returns the row balance after the sweep. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Money sweep(UUID accountId, int slots, Money balance, Money required) {
+        if (slots == 0 || !balance.isLessThan(required)) return balance;
+
+        for (AccountSlot slot : slotRepo.findAllForUpdate(accountId)) {
+            if (slot.getBalance().signum() == 0) continue;
+            balance = balance.plus(Money.of(slot.getBalance()));
+            slot.setBalance(BigDecimal.ZERO);
+            if (!balance.isLessThan(required)) break;
+        }
+        return balance;
+    }
+
+    public Money consolidatedBalance(Account account) {
+        return consolidatedBalance(account.getId(), account.getHotSlots(), account.getBalance());
+    }
+
+    public Money consolidatedBalance(UUID accountId, int slots, Money rowBalance) {
+        if (slots == 0) return rowBalance;
+        return rowBalance.plus(Money.of(slotRepo.sumBalance(accountId)));
+    }
+
+    /** Resizes the slot set of a locked account; balances of removed slots go back to the account row. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void resize(Account lockedAccount, int slots) {
+        List<AccountSlot> existing = slotRepo.findAllForUpdate(lockedAccount.getId());
+        Set<Integer> present = new HashSet<>();
+        List<AccountSlot> removed = new ArrayList<>();
+        for (AccountSlot slot : existing) {
+            if (slot.getSlotNo() >= slots) {
+                lockedAccount.setBalance(lockedAccount.getBalance().plus(Money.of(slot.getBalance())));
+                removed.add(slot);
+            } else {
+                present.add(slot.getSlotNo());
+            }
+        }
+        slotRepo.deleteAll(removed);
+
+        List<AccountSlot> added = new ArrayList<>();
+        for (int i = 0; i < slots; i++) {
+            if (!present.contains(i)) {
+                added.add(AccountSlot.builder().accountId(lockedAccount.getId()).slotNo(i).balance(BigDecimal.ZERO).build());
+            }
+        }
+        slotRepo.saveAll(added);
+        lockedAccount.setHotSlots(slots);
+        log.info("hot slots resized accountId={} slots={} added={} removed={}",
+                lockedAccount.getId(), slots, added.size(), removed.size());
+    }
+}
@@ -3,6 +3,7 @@ package com.mybanking.app.auth.controller;
 import com.mybanking.app.auth.dto.LoginRequest;
 import com.mybanking.app.auth.dto.LoginResponse;
 import com.mybanking.app.auth.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,9 +19,16 @@ public class AuthController {
     private final AuthService authService;
 
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@RequestBody @Valid LoginRequest req) {
+    public ResponseEntity<LoginResponse> login(@RequestBody @Valid LoginRequest req, HttpServletRequest http) {
         log.info("login start email={}", req.email());
-        var res = authService.loginWithEmail(req.email(), req.password());
+        var res = authService.loginWithEmail(req.email(), req.password(), http.getRemoteAddr());
         return ResponseEntity.ok(new LoginResponse(res.token(), res.expiresAt(), res.roles()));
     }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = "Authorization", required = false) String authorization) {
+        String token = (authorization != null && authorization.startsWith("Bearer ")) ? authorization.substring(7) : null;
+        authService.logout(token);
+        return ResponseEntity.noContent().build();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.mybanking.app.auth.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "ix_revoked_tokens_revoked_at", columnList = "revokedAt"),
+        @Index(name = "ix_revoked_tokens_expires_at", columnList = "expiresAt")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevokedToken {
+
+    /** The token's {@code jti} claim. */
+    @Id
+    @Column(length = 64)
+    private String jti;
+
+    /** The token's {@code exp}; the row is purged after it. */
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    @Column(nullable = false)
+    private Instant revokedAt;
+}
@@ -2,12 +2,15 @@ package com.mybanking.app.auth.service;
 
 import com.mybanking.app.common.error.AppException;
 import com.mybanking.app.common.error.ErrorCode;
+import com.mybanking.app.user.dto.LoginCredentials;
+import com.mybanking.app.user.entity.User;
 import com.mybanking.app.user.repository.UserRepository;
+import com.mybanking.app.user.service.UnknownEmailCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -20,31 +23,66 @@ import static org.springframework.http.HttpStatus.UNAUTHORIZED;
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordVerifier passwordVerifier;
+    private final LoginThrottle loginThrottle;
+    private final UnknownEmailCache unknownEmails;
+    private final TokenRevocationService tokenRevocations;
     private final com.mybanking.app.security.JwtTokenProvider jwtTokenProvider;
 
-    public LoginResult loginWithEmail(String email, String rawPassword) {
+    public LoginResult loginWithEmail(String email, String rawPassword, String clientIp) {
         if (email == null || email.isBlank() || rawPassword == null || rawPassword.isBlank()) {
             throw new AppException(ErrorCode.VALIDATION_ERROR, BAD_REQUEST, "Email and password are required");
         }
 
-        final String normEmail = email.trim().toLowerCase();
+        final String normEmail = User.normalizeEmail(email);
         log.info("login attempt email={}", normEmail);
+        loginThrottle.acquire(normEmail, clientIp);
 
-        var user = userRepository.findByEmail(normEmail)
+        var user = findCredentials(normEmail)
                 .orElseThrow(() -> new AppException(ErrorCode.AUTH_INVALID_CREDENTIALS, UNAUTHORIZED, "Invalid credentials"));
 
-        if (!passwordEncoder.matches(rawPassword, user.getPassword())) {
+        var verification = passwordVerifier.verify(rawPassword, user.passwordHash());
+        if (!verification.matches()) {
             throw new AppException(ErrorCode.AUTH_INVALID_CREDENTIALS, UNAUTHORIZED, "Invalid credentials");
         }
+        if (verification.upgradedHash() != null) {
+            rehash(user, verification.upgradedHash());
+        }
 
-        String token = jwtTokenProvider.createToken(user.getId().toString(), user.getRoles());
-        Set<String> roles = user.getRoles().stream().map(Object::toString).collect(Collectors.toSet());
+        String token = jwtTokenProvider.createToken(user.id().toString(), user.roles());
+        Set<String> roles = user.roles().stream().map(Object::toString).collect(Collectors.toSet());
         long expiresAt = jwtTokenProvider.getExpiryEpochSeconds();
 
-        log.info("login success userId={} roles={}", user.getId(), roles);
+        log.info("login success userId={} roles={}", user.id(), roles);
         return new LoginResult(token, expiresAt, roles);
     }
 
+    /** Revokes {@code token} until its own expiry; it must still be valid. */
+    public void logout(String token) {
+        var principal = Optional.ofNullable(token)
+                .flatMap(jwtTokenProvider::authenticate)
+                .filter(p -> p.tokenId() != null && p.expiresAt() != null)
+                .orElseThrow(() -> new AppException(ErrorCode.UNAUTHORIZED, UNAUTHORIZED, "Client is unauthorized"));
+        tokenRevocations.revoke(principal.tokenId(), principal.expiresAt());
+        log.info("logout userId={}", principal.subject());
+    }
+
+    private Optional<LoginCredentials> findCredentials(String email) {
+        if (unknownEmails.isUnknown(email)) return Optional.empty();
+        long generation = unknownEmails.generation();
+        var found = userRepository.findLoginCredentials(email);
+        if (found.isEmpty()) unknownEmails.markUnknown(email, generation);
+        return found;
+    }
+
+    /** Stores a hash re-encoded at the current BCrypt cost; a concurrent password change wins over it. */
+    private void rehash(LoginCredentials user, String hash) {
+        if (userRepository.updatePasswordIfUnchanged(user.id(), user.passwordHash(), hash) == 1) {
+            log.info("password rehashed userId={}", user.id());
+        } else {
+            log.debug("password rehash skipped userId={}", user.id());
+        }
+    }
+
     public record LoginResult(String token, long expiresAt, Set<String> roles) {}
 }
@@ -0,0 +1,46 @@
+package com.mybanking.app.auth.service;
+
+import com.mybanking.app.common.error.AppException;
+import com.mybanking.app.common.error.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-email and per-client-IP login budgets, checked before the user lookup and the password hash so a
+ * credential-stuffing wave is turned away without spending BCrypt work on it.
+ */
+@Component
+public class LoginThrottle {
+
+    private final StripedTokenBucket byEmail;
+    private final StripedTokenBucket byIp;
+    private final Counter throttled;
+
+    public LoginThrottle(
+            @Value("${app.auth.throttle.stripes:4096}") int stripes,
+            @Value("${app.auth.throttle.email.capacity:10}") int emailCapacity,
+            @Value("${app.auth.throttle.email.refill-per-minute:5}") int emailRefill,
+            @Value("${app.auth.throttle.ip.capacity:50}") int ipCapacity,
+            @Value("${app.auth.throttle.ip.refill-per-minute:60}") int ipRefill,
+            MeterRegistry meterRegistry) {
+        this.byEmail = new StripedTokenBucket(stripes, emailCapacity, emailRefill);
+        this.byIp = new StripedTokenBucket(stripes, ipCapacity, ipRefill);
+        this.throttled = meterRegistry.counter("auth.login.throttled");
+    }
+
+    /**
+     * Spends one attempt for {@code clientIp} and then {@code email}; 429 if either budget is exhausted. The IP
+     * goes first so a client that is out of budget cannot keep draining someone else's email bucket.
+     */
+    public void acquire(String email, String clientIp) {
+        boolean ok = (clientIp == null || byIp.tryAcquire(clientIp)) && byEmail.tryAcquire(email);
+        if (!ok) {
+            throttled.increment();
+            throw new AppException(ErrorCode.AUTH_THROTTLED, HttpStatus.TOO_MANY_REQUESTS,
+                    "Too many login attempts, please retry later");
+        }
+    }
+}
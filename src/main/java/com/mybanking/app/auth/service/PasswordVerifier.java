@@ -0,0 +1,87 @@
+package com.mybanking.app.auth.service;
+
+import com.mybanking.app.common.error.AppException;
+import com.mybanking.app.common.error.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs password hashing on a small bounded pool instead of the request thread, so a login storm can only
+ * occupy {@code threads} cores and {@code queue-capacity} waiting requests; anything beyond that is refused
+ * with 429 straight away. Hashes stored below the encoder's current cost are re-encoded in the same task.
+ * Verify latency is recorded as {@code auth.password.verify}.
+ */
+@Component
+public class PasswordVerifier {
+
+    public record Verification(boolean matches, String upgradedHash) {}
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Timer verifyTimer;
+    private final Counter rejected;
+
+    public PasswordVerifier(
+            PasswordEncoder passwordEncoder,
+            @Value("${app.auth.verify.threads:0}") int threads,
+            @Value("${app.auth.verify.queue-capacity:64}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "password-verify-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.verifyTimer = meterRegistry.timer("auth.password.verify");
+        this.rejected = meterRegistry.counter("auth.password.rejected");
+        meterRegistry.gauge("auth.password.queue", executor, e -> e.getQueue().size());
+    }
+
+    /** Checks {@code raw} against {@code storedHash}; on a match, also returns a fresh hash if the stored cost is outdated. */
+    public Verification verify(String raw, String storedHash) {
+        CompletableFuture<Verification> future;
+        try {
+            future = CompletableFuture.supplyAsync(() -> check(raw, storedHash), executor);
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            throw new AppException(ErrorCode.SERVICE_BUSY, HttpStatus.TOO_MANY_REQUESTS, "Login is busy, please retry", ex);
+        }
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException re) throw re;
+            throw ex;
+        }
+    }
+
+    private Verification check(String raw, String storedHash) {
+        boolean matches = verifyTimer.record(() -> passwordEncoder.matches(raw, storedHash));
+        if (!matches) return new Verification(false, null);
+        String upgraded = passwordEncoder.upgradeEncoding(storedHash) ? passwordEncoder.encode(raw) : null;
+        return new Verification(true, upgraded);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
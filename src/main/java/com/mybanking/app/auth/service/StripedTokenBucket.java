@@ -0,0 +1,64 @@
+package com.mybanking.app.auth.service;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A fixed array of token buckets addressed by the hash of a key, so memory stays bounded no matter how many
+ * distinct keys are seen. Keys that share a stripe share its budget, which only ever makes throttling stricter.
+ * Each stripe refills continuously at {@code refillPerMinute} up to {@code capacity}.
+ */
+public final class StripedTokenBucket {
+
+    private final Stripe[] stripes;
+    private final int mask;
+    private final double capacity;
+    private final double tokensPerNano;
+    private final LongSupplier nanoClock;
+
+    public StripedTokenBucket(int stripes, int capacity, int refillPerMinute) {
+        this(stripes, capacity, refillPerMinute, System::nanoTime);
+    }
+
+    StripedTokenBucket(int stripes, int capacity, int refillPerMinute, LongSupplier nanoClock) {
+        if (stripes < 1 || capacity < 1 || refillPerMinute < 1) {
+            throw new IllegalArgumentException("stripes, capacity and refillPerMinute must be positive");
+        }
+        int size = Integer.highestOneBit(stripes - 1) << 1;
+        if (size < 1) size = 1;
+        this.stripes = new Stripe[size];
+        this.mask = size - 1;
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerMinute / 60_000_000_000d;
+        this.nanoClock = nanoClock;
+        long now = nanoClock.getAsLong();
+        for (int i = 0; i < size; i++) this.stripes[i] = new Stripe(capacity, now);
+    }
+
+    /** Takes one token from the stripe of {@code key}; false if the stripe is empty. */
+    public boolean tryAcquire(String key) {
+        int h = key.hashCode();
+        Stripe s = stripes[(h ^ (h >>> 16)) & mask];
+        synchronized (s) {
+            long now = nanoClock.getAsLong();
+            s.tokens = Math.min(capacity, s.tokens + (now - s.refilledAt) * tokensPerNano);
+            s.refilledAt = now;
+            if (s.tokens < 1) return false;
+            s.tokens -= 1;
+            return true;
+        }
+    }
+
+    int stripeCount() {
+        return stripes.length;
+    }
+
+    private static final class Stripe {
+        double tokens;
+        long refilledAt;
+
+        Stripe(double tokens, long refilledAt) {
+            this.tokens = tokens;
+            this.refilledAt = refilledAt;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.mybanking.app.auth.service;
+
+import com.mybanking.app.auth.entity.RevokedToken;
+import com.mybanking.app.auth.repository.RevokedTokenRepository;
+import com.mybanking.app.common.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Denylist of access tokens by {@code jti}. The {@code revoked_tokens} table is the source of truth; an
+ * in-memory Bloom filter in front of it answers "not revoked" for almost every live token without a query,
+ * and only filter hits are confirmed against the table. The filter picks up rows written by other
+ * instances every {@code refresh-interval-ms}, and is rebuilt from scratch after expired rows are purged
+ * (a Bloom filter cannot forget keys). All reads go to the primary: a lagging replica would let a token
+ * revoked a moment ago through.
+ * Metrics: {@code auth.revocation.checks} tagged {@code result=pass|false-positive|revoked}.
+ */
+@Service
+@Slf4j
+public class TokenRevocationService {
+
+    /** Re-read window behind the newest row seen, for commits that land late or clocks that differ. */
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+
+    private final RevokedTokenRepository repository;
+    private final TransactionTemplate tx;
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+    private final Counter passed;
+    private final Counter falsePositives;
+    private final Counter revoked;
+
+    private volatile BloomFilter filter;
+    private volatile Instant newestSeen = Instant.EPOCH;
+
+    public TokenRevocationService(RevokedTokenRepository repository,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.auth.revocation.expected-entries:100000}") int expectedEntries,
+                                  @Value("${app.auth.revocation.false-positive-rate:0.001}") double falsePositiveRate) {
+        this.repository = repository;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedEntries, falsePositiveRate);
+        this.passed = meterRegistry.counter("auth.revocation.checks", "result", "pass");
+        this.falsePositives = meterRegistry.counter("auth.revocation.checks", "result", "false-positive");
+        this.revoked = meterRegistry.counter("auth.revocation.checks", "result", "revoked");
+    }
+
+    /** True if the token with this {@code jti} was revoked; tokens without one cannot be revoked. */
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            passed.increment();
+            return false;
+        }
+        if (Boolean.TRUE.equals(tx.execute(s -> repository.existsById(jti)))) {
+            revoked.increment();
+            return true;
+        }
+        falsePositives.increment();
+        return false;
+    }
+
+    public void revoke(String jti, Instant expiresAt) {
+        filter.put(jti);
+        tx.executeWithoutResult(s -> repository.save(RevokedToken.builder()
+                .jti(jti).expiresAt(expiresAt).revokedAt(Instant.now()).build()));
+        log.info("token revoked jti={}", jti);
+    }
+
+    /** Adds rows revoked since the last refresh, including by other instances, to the filter. */
+    @Scheduled(fixedDelayString = "${app.auth.revocation.refresh-interval-ms:5000}")
+    public void refresh() {
+        addAll(filter, tx.execute(s -> repository.findByRevokedAtGreaterThanEqual(newestSeen.minus(REFRESH_OVERLAP))));
+    }
+
+    /** Deletes rows whose tokens have expired anyway, then rebuilds the filter from what is left. */
+    @Scheduled(fixedDelayString = "${app.auth.revocation.purge-interval-ms:3600000}",
+            initialDelayString = "${app.auth.revocation.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        Integer removed = tx.execute(s -> repository.deleteExpiredBefore(Instant.now()));
+        if (removed != null && removed > 0) log.info("revoked tokens purged count={}", removed);
+        rebuild();
+    }
+
+    @PostConstruct
+    void rebuild() {
+        var fresh = new BloomFilter(expectedEntries, falsePositiveRate);
+        addAll(fresh, tx.execute(s -> repository.findAll()));
+        filter = fresh;
+        refresh(); // revocations put into the old filter while the rows above were read
+    }
+
+    private void addAll(BloomFilter target, List<RevokedToken> rows) {
+        Instant newest = newestSeen;
+        for (RevokedToken row : rows) {
+            target.put(row.getJti());
+            if (row.getRevokedAt().isAfter(newest)) newest = row.getRevokedAt();
+        }
+        newestSeen = newest;
+    }
+}
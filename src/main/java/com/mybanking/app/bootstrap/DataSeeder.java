@@ -5,6 +5,8 @@ import com.mybanking.app.account.repository.AccountRepository;
 import com.mybanking.app.card.repository.CardRepository;
 import com.mybanking.app.card.entity.Card;
 import com.mybanking.app.common.util.CardType;
+import com.mybanking.app.ledger.service.LedgerService;
+import com.mybanking.app.ledger.service.Postings;
 import com.mybanking.app.user.dto.Role;
 import com.mybanking.app.user.entity.User;
 import com.mybanking.app.user.repository.UserRepository;
@@ -16,6 +18,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
 import java.util.Set;
 
 @Component
@@ -27,6 +31,7 @@ public class DataSeeder implements CommandLineRunner {
     private final AccountRepository accountRepo;
     private final CardRepository cardRepo;
     private final PasswordEncoder encoder;
+    private final LedgerService ledgerService;
 
     @Override
     @Transactional
@@ -83,5 +88,10 @@ public class DataSeeder implements CommandLineRunner {
         cardRepo.save(Card.builder()
                 .account(credit2).cardType(CardType.CREDIT)
                 .cardNumber("5105 1051 0510 5102").build());
+
+        var openedAt = Instant.now();
+        for (var account : List.of(debit, credit, debit2, credit2)) {
+            ledgerService.append(Postings.opening(account.getId(), account.getBalance().toBigDecimal(), openedAt));
+        }
     }
 }
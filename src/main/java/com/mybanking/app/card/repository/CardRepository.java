@@ -2,9 +2,15 @@ package com.mybanking.app.card.repository;
 
 import com.mybanking.app.card.entity.Card;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 public interface CardRepository extends JpaRepository<Card, UUID> {
 
+    @Query("select c.cardNumber from Card c where c.cardNumber in :cardNumbers")
+    List<String> findExistingCardNumbers(@Param("cardNumbers") Collection<String> cardNumbers);
 }
@@ -0,0 +1,91 @@
+package com.mybanking.app.common.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to a replica pool and everything else to the primary; enabled by
+ * {@code app.datasource.replica.url}. The lazy proxy defers fetching a connection until the first statement,
+ * by which point the transaction manager has marked it read-only. Both pools are separate Hikari pools
+ * ({@code primary}/{@code replica}), so the hikaricp.* metrics are reported per route.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.url")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource ds = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        ds.setPoolName("primary");
+        return ds;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${app.datasource.replica.url}") String url,
+                                              @Value("${app.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${app.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource ds = new HikariDataSource();
+        ds.setPoolName("replica");
+        ds.setDriverClassName(properties.determineDriverClassName());
+        ds.setJdbcUrl(url);
+        ds.setUsername(username);
+        ds.setPassword(password);
+        ds.setReadOnly(true);
+        return ds;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replica,
+                                               @Value("${app.datasource.replica.lag-query:}") String lagQuery,
+                                               @Value("${app.datasource.replica.max-lag:PT5S}") Duration maxLag,
+                                               MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(replica, lagQuery, maxLag, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagMonitor lagMonitor) {
+        var readOnly = new ReplicaFallbackDataSource(lagMonitor);
+        readOnly.setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        readOnly.afterPropertiesSet();
+
+        var proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(readOnly);
+        return proxy;
+    }
+
+    enum Route { PRIMARY, REPLICA }
+
+    /** Read-only target: the replica while it keeps up, the primary otherwise. */
+    static class ReplicaFallbackDataSource extends AbstractRoutingDataSource {
+        private final ReplicaLagMonitor lagMonitor;
+
+        ReplicaFallbackDataSource(ReplicaLagMonitor lagMonitor) {
+            this.lagMonitor = lagMonitor;
+        }
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return lagMonitor.isReplicaUsable() ? Route.REPLICA : Route.PRIMARY;
+        }
+    }
+}
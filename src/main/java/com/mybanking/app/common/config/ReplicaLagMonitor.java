@@ -0,0 +1,60 @@
+package com.mybanking.app.common.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Probes the replica on a fixed delay and marks it unusable while its lag exceeds
+ * {@code app.datasource.replica.max-lag} or the probe fails; read-only work then falls back to the primary.
+ * The lag query returns seconds behind the primary (null counts as caught up); without one only
+ * reachability is checked.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final JdbcTemplate replica;
+    private final String lagQuery;
+    private final Duration maxLag;
+
+    private volatile boolean usable = true;
+    private volatile double lagSeconds;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, Duration maxLag, MeterRegistry meterRegistry) {
+        this.replica = new JdbcTemplate(replica);
+        this.replica.setQueryTimeout((int) Math.max(1, maxLag.toSeconds()));
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+        Gauge.builder("bank.datasource.replica.lag", this, m -> m.lagSeconds).baseUnit("seconds").register(meterRegistry);
+        Gauge.builder("bank.datasource.replica.usable", this, m -> m.usable ? 1 : 0).register(meterRegistry);
+    }
+
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:1000}")
+    public void check() {
+        boolean wasUsable = usable;
+        try {
+            Double lag = lagQuery == null || lagQuery.isBlank()
+                    ? replica.queryForObject("select 0", Double.class)
+                    : replica.queryForObject(lagQuery, Double.class);
+            lagSeconds = lag == null ? 0 : lag;
+            usable = lagSeconds * 1000 <= maxLag.toMillis();
+        } catch (RuntimeException ex) {
+            log.debug("replica lag probe failed: {}", ex.getMessage());
+            lagSeconds = Double.NaN;
+            usable = false;
+        }
+        if (wasUsable != usable) {
+            log.warn("replica {} (lag={}s, max={})", usable ? "back in rotation" : "out of rotation, reads go to primary",
+                    lagSeconds, maxLag);
+        }
+    }
+}
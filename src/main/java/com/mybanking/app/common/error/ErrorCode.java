@@ -8,5 +8,11 @@ public enum ErrorCode {
     UNAUTHORIZED,
     AUTH_FORBIDDEN,
     AUTH_INVALID_CREDENTIALS,
-    SAME_ACCOUNT
+    AUTH_THROTTLED,
+    SAME_ACCOUNT,
+    CONCURRENT_MODIFICATION,
+    ALREADY_EXISTS,
+    SERVICE_BUSY,
+    IDEMPOTENCY_KEY_REUSED,
+    IDEMPOTENCY_IN_PROGRESS
 }
@@ -1,8 +1,13 @@
 package com.mybanking.app.common.error;
 
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PessimisticLockException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.http.*;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.FieldError;
@@ -83,6 +88,22 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(body);
     }
 
+    @ExceptionHandler({PessimisticLockingFailureException.class, OptimisticLockingFailureException.class,
+            PessimisticLockException.class, OptimisticLockException.class, LockTimeoutException.class})
+    public ResponseEntity<ErrorResponse> handleLockConflict(RuntimeException ex, HttpServletRequest req) {
+        log.warn("lock conflict path={} cause={}", req.getRequestURI(), ex.getClass().getSimpleName());
+        ErrorResponse body = new ErrorResponse(
+                Instant.now(),
+                req.getRequestURI(),
+                HttpStatus.CONFLICT.value(),
+                ErrorCode.CONCURRENT_MODIFICATION.name(),
+                "Account is busy, please retry",
+                List.of(),
+                traceId()
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleOther(Exception ex, HttpServletRequest req) {
         log.error("Unhandled exception path={}", req.getRequestURI(), ex);
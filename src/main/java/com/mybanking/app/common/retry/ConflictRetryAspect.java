@@ -0,0 +1,96 @@
+package com.mybanking.app.common.retry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PessimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class ConflictRetryAspect {
+
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final MeterRegistry meterRegistry;
+
+    public ConflictRetryAspect(
+            MeterRegistry meterRegistry,
+            @Value("${app.tx.retry.max-attempts:3}") int maxAttempts,
+            @Value("${app.tx.retry.initial-backoff-ms:20}") long initialBackoffMs,
+            @Value("${app.tx.retry.max-backoff-ms:200}") long maxBackoffMs) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMs = Math.max(1, initialBackoffMs);
+        this.maxBackoffMs = Math.max(this.initialBackoffMs, maxBackoffMs);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(com.mybanking.app.common.retry.RetryOnConflict)")
+    public Object retry(ProceedingJoinPoint pjp) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return pjp.proceed();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return pjp.proceed();
+            } catch (RuntimeException ex) {
+                if (!isRetryable(ex)) throw ex;
+                String method = pjp.getSignature().toShortString();
+                if (attempt >= maxAttempts) {
+                    meterRegistry.counter("bank.tx.conflict.exhausted", "method", method).increment();
+                    throw ex;
+                }
+                meterRegistry.counter("bank.tx.conflict.retries", "method", method, "cause", ex.getClass().getSimpleName()).increment();
+                long delay = backoffMs(attempt);
+                log.warn("conflict retry method={} attempt={}/{} delayMs={} cause={}",
+                        method, attempt, maxAttempts, delay, ex.getClass().getSimpleName());
+                if (!sleep(delay)) throw ex;
+            }
+        }
+    }
+
+    long backoffMs(int attempt) {
+        long cap = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        long half = cap / 2;
+        return half + ThreadLocalRandom.current().nextLong(cap - half + 1);
+    }
+
+    static boolean isRetryable(Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof PessimisticLockingFailureException
+                    || t instanceof OptimisticLockingFailureException
+                    || t instanceof PessimisticLockException
+                    || t instanceof OptimisticLockException
+                    || t instanceof LockTimeoutException) {
+                return true;
+            }
+            if (t.getCause() == t) break;
+        }
+        return false;
+    }
+
+    private static boolean sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
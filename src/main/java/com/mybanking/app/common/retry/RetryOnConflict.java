@@ -0,0 +1,10 @@
+package com.mybanking.app.common.retry;
+
+import java.lang.annotation.*;
+
+/** Re-runs the annotated method in a fresh transaction when it loses a lock or version race. */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RetryOnConflict {
+}
@@ -0,0 +1,5 @@
+package com.mybanking.app.common.util;
+
+public enum ConcurrencyMode {
+    PESSIMISTIC, OPTIMISTIC
+}
@@ -1,24 +1,109 @@
 package com.mybanking.app.common.util;
 
+import com.mybanking.app.user.entity.CustomerNumberBlock;
+import com.mybanking.app.user.repository.CustomerNumberBlockRepository;
 import com.mybanking.app.user.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Clock;
 import java.time.Year;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Hands out {@code RB-<year>-<nnnnnn>} customer numbers from a per-year sequence (hi/lo). Each node reserves
+ * {@code block-size} values at a time with one update of {@code customer_number_blocks} and then serves them
+ * from memory without locks or queries, so numbers never collide and cost O(1). Values left in a block when
+ * the node stops are skipped, so numbers are unique and increasing per node but not gap-free.
+ */
+@Slf4j
 @Component
-@RequiredArgsConstructor
 public class CustomerNumberGenerator {
 
+    private record Block(int year, AtomicLong cursor, long end) {}
+
+    private final CustomerNumberBlockRepository blocks;
     private final UserRepository userRepository;
+    private final TransactionTemplate requiresNew;
+    private final long blockSize;
+    private final Clock clock;
+    private volatile Block current = new Block(0, new AtomicLong(), 0);
+
+    @Autowired
+    public CustomerNumberGenerator(CustomerNumberBlockRepository blocks,
+                                   UserRepository userRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.customers.number-block-size:100}") long blockSize) {
+        this(blocks, userRepository, transactionManager, blockSize, Clock.systemDefaultZone());
+    }
+
+    CustomerNumberGenerator(CustomerNumberBlockRepository blocks, UserRepository userRepository,
+                            PlatformTransactionManager transactionManager, long blockSize, Clock clock) {
+        if (blockSize < 1) throw new IllegalArgumentException("block size must be positive");
+        this.blocks = blocks;
+        this.userRepository = userRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+        this.clock = clock;
+    }
 
     public String next() {
-        String prefix = "RB-" + Year.now() + "-";
+        int year = Year.now(clock).getValue();
         while (true) {
-            String seq = String.format("%06d", ThreadLocalRandom.current().nextInt(0, 1_000_000));
-            String candidate = prefix + seq;
-            if (!userRepository.existsByCustomerNumber(candidate)) return candidate;
+            Block block = current;
+            if (block.year() == year) {
+                long value = block.cursor().getAndIncrement();
+                if (value < block.end()) return format(year, value);
+            }
+            refill(block, year);
+        }
+    }
+
+    private synchronized void refill(Block exhausted, int year) {
+        if (current != exhausted) return; // another thread already refilled
+        long start = reserve(year);
+        current = new Block(year, new AtomicLong(start), start + blockSize);
+        log.debug("customer number block reserved year={} from={} size={}", year, start, blockSize);
+    }
+
+    private long reserve(int year) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                Long start = requiresNew.execute(s -> {
+                    if (blocks.advance(year, blockSize) == 0) {
+                        long first = firstFreeValue(year);
+                        blocks.saveAndFlush(CustomerNumberBlock.builder().issueYear(year).nextValue(first + blockSize).build());
+                        return first;
+                    }
+                    return blocks.findNextValue(year).orElseThrow() - blockSize;
+                });
+                return start;
+            } catch (DataIntegrityViolationException ex) {
+                // another node inserted the year's row first; the advance path sees it now
+                if (attempt > 0) throw ex;
+            }
         }
     }
+
+    /** Starts a new year's sequence after any numbers issued before the sequence existed (random, six digits). */
+    private long firstFreeValue(int year) {
+        return userRepository.findMaxCustomerNumberStartingWith(prefix(year))
+                .map(n -> Long.parseLong(n.substring(prefix(year).length())) + 1)
+                .orElse(0L);
+    }
+
+    private static String prefix(int year) {
+        return "RB-" + year + "-";
+    }
+
+    private static String format(int year, long value) {
+        return prefix(year) + String.format("%06d", value);
+    }
 }
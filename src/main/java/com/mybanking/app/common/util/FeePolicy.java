@@ -1,30 +1,26 @@
 package com.mybanking.app.common.util;
 
-import com.mybanking.app.account.entity.Account;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 
 public interface FeePolicy {
 
     enum Operation { WITHDRAW, TRANSFER, DEPOSIT }
 
-    BigDecimal feeFor(Operation op, Account primaryAccount, BigDecimal amount);
+    /** Fee for an account whose card type is already known; {@code cardType} is null without a card. */
+    Money feeFor(Operation op, CardType cardType, Money amount);
+
+    default BigDecimal feeFor(Operation op, CardType cardType, BigDecimal amount) {
+        if (amount == null) return BigDecimal.ZERO;
+        return feeFor(op, cardType, Money.of(amount)).toBigDecimal();
+    }
 
     class CreditCardOnePercent implements FeePolicy {
-        private static final BigDecimal ONE_HUNDRED = new BigDecimal("100");
+        private static final long ONE_PERCENT = 100;
 
         @Override
-        public BigDecimal feeFor(Operation op, Account primaryAccount, BigDecimal amount) {
-            if (primaryAccount == null || amount == null) return BigDecimal.ZERO;
-
-            boolean isCredit = primaryAccount.getCard() != null
-                    && primaryAccount.getCard().getCardType() == CardType.CREDIT;
-
-            if (!isCredit) return BigDecimal.ZERO;
-
-            return amount
-                    .multiply(new BigDecimal("1"))
-                    .divide(ONE_HUNDRED, 2, RoundingMode.HALF_UP);
+        public Money feeFor(Operation op, CardType cardType, Money amount) {
+            if (amount == null || cardType != CardType.CREDIT) return Money.ZERO;
+            return amount.basisPoints(ONE_PERCENT);
         }
     }
 }
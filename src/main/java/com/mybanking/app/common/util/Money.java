@@ -0,0 +1,94 @@
+package com.mybanking.app.common.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Immutable amount in minor units (cents). Arithmetic is plain {@code long} math with overflow checks, so
+ * the balance and fee hot path allocates at most the result instead of the intermediate BigDecimals that
+ * scaling and division create. Converts to and from {@link BigDecimal} at the API and database edges.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    private static final long BASIS_POINTS = 10_000;
+
+    private final long minor;
+
+    private Money(long minor) {
+        this.minor = minor;
+    }
+
+    public static Money ofMinor(long minor) {
+        return minor == 0 ? ZERO : new Money(minor);
+    }
+
+    /** Rounds HALF_UP to cents; throws {@link ArithmeticException} when the cents do not fit a long. */
+    public static Money of(BigDecimal amount) {
+        return ofMinor(amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    public static Money of(String amount) {
+        return of(new BigDecimal(amount));
+    }
+
+    public long minor() {
+        return minor;
+    }
+
+    public Money plus(Money other) {
+        return other.minor == 0 ? this : ofMinor(Math.addExact(minor, other.minor));
+    }
+
+    public Money minus(Money other) {
+        return other.minor == 0 ? this : ofMinor(Math.subtractExact(minor, other.minor));
+    }
+
+    /** {@code basisPoints}/10000 of this amount (100 = 1%), rounded HALF_UP to the cent. */
+    public Money basisPoints(long basisPoints) {
+        return ofMinor(basisPointsOf(minor, basisPoints));
+    }
+
+    /** {@link #basisPoints} on raw minor units, for callers that combine several terms before allocating. */
+    public static long basisPointsOf(long minor, long basisPoints) {
+        long scaled = Math.multiplyExact(minor, basisPoints);
+        long quotient = scaled / BASIS_POINTS;
+        long remainder = scaled % BASIS_POINTS;
+        if (Math.abs(remainder) * 2 >= BASIS_POINTS) quotient += Long.signum(scaled);
+        return quotient;
+    }
+
+    public int signum() {
+        return Long.signum(minor);
+    }
+
+    public boolean isLessThan(Money other) {
+        return minor < other.minor;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minor, other.minor);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money m && m.minor == minor;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minor);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,9 @@
+package com.mybanking.app.common.util;
+
+public enum PostingType {
+    OPENING,
+    DEPOSIT,
+    WITHDRAWAL,
+    TRANSFER,
+    FEE
+}
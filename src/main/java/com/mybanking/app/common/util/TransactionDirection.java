@@ -0,0 +1,6 @@
+package com.mybanking.app.common.util;
+
+public enum TransactionDirection {
+    IN,
+    OUT
+}
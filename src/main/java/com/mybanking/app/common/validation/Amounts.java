@@ -0,0 +1,29 @@
+package com.mybanking.app.common.validation;
+
+import com.mybanking.app.common.error.AppException;
+import com.mybanking.app.common.util.Money;
+
+import java.math.BigDecimal;
+
+import static com.mybanking.app.common.error.ErrorCode.VALIDATION_ERROR;
+
+/** Request amount checks shared by the services; every failure is a 400 {@code VALIDATION_ERROR}. */
+public final class Amounts {
+
+    private Amounts() {}
+
+    /** A positive amount with at most {@link Money#SCALE} decimals whose cents fit a long. */
+    public static Money require(BigDecimal amount) {
+        if (amount == null || amount.signum() <= 0) {
+            throw AppException.badRequest(VALIDATION_ERROR, "Amount must be > 0");
+        }
+        if (amount.stripTrailingZeros().scale() > Money.SCALE) {
+            throw AppException.badRequest(VALIDATION_ERROR, "Amount must have at most " + Money.SCALE + " decimals");
+        }
+        try {
+            return Money.of(amount);
+        } catch (ArithmeticException e) {
+            throw AppException.badRequest(VALIDATION_ERROR, "Amount is out of range");
+        }
+    }
+}
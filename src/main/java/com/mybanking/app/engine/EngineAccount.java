@@ -0,0 +1,43 @@
+package com.mybanking.app.engine;
+
+import com.mybanking.app.account.dto.AccountSnapshot;
+import com.mybanking.app.common.util.CardType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.UUID;
+
+/** In-memory balance of one account. Only ever touched by the thread of the shard that owns it. */
+final class EngineAccount {
+
+    final UUID id;
+    final UUID ownerId;
+    final CardType cardType;
+    BigDecimal balance;
+    BigDecimal held = BigDecimal.ZERO;
+
+    EngineAccount(AccountSnapshot s) {
+        this.id = s.accountId();
+        this.ownerId = s.ownerId();
+        this.balance = s.balance().setScale(2, RoundingMode.HALF_UP);
+        this.cardType = s.cardType();
+    }
+
+    boolean canDebit(BigDecimal total) {
+        return balance.compareTo(total) >= 0;
+    }
+
+    void reserve(BigDecimal total) {
+        balance = balance.subtract(total);
+        held = held.add(total);
+    }
+
+    void commit(BigDecimal total) {
+        held = held.subtract(total);
+    }
+
+    void release(BigDecimal total) {
+        held = held.subtract(total);
+        balance = balance.add(total);
+    }
+}
@@ -0,0 +1,151 @@
+package com.mybanking.app.engine;
+
+import com.mybanking.app.ledger.entity.Posting;
+import com.mybanking.app.ledger.service.PendingPostings;
+import com.mybanking.app.transaction.journal.JournalRows;
+import com.mybanking.app.transaction.journal.TransferRow;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronously applies ledger engine results to the database. Entries carry balance deltas rather
+ * than absolute balances, so entries produced by different shards can be applied in any order. Postings
+ * are registered with {@link PendingPostings} until inserted, so ledger checkpoints wait for them.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.engine.enabled", havingValue = "true")
+public class EngineJournal {
+
+    public record Delta(UUID accountId, BigDecimal amount) {}
+
+    public record Entry(List<Delta> deltas, TransferRow transfer, List<Posting> postings) {}
+
+    private static final String UPDATE_BALANCE =
+            "update accounts set balance = balance + ?, version = version + 1 where id = ?";
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate txTemplate;
+    private final PendingPostings pendingPostings;
+    private final BlockingQueue<Entry> queue;
+    private final int maxBatch;
+    private final long flushIntervalMs;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public EngineJournal(JdbcTemplate jdbc,
+                         TransactionTemplate txTemplate,
+                         PendingPostings pendingPostings,
+                         @Value("${app.engine.journal.capacity:65536}") int capacity,
+                         @Value("${app.engine.journal.max-batch:500}") int maxBatch,
+                         @Value("${app.engine.journal.flush-interval-ms:5}") long flushIntervalMs) {
+        this.jdbc = jdbc;
+        this.txTemplate = txTemplate;
+        this.pendingPostings = pendingPostings;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatch = maxBatch;
+        this.flushIntervalMs = flushIntervalMs;
+        this.writer = new Thread(this::runWriter, "ledger-journal");
+        this.writer.setDaemon(true);
+    }
+
+    @PostConstruct
+    void start() {
+        writer.start();
+    }
+
+    /** Blocks the calling shard when the journal is full, which throttles the engine to the database speed. */
+    public void append(Entry entry) {
+        Instant earliest = earliest(entry);
+        if (earliest != null) pendingPostings.add(earliest);
+        try {
+            queue.put(entry);
+        } catch (InterruptedException e) {
+            if (earliest != null) pendingPostings.remove(earliest);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while appending to the ledger journal", e);
+        }
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    private void runWriter() {
+        List<Entry> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                flushWithRetry(batch);
+                for (Entry e : batch) {
+                    Instant earliest = earliest(e);
+                    if (earliest != null) pendingPostings.remove(earliest);
+                }
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void flushWithRetry(List<Entry> batch) throws InterruptedException {
+        for (long backoff = 50; ; backoff = Math.min(backoff * 2, 5_000)) {
+            try {
+                flush(batch);
+                return;
+            } catch (RuntimeException ex) {
+                log.error("journal flush failed size={} retryInMs={}", batch.size(), backoff, ex);
+                Thread.sleep(backoff);
+            }
+        }
+    }
+
+    private static Instant earliest(Entry entry) {
+        return entry.postings().stream().map(Posting::getOccurredAt).min(Comparator.naturalOrder()).orElse(null);
+    }
+
+    void flush(List<Entry> batch) {
+        Map<UUID, BigDecimal> net = new LinkedHashMap<>();
+        List<TransferRow> transfers = new ArrayList<>();
+        List<Posting> postings = new ArrayList<>();
+        for (Entry e : batch) {
+            for (Delta d : e.deltas()) {
+                net.merge(d.accountId(), d.amount(), BigDecimal::add);
+            }
+            if (e.transfer() != null) transfers.add(e.transfer());
+            postings.addAll(e.postings());
+        }
+        List<Object[]> updates = new ArrayList<>(net.size());
+        net.forEach((id, amount) -> updates.add(new Object[]{amount, id}));
+
+        txTemplate.executeWithoutResult(status -> {
+            jdbc.batchUpdate(UPDATE_BALANCE, updates);
+            JournalRows.insert(jdbc, transfers, postings);
+        });
+        log.debug("journal flushed entries={} accounts={} transfers={} postings={}",
+                batch.size(), updates.size(), transfers.size(), postings.size());
+    }
+}
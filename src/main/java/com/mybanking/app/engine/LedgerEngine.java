@@ -0,0 +1,226 @@
+package com.mybanking.app.engine;
+
+import com.mybanking.app.account.dto.DepositResult;
+import com.mybanking.app.account.dto.WithdrawResult;
+import com.mybanking.app.account.repository.AccountRepository;
+import com.mybanking.app.common.error.AppException;
+import com.mybanking.app.common.util.FeePolicy;
+import com.mybanking.app.common.validation.Amounts;
+import com.mybanking.app.ledger.service.Postings;
+import com.mybanking.app.transaction.dto.BulkTransferRequest;
+import com.mybanking.app.transaction.dto.BulkTransferResult;
+import com.mybanking.app.transaction.dto.TransferResult;
+import com.mybanking.app.transaction.journal.TransferRow;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.mybanking.app.common.error.ErrorCode.*;
+
+/**
+ * Optional lock-free write path (app.engine.enabled=true). Account balances live in memory, partitioned
+ * by account id across single-threaded shards; the database is brought up to date by {@link EngineJournal}.
+ * Service calls are routed here by {@link LedgerEngineRouting}.
+ * Transfers between shards reserve funds on the source shard, credit the destination shard and then commit
+ * (or release) the reservation, so a failed credit never leaves money in flight.
+ * The engine owns the balances while enabled: no other component may write accounts.balance.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.engine.enabled", havingValue = "true")
+public class LedgerEngine {
+
+    private final LedgerShard[] shards;
+    private final AccountRepository accountRepo;
+    private final FeePolicy feePolicy;
+    private final EngineJournal journal;
+    private final Map<String, UUID> idsByNumber = new ConcurrentHashMap<>();
+
+    public LedgerEngine(AccountRepository accountRepo,
+                        FeePolicy feePolicy,
+                        EngineJournal journal,
+                        @Value("${app.engine.shards:4}") int shardCount,
+                        @Value("${app.engine.queue-capacity:8192}") int queueCapacity) {
+        this.accountRepo = accountRepo;
+        this.feePolicy = feePolicy;
+        this.journal = journal;
+        this.shards = new LedgerShard[Math.max(1, shardCount)];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new LedgerShard(i, queueCapacity, accountRepo::findSnapshotById);
+        }
+        log.info("ledger engine started shards={} queueCapacity={}", shards.length, queueCapacity);
+    }
+
+    public WithdrawResult withdraw(UUID accountId, BigDecimal amount, UUID callerUserId) {
+        Amounts.require(amount);
+        return shardFor(accountId).call(shard -> {
+            EngineAccount acc = shard.account(accountId, "Account not found");
+            ensureOwnerOrThrow(acc, callerUserId);
+
+            BigDecimal fee = feePolicy.feeFor(FeePolicy.Operation.WITHDRAW, acc.cardType, amount);
+            BigDecimal total = amount.add(fee);
+            if (!acc.canDebit(total)) throw AppException.conflict(INSUFFICIENT_BALANCE, "Insufficient balance");
+
+            acc.balance = acc.balance.subtract(total);
+            journal.append(new EngineJournal.Entry(List.of(new EngineJournal.Delta(accountId, total.negate())), null,
+                    Postings.withdrawal(accountId, amount, fee, Instant.now())));
+            return new WithdrawResult(accountId, amount, fee, acc.balance);
+        });
+    }
+
+    public DepositResult deposit(UUID accountId, BigDecimal amount, UUID callerUserId) {
+        Amounts.require(amount);
+        return shardFor(accountId).call(shard -> {
+            EngineAccount acc = shard.account(accountId, "Account not found");
+            ensureOwnerOrThrow(acc, callerUserId);
+
+            BigDecimal fee = feePolicy.feeFor(FeePolicy.Operation.DEPOSIT, acc.cardType, amount);
+            BigDecimal net = amount.subtract(fee);
+            if (net.signum() <= 0) throw AppException.badRequest(VALIDATION_ERROR, "Net amount must be > 0");
+
+            acc.balance = acc.balance.add(net);
+            journal.append(new EngineJournal.Entry(List.of(new EngineJournal.Delta(accountId, net)), null,
+                    Postings.deposit(accountId, amount, fee, Instant.now())));
+            return new DepositResult(accountId, amount, fee, acc.balance);
+        });
+    }
+
+    public TransferResult transfer(UUID fromAccountId, String toAccountNumber, BigDecimal amount, UUID requesterId) {
+        UUID toAccountId = resolve(toAccountNumber);
+        if (fromAccountId == null) {
+            throw AppException.badRequest(VALIDATION_ERROR, "Account ids are required");
+        }
+        if (fromAccountId.equals(toAccountId)) {
+            throw AppException.conflict(SAME_ACCOUNT, "Source and destination accounts cannot be the same");
+        }
+        Amounts.require(amount);
+
+        LedgerShard source = shardFor(fromAccountId);
+        LedgerShard target = shardFor(toAccountId);
+
+        if (source == target) {
+            return source.call(shard -> {
+                EngineAccount from = shard.account(fromAccountId, "Source account not found");
+                EngineAccount to = shard.account(toAccountId, "Destination account not found");
+                ensureOwnerOrThrow(from, requesterId);
+
+                BigDecimal fee = feePolicy.feeFor(FeePolicy.Operation.TRANSFER, from.cardType, amount);
+                BigDecimal total = amount.add(fee);
+                if (!from.canDebit(total)) throw AppException.conflict(INSUFFICIENT_BALANCE, "Insufficient balance");
+
+                from.balance = from.balance.subtract(total);
+                to.balance = to.balance.add(amount);
+                journal.append(transferEntry(fromAccountId, toAccountId, amount, fee));
+                return new TransferResult(fromAccountId, toAccountId, amount, fee, from.balance, to.balance);
+            });
+        }
+
+        BigDecimal fee = source.call(shard -> {
+            EngineAccount from = shard.account(fromAccountId, "Source account not found");
+            ensureOwnerOrThrow(from, requesterId);
+
+            BigDecimal f = feePolicy.feeFor(FeePolicy.Operation.TRANSFER, from.cardType, amount);
+            BigDecimal total = amount.add(f);
+            if (!from.canDebit(total)) throw AppException.conflict(INSUFFICIENT_BALANCE, "Insufficient balance");
+            from.reserve(total);
+            return f;
+        });
+        BigDecimal total = amount.add(fee);
+
+        BigDecimal toBalance;
+        try {
+            toBalance = target.call(shard -> {
+                EngineAccount to = shard.account(toAccountId, "Destination account not found");
+                to.balance = to.balance.add(amount);
+                return to.balance;
+            });
+        } catch (RuntimeException ex) {
+            source.call(shard -> {
+                shard.account(fromAccountId, "Source account not found").release(total);
+                return null;
+            });
+            throw ex;
+        }
+
+        BigDecimal fromBalance = source.call(shard -> {
+            EngineAccount from = shard.account(fromAccountId, "Source account not found");
+            from.commit(total);
+            journal.append(transferEntry(fromAccountId, toAccountId, amount, fee));
+            return from.balance;
+        });
+        return new TransferResult(fromAccountId, toAccountId, amount, fee, fromBalance, toBalance);
+    }
+
+    public BulkTransferResult bulkTransfer(UUID fromAccountId, List<BulkTransferRequest.Item> items, UUID requesterId) {
+        List<BulkTransferResult.Item> results = new ArrayList<>(items.size());
+        int succeeded = 0;
+        BigDecimal fromBalance = null;
+        for (int i = 0; i < items.size(); i++) {
+            var item = items.get(i);
+            try {
+                var r = transfer(fromAccountId, item.toAccountNumber(), item.amount(), requesterId);
+                fromBalance = r.fromNewBalance();
+                succeeded++;
+                results.add(new BulkTransferResult.Item(i, item.toAccountNumber(), r.toAccountId(),
+                        r.transferred(), r.feeCharged(), null, null));
+            } catch (AppException ex) {
+                if (ex.getErrorCode() == ACCOUNT_FORBIDDEN) throw ex;
+                results.add(new BulkTransferResult.Item(i, item.toAccountNumber(), null,
+                        null, null, ex.getErrorCode().name(), ex.getMessage()));
+            }
+        }
+        if (fromBalance == null) {
+            fromBalance = shardFor(fromAccountId).call(shard -> {
+                EngineAccount from = shard.account(fromAccountId, "Source account not found");
+                ensureOwnerOrThrow(from, requesterId);
+                return from.balance;
+            });
+        }
+        return new BulkTransferResult(fromAccountId, fromBalance, succeeded, items.size() - succeeded, results);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        for (LedgerShard shard : shards) shard.shutdown();
+    }
+
+    private LedgerShard shardFor(UUID accountId) {
+        return shards[Math.floorMod(accountId.hashCode(), shards.length)];
+    }
+
+    private UUID resolve(String accountNumber) {
+        if (accountNumber == null) {
+            throw AppException.notFound(ACCOUNT_NOT_FOUND, "Destination account not found");
+        }
+        UUID id = idsByNumber.get(accountNumber);
+        if (id == null) {
+            id = accountRepo.findIdByAccountNumber(accountNumber)
+                    .orElseThrow(() -> AppException.notFound(ACCOUNT_NOT_FOUND, "Destination account not found"));
+            idsByNumber.put(accountNumber, id);
+        }
+        return id;
+    }
+
+    private static EngineJournal.Entry transferEntry(UUID fromId, UUID toId, BigDecimal amount, BigDecimal fee) {
+        var row = new TransferRow(UUID.randomUUID(), amount, fee, Instant.now(), fromId, toId);
+        return new EngineJournal.Entry(
+                List.of(new EngineJournal.Delta(fromId, amount.add(fee).negate()), new EngineJournal.Delta(toId, amount)),
+                row, row.postings());
+    }
+
+    private static void ensureOwnerOrThrow(EngineAccount acc, UUID requesterId) {
+        if (!acc.ownerId.equals(requesterId)) {
+            throw AppException.forbidden(ACCOUNT_FORBIDDEN, "Not owner of the account");
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.mybanking.app.engine;
+
+import com.mybanking.app.transaction.dto.BulkTransferRequest;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Sends the money-moving service calls to the {@link LedgerEngine} when it is enabled. Runs outside the
+ * transaction and retry advice so no database connection is held while a command waits for its shard.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 2)
+@ConditionalOnProperty(name = "app.engine.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class LedgerEngineRouting {
+
+    private final LedgerEngine engine;
+
+    @Around(value = "execution(* com.mybanking.app.account.service.AccountService.withdraw(..)) && args(accountId, amount, userId)",
+            argNames = "accountId,amount,userId")
+    public Object withdraw(UUID accountId, BigDecimal amount, UUID userId) {
+        return engine.withdraw(accountId, amount, userId);
+    }
+
+    @Around(value = "execution(* com.mybanking.app.account.service.AccountService.deposit(..)) && args(accountId, amount, userId)",
+            argNames = "accountId,amount,userId")
+    public Object deposit(UUID accountId, BigDecimal amount, UUID userId) {
+        return engine.deposit(accountId, amount, userId);
+    }
+
+    @Around(value = "execution(* com.mybanking.app.transaction.service.TransactionService.transfer(..)) && args(fromAccountId, toAccountNumber, amount, userId)",
+            argNames = "fromAccountId,toAccountNumber,amount,userId")
+    public Object transfer(UUID fromAccountId, String toAccountNumber, BigDecimal amount, UUID userId) {
+        return engine.transfer(fromAccountId, toAccountNumber, amount, userId);
+    }
+
+    @Around(value = "execution(* com.mybanking.app.transaction.service.TransactionService.bulkTransfer(..)) && args(fromAccountId, items, userId)",
+            argNames = "fromAccountId,items,userId")
+    public Object bulkTransfer(UUID fromAccountId, List<BulkTransferRequest.Item> items, UUID userId) {
+        return engine.bulkTransfer(fromAccountId, items, userId);
+    }
+}
@@ -0,0 +1,73 @@
+package com.mybanking.app.engine;
+
+import com.mybanking.app.account.dto.AccountSnapshot;
+import com.mybanking.app.common.error.AppException;
+import com.mybanking.app.common.error.ErrorCode;
+import org.springframework.http.HttpStatus;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+import static com.mybanking.app.common.error.ErrorCode.ACCOUNT_NOT_FOUND;
+
+/**
+ * One single-threaded partition of the ledger. Commands are queued on a bounded buffer and
+ * executed one after another by the shard thread, so the account state below needs no locks.
+ */
+final class LedgerShard {
+
+    private final ThreadPoolExecutor executor;
+    private final Map<UUID, EngineAccount> accounts = new HashMap<>();
+    private final Function<UUID, Optional<AccountSnapshot>> loader;
+
+    LedgerShard(int index, int queueCapacity, Function<UUID, Optional<AccountSnapshot>> loader) {
+        this.loader = loader;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "ledger-shard-" + index);
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    <T> T call(Function<LedgerShard, T> command) {
+        CompletableFuture<T> future;
+        try {
+            future = CompletableFuture.supplyAsync(() -> command.apply(this), executor);
+        } catch (RejectedExecutionException ex) {
+            throw new AppException(ErrorCode.SERVICE_BUSY, HttpStatus.SERVICE_UNAVAILABLE, "Ledger is busy, please retry", ex);
+        }
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException re) throw re;
+            throw ex;
+        }
+    }
+
+    EngineAccount account(UUID id, String notFoundMessage) {
+        EngineAccount acc = accounts.get(id);
+        if (acc == null) {
+            acc = loader.apply(id)
+                    .map(EngineAccount::new)
+                    .orElseThrow(() -> AppException.notFound(ACCOUNT_NOT_FOUND, notFoundMessage));
+            accounts.put(id, acc);
+        }
+        return acc;
+    }
+
+    void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
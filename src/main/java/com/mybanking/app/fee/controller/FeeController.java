@@ -0,0 +1,24 @@
+package com.mybanking.app.fee.controller;
+
+import com.mybanking.app.fee.dto.FeeQuoteRequest;
+import com.mybanking.app.fee.dto.FeeQuoteResponse;
+import com.mybanking.app.fee.service.FeeQuoteService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import static com.mybanking.app.common.security.SecurityUtils.currentUserId;
+
+@RestController
+@RequestMapping("/api/fees")
+@RequiredArgsConstructor
+public class FeeController {
+
+    private final FeeQuoteService feeQuoteService;
+
+    @PostMapping("/quote")
+    public ResponseEntity<FeeQuoteResponse> quote(@Valid @RequestBody FeeQuoteRequest body) {
+        return ResponseEntity.ok(feeQuoteService.quote(body.items(), currentUserId()));
+    }
+}
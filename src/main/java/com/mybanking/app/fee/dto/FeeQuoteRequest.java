@@ -0,0 +1,23 @@
+package com.mybanking.app.fee.dto;
+
+import com.mybanking.app.common.util.FeePolicy;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+public record FeeQuoteRequest(
+        @NotEmpty @Size(max = 1000) List<@Valid @NotNull Item> items
+) {
+    public record Item(
+            @NotNull UUID accountId,
+            @NotNull FeePolicy.Operation operation,
+            @NotNull @DecimalMin(value = "0.01") @Digits(integer = 16, fraction = 2) BigDecimal amount
+    ) {}
+}
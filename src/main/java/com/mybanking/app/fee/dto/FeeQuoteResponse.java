@@ -0,0 +1,22 @@
+package com.mybanking.app.fee.dto;
+
+import com.mybanking.app.common.util.FeePolicy;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+public record FeeQuoteResponse(List<Item> items) {
+
+    /** {@code balanceChange} is what the operation would do to the account: negative for withdrawals and transfers. */
+    public record Item(
+            int index,
+            UUID accountId,
+            FeePolicy.Operation operation,
+            BigDecimal amount,
+            BigDecimal fee,
+            BigDecimal balanceChange,
+            String errorCode,
+            String message
+    ) {}
+}
@@ -0,0 +1,19 @@
+package com.mybanking.app.fee.dto;
+
+import com.mybanking.app.common.util.FeePolicy;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/** Fee rules as read from {@code app.fees.rules-location}; compiled into a {@code FeeTable}. */
+public record FeeRuleSet(List<Rule> rules) {
+
+    /**
+     * Fee for one operation and card type; either left out matches all, and the most specific rule wins.
+     * {@code cardType} NONE matches accounts without a card. {@code min}/{@code max} cap the tier result.
+     */
+    public record Rule(FeePolicy.Operation operation, String cardType, List<Tier> tiers, BigDecimal min, BigDecimal max) {}
+
+    /** Applies to amounts from {@code from} (inclusive) up to the next tier: basis points of the amount plus {@code fixed}. */
+    public record Tier(BigDecimal from, long basisPoints, BigDecimal fixed) {}
+}
@@ -0,0 +1,66 @@
+package com.mybanking.app.fee.service;
+
+import com.mybanking.app.account.dto.AccountFeeView;
+import com.mybanking.app.account.repository.AccountRepository;
+import com.mybanking.app.common.error.ErrorCode;
+import com.mybanking.app.common.util.FeePolicy;
+import com.mybanking.app.common.util.Money;
+import com.mybanking.app.fee.dto.FeeQuoteRequest;
+import com.mybanking.app.fee.dto.FeeQuoteResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Dry-run fees for a batch of (account, operation, amount) entries. Owners and card types of all accounts
+ * come from one unlocked projection query; nothing is written. Accounts the caller does not own are
+ * reported as not found, like unknown ones.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FeeQuoteService {
+
+    private final AccountRepository accountRepo;
+    private final FeePolicy feePolicy;
+
+    @Transactional(readOnly = true)
+    public FeeQuoteResponse quote(List<FeeQuoteRequest.Item> items, UUID requesterId) {
+        Set<UUID> ids = new HashSet<>();
+        for (var item : items) ids.add(item.accountId());
+
+        Map<UUID, AccountFeeView> accounts = new HashMap<>();
+        for (AccountFeeView view : accountRepo.findFeeViewsByIdIn(ids)) {
+            if (view.ownerId().equals(requesterId)) accounts.put(view.id(), view);
+        }
+
+        List<FeeQuoteResponse.Item> out = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            var item = items.get(i);
+            AccountFeeView account = accounts.get(item.accountId());
+            if (account == null) {
+                out.add(new FeeQuoteResponse.Item(i, item.accountId(), item.operation(), item.amount(), null, null,
+                        ErrorCode.ACCOUNT_NOT_FOUND.name(), "Account not found"));
+                continue;
+            }
+            Money amount = Money.of(item.amount());
+            Money fee = feePolicy.feeFor(item.operation(), account.cardType(), amount);
+            Money change = item.operation() == FeePolicy.Operation.DEPOSIT
+                    ? amount.minus(fee)
+                    : Money.ZERO.minus(amount.plus(fee));
+            if (item.operation() == FeePolicy.Operation.DEPOSIT && change.signum() <= 0) {
+                // the deposit itself would be rejected with this error
+                out.add(new FeeQuoteResponse.Item(i, item.accountId(), item.operation(), amount.toBigDecimal(),
+                        fee.toBigDecimal(), null, ErrorCode.VALIDATION_ERROR.name(), "Net amount must be > 0"));
+                continue;
+            }
+            out.add(new FeeQuoteResponse.Item(i, item.accountId(), item.operation(), amount.toBigDecimal(),
+                    fee.toBigDecimal(), change.toBigDecimal(), null, null));
+        }
+        log.debug("fee quote items={} accounts={} requester={}", items.size(), accounts.size(), requesterId);
+        return new FeeQuoteResponse(out);
+    }
+}
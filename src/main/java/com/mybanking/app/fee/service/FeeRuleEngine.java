@@ -0,0 +1,85 @@
+package com.mybanking.app.fee.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mybanking.app.common.util.CardType;
+import com.mybanking.app.common.util.FeePolicy;
+import com.mybanking.app.common.util.Money;
+import com.mybanking.app.fee.dto.FeeRuleSet;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * {@link FeePolicy} backed by the rules in {@code app.fees.rules-location}. Rules are compiled into a
+ * {@link FeeTable} at startup, where an invalid file fails the boot, and recompiled when the file changes;
+ * a file that no longer compiles is logged and the previous table stays in use.
+ */
+@Slf4j
+@Service
+public class FeeRuleEngine implements FeePolicy {
+
+    private final Resource rules;
+    private final ObjectMapper objectMapper;
+
+    private volatile FeeTable table;
+    private volatile long loadedModified;
+
+    public FeeRuleEngine(ResourceLoader resourceLoader,
+                         ObjectMapper objectMapper,
+                         @Value("${app.fees.rules-location:classpath:fees.json}") String location) {
+        this.rules = resourceLoader.getResource(location);
+        this.objectMapper = objectMapper;
+        reload();
+    }
+
+    @Override
+    public Money feeFor(Operation op, CardType cardType, Money amount) {
+        if (amount == null) return Money.ZERO;
+        return table.feeFor(op, cardType, amount);
+    }
+
+    @Scheduled(fixedDelayString = "${app.fees.reload-interval-ms:10000}")
+    public void reloadIfChanged() {
+        long modified = lastModified();
+        if (modified == loadedModified) return;
+        try {
+            reload();
+        } catch (RuntimeException ex) {
+            loadedModified = modified;
+            log.error("fee rules {} rejected, keeping the previous table: {}", rules.getDescription(), ex.getMessage());
+        }
+    }
+
+    /** Compiles the rule file and swaps it in; throws if it does not parse or validate. */
+    public synchronized void reload() {
+        long modified = lastModified();
+        FeeRuleSet ruleSet;
+        try (InputStream in = rules.getInputStream()) {
+            ruleSet = objectMapper.readerFor(FeeRuleSet.class)
+                    .with(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                    .readValue(in);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read fee rules " + rules.getDescription(), ex);
+        }
+        table = FeeTable.compile(ruleSet);
+        loadedModified = modified;
+        log.info("fee rules loaded from {} ({} rules)", rules.getDescription(),
+                ruleSet.rules() == null ? 0 : ruleSet.rules().size());
+    }
+
+    private long lastModified() {
+        try {
+            return rules.lastModified();
+        } catch (IOException ex) {
+            return -1;
+        }
+    }
+}
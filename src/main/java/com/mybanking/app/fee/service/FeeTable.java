@@ -0,0 +1,124 @@
+package com.mybanking.app.fee.service;
+
+import com.mybanking.app.common.util.CardType;
+import com.mybanking.app.common.util.FeePolicy.Operation;
+import com.mybanking.app.common.util.Money;
+import com.mybanking.app.fee.dto.FeeRuleSet;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * {@link FeeRuleSet} compiled into one schedule per (operation, card type) cell, with wildcards and
+ * precedence resolved up front. A lookup is an array index plus a scan over a few tier bounds in minor
+ * units; the only allocation is the resulting {@link Money}.
+ */
+public final class FeeTable {
+
+    private static final String NO_CARD = "NONE";
+    private static final int CARD_SLOTS = CardType.values().length + 1;
+    private static final long BASIS_POINTS_MAX = 10_000;
+
+    private final Schedule[] schedules;
+
+    private FeeTable(Schedule[] schedules) {
+        this.schedules = schedules;
+    }
+
+    public Money feeFor(Operation op, CardType cardType, Money amount) {
+        Schedule schedule = schedules[op.ordinal() * CARD_SLOTS + cardSlot(cardType)];
+        return schedule == null ? Money.ZERO : Money.ofMinor(schedule.fee(amount.minor()));
+    }
+
+    /** Validates and compiles the rules; throws {@link IllegalArgumentException} naming the offending rule. */
+    public static FeeTable compile(FeeRuleSet ruleSet) {
+        List<FeeRuleSet.Rule> rules = ruleSet == null || ruleSet.rules() == null ? List.of() : ruleSet.rules();
+        Schedule[] compiled = new Schedule[rules.size()];
+        int[] slots = new int[rules.size()];
+        Set<String> keys = new HashSet<>();
+        for (int i = 0; i < rules.size(); i++) {
+            var rule = rules.get(i);
+            if (rule == null) throw invalid(i, "rule is empty");
+            slots[i] = rule.cardType() == null ? -1 : cardSlot(i, rule.cardType());
+            if (!keys.add(rule.operation() + "/" + slots[i])) throw invalid(i, "duplicates an earlier rule");
+            compiled[i] = schedule(i, rule);
+        }
+
+        Schedule[] schedules = new Schedule[Operation.values().length * CARD_SLOTS];
+        int[] specificity = new int[schedules.length];
+        for (int i = 0; i < rules.size(); i++) {
+            Operation op = rules.get(i).operation();
+            int rank = 1 + (op != null ? 2 : 0) + (slots[i] >= 0 ? 1 : 0);
+            for (Operation o : Operation.values()) {
+                if (op != null && op != o) continue;
+                for (int slot = 0; slot < CARD_SLOTS; slot++) {
+                    if (slots[i] >= 0 && slots[i] != slot) continue;
+                    int cell = o.ordinal() * CARD_SLOTS + slot;
+                    if (rank > specificity[cell]) {
+                        specificity[cell] = rank;
+                        schedules[cell] = compiled[i];
+                    }
+                }
+            }
+        }
+        return new FeeTable(schedules);
+    }
+
+    private static Schedule schedule(int index, FeeRuleSet.Rule rule) {
+        var tiers = rule.tiers();
+        if (tiers == null || tiers.isEmpty()) throw invalid(index, "needs at least one tier");
+        long[] floors = new long[tiers.size()];
+        long[] basisPoints = new long[tiers.size()];
+        long[] fixed = new long[tiers.size()];
+        for (int t = 0; t < tiers.size(); t++) {
+            var tier = tiers.get(t);
+            if (tier == null || tier.from() == null) throw invalid(index, "tier " + t + " has no lower bound");
+            floors[t] = minor(index, tier.from(), 0);
+            if (t > 0 && floors[t] <= floors[t - 1]) throw invalid(index, "tier bounds must ascend");
+            if (tier.basisPoints() < 0 || tier.basisPoints() > BASIS_POINTS_MAX) {
+                throw invalid(index, "basis points must be between 0 and " + BASIS_POINTS_MAX);
+            }
+            basisPoints[t] = tier.basisPoints();
+            fixed[t] = minor(index, tier.fixed(), 0);
+        }
+        long min = minor(index, rule.min(), 0);
+        long max = minor(index, rule.max(), Long.MAX_VALUE);
+        if (min > max) throw invalid(index, "min exceeds max");
+        return new Schedule(floors, basisPoints, fixed, min, max);
+    }
+
+    private static long minor(int index, BigDecimal value, long absent) {
+        if (value == null) return absent;
+        if (value.signum() < 0) throw invalid(index, "amounts must not be negative");
+        return Money.of(value).minor();
+    }
+
+    private static int cardSlot(int index, String cardType) {
+        if (NO_CARD.equals(cardType)) return 0;
+        try {
+            return CardType.valueOf(cardType).ordinal() + 1;
+        } catch (IllegalArgumentException ex) {
+            throw invalid(index, "unknown card type " + cardType);
+        }
+    }
+
+    private static int cardSlot(CardType cardType) {
+        return cardType == null ? 0 : cardType.ordinal() + 1;
+    }
+
+    private static IllegalArgumentException invalid(int index, String reason) {
+        return new IllegalArgumentException("Fee rule " + index + ": " + reason);
+    }
+
+    private record Schedule(long[] floors, long[] basisPoints, long[] fixed, long min, long max) {
+        long fee(long amount) {
+            int t = floors.length - 1;
+            while (t >= 0 && amount < floors[t]) t--;
+            if (t < 0) return 0;
+            long fee = Math.addExact(Money.basisPointsOf(amount, basisPoints[t]), fixed[t]);
+            return Math.min(Math.max(fee, min), max);
+        }
+    }
+}
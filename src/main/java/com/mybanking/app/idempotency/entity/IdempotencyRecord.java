@@ -0,0 +1,47 @@
+package com.mybanking.app.idempotency.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "ux_idempotency_user_key", columnList = "userId, idemKey", unique = true),
+        @Index(name = "ix_idempotency_created_at", columnList = "createdAt")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+
+    public enum Status { IN_PROGRESS, COMPLETED }
+
+    @Id
+    @GeneratedValue
+    @UuidGenerator
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID userId;
+
+    @Column(nullable = false, length = 100)
+    private String idemKey;
+
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(length = 4000)
+    private String responseBody;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
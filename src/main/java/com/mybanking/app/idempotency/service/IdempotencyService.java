@@ -0,0 +1,209 @@
+package com.mybanking.app.idempotency.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mybanking.app.common.error.AppException;
+import com.mybanking.app.common.error.ErrorCode;
+import com.mybanking.app.idempotency.entity.IdempotencyRecord;
+import com.mybanking.app.idempotency.repository.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Replays the stored response of a money-moving request that carries an Idempotency-Key seen before.
+ * Lookups go to a bounded in-memory cache first and to the idempotency_keys table second; a request that
+ * is already running on this node is joined instead of executed again, and the unique (user, key) index
+ * keeps other nodes from executing it concurrently.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private record Stored(String requestHash, String body) {}
+
+    private record InFlight(String requestHash, CompletableFuture<String> body) {}
+
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate requiresNew;
+    private final Duration ttl;
+    private final Cache<String, Stored> cache;
+    private final ConcurrentHashMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.idempotency.cache-size:10000}") long cacheSize,
+                              @Value("${app.idempotency.ttl:PT24H}") Duration ttl) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttl = ttl;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public <T> T execute(UUID userId, String key, String scope, Object request,
+                         Class<T> responseType, Supplier<T> action) {
+        if (key == null || key.isBlank()) return action.get();
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw AppException.badRequest(ErrorCode.VALIDATION_ERROR, HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String cacheKey = userId + ":" + key;
+        String requestHash = fingerprint(scope, request);
+
+        Stored stored = cache.getIfPresent(cacheKey);
+        if (stored != null) {
+            ensureSameRequest(stored.requestHash(), requestHash);
+            log.info("idempotent replay (cache) userId={} key={}", userId, key);
+            return read(stored.body(), responseType);
+        }
+
+        InFlight mine = new InFlight(requestHash, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(cacheKey, mine);
+        if (running != null) {
+            ensureSameRequest(running.requestHash(), requestHash);
+            log.info("idempotent request joined in-flight execution userId={} key={}", userId, key);
+            return read(join(running.body()), responseType);
+        }
+
+        try {
+            String body = executeOnce(userId, key, cacheKey, requestHash, action);
+            mine.body().complete(body);
+            return read(body, responseType);
+        } catch (RuntimeException ex) {
+            mine.body().completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(cacheKey, mine);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        Integer removed = requiresNew.execute(s -> repository.deleteCreatedBefore(Instant.now().minus(ttl)));
+        if (removed != null && removed > 0) log.info("idempotency keys purged count={}", removed);
+    }
+
+    private String executeOnce(UUID userId, String key, String cacheKey, String requestHash, Supplier<?> action) {
+        UUID claimId;
+        try {
+            claimId = requiresNew.execute(s -> repository.saveAndFlush(IdempotencyRecord.builder()
+                    .userId(userId)
+                    .idemKey(key)
+                    .requestHash(requestHash)
+                    .status(IdempotencyRecord.Status.IN_PROGRESS)
+                    .createdAt(Instant.now())
+                    .build()).getId());
+        } catch (DataIntegrityViolationException ex) {
+            return replayFromStore(userId, key, cacheKey, requestHash)
+                    .orElseThrow(() -> inProgress(ex));
+        }
+
+        String body;
+        try {
+            body = write(action.get());
+        } catch (RuntimeException ex) {
+            requiresNew.executeWithoutResult(s -> repository.deleteById(claimId));
+            throw ex;
+        }
+
+        requiresNew.executeWithoutResult(s -> repository.findById(claimId).ifPresent(r -> {
+            r.setStatus(IdempotencyRecord.Status.COMPLETED);
+            r.setResponseBody(body);
+        }));
+        cache.put(cacheKey, new Stored(requestHash, body));
+        return body;
+    }
+
+    private Optional<String> replayFromStore(UUID userId, String key, String cacheKey, String requestHash) {
+        var existing = repository.findByUserIdAndIdemKey(userId, key);
+        if (existing.isEmpty()) return Optional.empty();
+
+        var record = existing.get();
+        ensureSameRequest(record.getRequestHash(), requestHash);
+        if (record.getStatus() != IdempotencyRecord.Status.COMPLETED) throw inProgress(null);
+
+        log.info("idempotent replay (store) userId={} key={}", userId, key);
+        cache.put(cacheKey, new Stored(record.getRequestHash(), record.getResponseBody()));
+        return Optional.of(record.getResponseBody());
+    }
+
+    private static void ensureSameRequest(String storedHash, String requestHash) {
+        if (!storedHash.equals(requestHash)) {
+            throw new AppException(ErrorCode.IDEMPOTENCY_KEY_REUSED, HttpStatus.UNPROCESSABLE_ENTITY,
+                    HEADER + " was already used for a different request");
+        }
+    }
+
+    private static AppException inProgress(Throwable cause) {
+        return new AppException(ErrorCode.IDEMPOTENCY_IN_PROGRESS, HttpStatus.CONFLICT,
+                "A request with this " + HEADER + " is still being processed", cause);
+    }
+
+    private static String join(CompletableFuture<String> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException re) throw re;
+            throw ex;
+        }
+    }
+
+    private String fingerprint(String scope, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(scope.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Cannot fingerprint request", e);
+        }
+    }
+
+    private String write(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize response", e);
+        }
+    }
+
+    private <T> T read(String body, Class<T> type) {
+        try {
+            return objectMapper.readValue(body, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot deserialize stored response", e);
+        }
+    }
+}
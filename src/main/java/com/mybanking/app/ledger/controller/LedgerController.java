@@ -0,0 +1,34 @@
+package com.mybanking.app.ledger.controller;
+
+import com.mybanking.app.ledger.dto.BalanceAtResponse;
+import com.mybanking.app.ledger.service.LedgerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static com.mybanking.app.common.security.SecurityUtils.currentUserId;
+
+@RestController
+@RequestMapping("/api/accounts")
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerController {
+
+    private final LedgerService ledgerService;
+
+    @GetMapping("/{accountId}/balance")
+    public ResponseEntity<BalanceAtResponse> balanceAt(@PathVariable UUID accountId,
+                                                       @RequestParam(required = false)
+                                                       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant at) {
+        var userId = currentUserId();
+        var pointInTime = at != null ? at : Instant.now();
+        log.info("balanceAt start accountId={} userId={} at={}", accountId, userId, pointInTime);
+        var balance = ledgerService.balanceAt(accountId, pointInTime, userId);
+        return ResponseEntity.ok(new BalanceAtResponse(accountId, pointInTime, balance));
+    }
+}
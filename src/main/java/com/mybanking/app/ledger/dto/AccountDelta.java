@@ -0,0 +1,6 @@
+package com.mybanking.app.ledger.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record AccountDelta(UUID accountId, BigDecimal amount) {}
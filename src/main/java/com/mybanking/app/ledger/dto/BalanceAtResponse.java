@@ -0,0 +1,13 @@
+package com.mybanking.app.ledger.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+public record BalanceAtResponse(
+        UUID accountId,
+        Instant at,
+        @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "0.00") BigDecimal balance
+) {}
@@ -0,0 +1,38 @@
+package com.mybanking.app.ledger.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/** Balance of an account including every posting with {@code occurredAt <= asOf}. */
+@Entity
+@Immutable
+@Table(name = "balance_checkpoints", indexes = {
+        @Index(name = "ux_checkpoint_account_as_of", columnList = "accountId, asOf", unique = true),
+        @Index(name = "ix_checkpoint_as_of", columnList = "asOf")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class BalanceCheckpoint {
+
+    @Id
+    @GeneratedValue
+    @UuidGenerator
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID accountId;
+
+    @Column(nullable = false)
+    private Instant asOf;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal balance;
+}
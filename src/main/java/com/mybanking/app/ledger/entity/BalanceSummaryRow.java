@@ -0,0 +1,38 @@
+package com.mybanking.app.ledger.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/** Number and total balance of the accounts of one card type that fall in one histogram bucket. */
+@Entity
+@Table(name = "balance_summary", indexes = {
+        @Index(name = "ux_balance_summary_card_bucket", columnList = "cardType, bucket", unique = true)
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceSummaryRow {
+
+    @Id
+    @GeneratedValue
+    @UuidGenerator
+    private UUID id;
+
+    @Column(nullable = false, length = 10)
+    private String cardType;
+
+    @Column(nullable = false)
+    private int bucket;
+
+    @Column(nullable = false)
+    private long accounts;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal total;
+}
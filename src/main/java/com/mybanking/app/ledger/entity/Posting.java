@@ -0,0 +1,49 @@
+package com.mybanking.app.ledger.entity;
+
+import com.mybanking.app.common.util.PostingType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One leg of a ledger operation. Amounts are signed (credit positive, debit negative) and the legs of
+ * an operation sum to zero. Rows are insert-only; an account's balance is the sum of its postings.
+ */
+@Entity
+@Immutable
+@Table(name = "postings", indexes = {
+        @Index(name = "ix_postings_account_time", columnList = "accountId, occurredAt"),
+        @Index(name = "ix_postings_time", columnList = "occurredAt")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class Posting {
+
+    @Id
+    @GeneratedValue
+    @UuidGenerator
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID operationId;
+
+    @Column(nullable = false)
+    private UUID accountId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private PostingType type;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private Instant occurredAt;
+}
@@ -0,0 +1,24 @@
+package com.mybanking.app.ledger.repository;
+
+import com.mybanking.app.ledger.entity.BalanceCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface BalanceCheckpointRepository extends JpaRepository<BalanceCheckpoint, UUID> {
+
+    Optional<BalanceCheckpoint> findFirstByAccountIdAndAsOfLessThanEqualOrderByAsOfDesc(UUID accountId, Instant at);
+
+    @Query("select max(c.asOf) from BalanceCheckpoint c")
+    Optional<Instant> findLatestAsOf();
+
+    @Query("select c from BalanceCheckpoint c where c.accountId in :accountIds and c.asOf = " +
+            "(select max(c2.asOf) from BalanceCheckpoint c2 where c2.accountId = c.accountId)")
+    List<BalanceCheckpoint> findLatestFor(@Param("accountIds") Collection<UUID> accountIds);
+}
@@ -0,0 +1,9 @@
+package com.mybanking.app.ledger.repository;
+
+import com.mybanking.app.ledger.entity.BalanceSummaryRow;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+public interface BalanceSummaryRepository extends JpaRepository<BalanceSummaryRow, UUID> {
+}
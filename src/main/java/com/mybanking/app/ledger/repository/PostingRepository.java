@@ -0,0 +1,25 @@
+package com.mybanking.app.ledger.repository;
+
+import com.mybanking.app.ledger.dto.AccountDelta;
+import com.mybanking.app.ledger.entity.Posting;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface PostingRepository extends JpaRepository<Posting, UUID> {
+
+    @Query("select coalesce(sum(p.amount), 0) from Posting p " +
+            "where p.accountId = :accountId and p.occurredAt > :after and p.occurredAt <= :upTo")
+    BigDecimal sumForAccount(@Param("accountId") UUID accountId,
+                             @Param("after") Instant after,
+                             @Param("upTo") Instant upTo);
+
+    @Query("select new com.mybanking.app.ledger.dto.AccountDelta(p.accountId, sum(p.amount)) from Posting p " +
+            "where p.occurredAt > :after and p.occurredAt <= :upTo group by p.accountId")
+    List<AccountDelta> sumByAccount(@Param("after") Instant after, @Param("upTo") Instant upTo);
+}
@@ -0,0 +1,77 @@
+package com.mybanking.app.ledger.service;
+
+import com.mybanking.app.account.dto.AccountSummary;
+import com.mybanking.app.account.dto.BalanceReport;
+import com.mybanking.app.account.repository.AccountRepository;
+import com.mybanking.app.account.service.BalanceAggregates;
+import com.mybanking.app.common.util.CardType;
+import com.mybanking.app.ledger.entity.BalanceCheckpoint;
+import com.mybanking.app.ledger.entity.BalanceSummaryRow;
+import com.mybanking.app.ledger.repository.BalanceCheckpointRepository;
+import com.mybanking.app.ledger.repository.BalanceSummaryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Keeps {@code balance_summary} in step with the ledger checkpoints, so dashboard aggregates are read from a
+ * handful of rows instead of a scan over every account. Each checkpoint moves the accounts that changed out
+ * of the bucket of their previous checkpoint balance and into the bucket of the new one; every account is
+ * opened with a posting, a zero one included, so it is counted from its first checkpoint. The card type is
+ * read when an account moves, so a card issued to an idle account shows up at its next movement.
+ */
+@Service
+@RequiredArgsConstructor
+public class BalanceSummaryService {
+
+    private final BalanceSummaryRepository summaryRepo;
+    private final BalanceCheckpointRepository checkpointRepo;
+    private final AccountRepository accountRepo;
+
+    /** {@code previous} holds the balance at the prior checkpoint of each account that had one. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void roll(Map<UUID, BigDecimal> previous, List<BalanceCheckpoint> checkpoints) {
+        Map<UUID, CardType> cardTypes = new HashMap<>();
+        for (AccountSummary s : accountRepo.findSummariesByIdIn(
+                checkpoints.stream().map(BalanceCheckpoint::getAccountId).toList())) {
+            cardTypes.put(s.accountId(), s.cardType());
+        }
+
+        Map<String, BalanceSummaryRow> rows = new HashMap<>();
+        for (BalanceSummaryRow row : summaryRepo.findAll()) rows.put(key(row.getCardType(), row.getBucket()), row);
+
+        for (BalanceCheckpoint c : checkpoints) {
+            // system accounts (external, fee income) have postings but no account row
+            if (!cardTypes.containsKey(c.getAccountId())) continue;
+            String card = BalanceAggregates.cardKey(cardTypes.get(c.getAccountId()));
+            BigDecimal before = previous.get(c.getAccountId());
+            if (before != null) adjust(rows, card, BalanceAggregates.bucketOf(before), -1, before.negate());
+            adjust(rows, card, BalanceAggregates.bucketOf(c.getBalance()), 1, c.getBalance());
+        }
+        summaryRepo.saveAll(rows.values());
+    }
+
+    @Transactional(readOnly = true)
+    public BalanceReport report() {
+        var aggregates = new BalanceAggregates();
+        for (BalanceSummaryRow row : summaryRepo.findAll()) {
+            aggregates.add(row.getCardType(), row.getBucket(), row.getAccounts(), row.getTotal());
+        }
+        return aggregates.toReport(checkpointRepo.findLatestAsOf().orElse(null));
+    }
+
+    private static void adjust(Map<String, BalanceSummaryRow> rows, String card, int bucket, long count, BigDecimal sum) {
+        var row = rows.computeIfAbsent(key(card, bucket), k -> BalanceSummaryRow.builder()
+                .cardType(card).bucket(bucket).accounts(0).total(BigDecimal.ZERO).build());
+        row.setAccounts(row.getAccounts() + count);
+        row.setTotal(row.getTotal().add(sum));
+    }
+
+    private static String key(String card, int bucket) {
+        return card + '#' + bucket;
+    }
+}
@@ -0,0 +1,103 @@
+package com.mybanking.app.ledger.service;
+
+import com.mybanking.app.account.repository.AccountRepository;
+import com.mybanking.app.common.error.AppException;
+import com.mybanking.app.ledger.dto.AccountDelta;
+import com.mybanking.app.ledger.entity.BalanceCheckpoint;
+import com.mybanking.app.ledger.entity.Posting;
+import com.mybanking.app.ledger.repository.BalanceCheckpointRepository;
+import com.mybanking.app.ledger.repository.PostingRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+import static com.mybanking.app.common.error.ErrorCode.*;
+
+@Slf4j
+@Service
+public class LedgerService {
+
+    private final PostingRepository postingRepo;
+    private final BalanceCheckpointRepository checkpointRepo;
+    private final AccountRepository accountRepo;
+    private final BalanceSummaryService balanceSummary;
+    private final PendingPostings pendingPostings;
+    private final Duration settleLag;
+
+    public LedgerService(PostingRepository postingRepo,
+                         BalanceCheckpointRepository checkpointRepo,
+                         AccountRepository accountRepo,
+                         BalanceSummaryService balanceSummary,
+                         PendingPostings pendingPostings,
+                         @Value("${app.ledger.checkpoint-lag:PT1M}") Duration settleLag) {
+        this.postingRepo = postingRepo;
+        this.checkpointRepo = checkpointRepo;
+        this.accountRepo = accountRepo;
+        this.balanceSummary = balanceSummary;
+        this.pendingPostings = pendingPostings;
+        this.settleLag = settleLag;
+    }
+
+    /** Joins the caller's transaction, so postings commit or roll back with the balance change they describe. */
+    @Transactional
+    public void append(List<Posting> postings) {
+        postingRepo.saveAll(postings);
+    }
+
+    @Transactional(readOnly = true)
+    public BigDecimal balanceAt(UUID accountId, Instant at, UUID callerUserId) {
+        var account = accountRepo.findSnapshotById(accountId)
+                .orElseThrow(() -> AppException.notFound(ACCOUNT_NOT_FOUND, "Account not found"));
+        if (!account.ownerId().equals(callerUserId)) {
+            throw AppException.forbidden(ACCOUNT_FORBIDDEN, "Not owner of the account");
+        }
+
+        var checkpoint = checkpointRepo.findFirstByAccountIdAndAsOfLessThanEqualOrderByAsOfDesc(accountId, at);
+        Instant after = checkpoint.map(BalanceCheckpoint::getAsOf).orElse(Instant.EPOCH);
+        BigDecimal base = checkpoint.map(BalanceCheckpoint::getBalance).orElse(BigDecimal.ZERO);
+        return base.add(postingRepo.sumForAccount(accountId, after, at));
+    }
+
+    /**
+     * Rolls the previous checkpoints forward by the postings made since, for accounts that moved. The window
+     * ends {@code app.ledger.checkpoint-lag} in the past so that no transaction still in flight can commit
+     * a posting inside an already checkpointed range, and before the oldest posting an asynchronous journal
+     * has not inserted yet.
+     */
+    @Scheduled(fixedDelayString = "${app.ledger.checkpoint-interval-ms:300000}",
+            initialDelayString = "${app.ledger.checkpoint-interval-ms:300000}")
+    @Transactional
+    public int checkpoint() {
+        Instant asOf = pendingPostings.settledBefore(Instant.now().minus(settleLag));
+        Instant after = checkpointRepo.findLatestAsOf().orElse(Instant.EPOCH);
+        if (!asOf.isAfter(after)) return 0;
+
+        List<AccountDelta> deltas = postingRepo.sumByAccount(after, asOf);
+        if (deltas.isEmpty()) return 0;
+
+        Map<UUID, BigDecimal> previous = new HashMap<>();
+        for (var c : checkpointRepo.findLatestFor(deltas.stream().map(AccountDelta::accountId).toList())) {
+            previous.put(c.getAccountId(), c.getBalance());
+        }
+
+        List<BalanceCheckpoint> checkpoints = new ArrayList<>(deltas.size());
+        for (var d : deltas) {
+            checkpoints.add(BalanceCheckpoint.builder()
+                    .accountId(d.accountId())
+                    .asOf(asOf)
+                    .balance(previous.getOrDefault(d.accountId(), BigDecimal.ZERO).add(d.amount()))
+                    .build());
+        }
+        checkpointRepo.saveAll(checkpoints);
+        balanceSummary.roll(previous, checkpoints);
+        log.info("ledger checkpoint asOf={} accounts={}", asOf, checkpoints.size());
+        return checkpoints.size();
+    }
+}
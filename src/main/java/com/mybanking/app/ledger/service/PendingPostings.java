@@ -0,0 +1,31 @@
+package com.mybanking.app.ledger.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.TreeMap;
+
+/**
+ * Occurrence times of postings that asynchronous journals have accepted but not yet inserted. Checkpoints
+ * stop short of the oldest one so a posting that lands late is never left behind an already rolled range.
+ */
+@Component
+public class PendingPostings {
+
+    private final TreeMap<Instant, Integer> pending = new TreeMap<>();
+
+    public synchronized void add(Instant occurredAt) {
+        pending.merge(occurredAt, 1, Integer::sum);
+    }
+
+    public synchronized void remove(Instant occurredAt) {
+        pending.computeIfPresent(occurredAt, (at, n) -> n == 1 ? null : n - 1);
+    }
+
+    /** {@code upTo}, or just before the oldest pending posting if that is earlier. */
+    public synchronized Instant settledBefore(Instant upTo) {
+        if (pending.isEmpty()) return upTo;
+        Instant oldest = pending.firstKey().minusNanos(1);
+        return oldest.isBefore(upTo) ? oldest : upTo;
+    }
+}
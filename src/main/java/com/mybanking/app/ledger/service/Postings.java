@@ -0,0 +1,71 @@
+package com.mybanking.app.ledger.service;
+
+import com.mybanking.app.common.util.PostingType;
+import com.mybanking.app.ledger.entity.Posting;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/** Builds the balanced legs of each ledger operation. Counterparties outside the bank book against {@link #EXTERNAL}. */
+public final class Postings {
+
+    public static final UUID EXTERNAL = new UUID(0L, 1L);
+    public static final UUID FEE_INCOME = new UUID(0L, 2L);
+
+    private Postings() {}
+
+    public static List<Posting> opening(UUID accountId, BigDecimal balance, Instant at) {
+        List<Posting> legs = new ArrayList<>(2);
+        pair(legs, UUID.randomUUID(), PostingType.OPENING, EXTERNAL, accountId, balance, at);
+        return legs;
+    }
+
+    public static List<Posting> deposit(UUID accountId, BigDecimal amount, BigDecimal fee, Instant at) {
+        UUID operationId = UUID.randomUUID();
+        List<Posting> legs = new ArrayList<>(4);
+        pair(legs, operationId, PostingType.DEPOSIT, EXTERNAL, accountId, amount, at);
+        fee(legs, operationId, accountId, fee, at);
+        return legs;
+    }
+
+    public static List<Posting> withdrawal(UUID accountId, BigDecimal amount, BigDecimal fee, Instant at) {
+        UUID operationId = UUID.randomUUID();
+        List<Posting> legs = new ArrayList<>(4);
+        pair(legs, operationId, PostingType.WITHDRAWAL, accountId, EXTERNAL, amount, at);
+        fee(legs, operationId, accountId, fee, at);
+        return legs;
+    }
+
+    public static List<Posting> transfer(UUID operationId, UUID fromAccountId, UUID toAccountId,
+                                         BigDecimal amount, BigDecimal fee, Instant at) {
+        List<Posting> legs = new ArrayList<>(4);
+        pair(legs, operationId, PostingType.TRANSFER, fromAccountId, toAccountId, amount, at);
+        fee(legs, operationId, fromAccountId, fee, at);
+        return legs;
+    }
+
+    private static void fee(List<Posting> legs, UUID operationId, UUID accountId, BigDecimal fee, Instant at) {
+        if (fee != null && fee.signum() > 0) {
+            pair(legs, operationId, PostingType.FEE, accountId, FEE_INCOME, fee, at);
+        }
+    }
+
+    private static void pair(List<Posting> legs, UUID operationId, PostingType type,
+                             UUID debitAccountId, UUID creditAccountId, BigDecimal amount, Instant at) {
+        legs.add(leg(operationId, type, debitAccountId, amount.negate(), at));
+        legs.add(leg(operationId, type, creditAccountId, amount, at));
+    }
+
+    private static Posting leg(UUID operationId, PostingType type, UUID accountId, BigDecimal amount, Instant at) {
+        return Posting.builder()
+                .operationId(operationId)
+                .accountId(accountId)
+                .type(type)
+                .amount(amount)
+                .occurredAt(at)
+                .build();
+    }
+}
@@ -0,0 +1,35 @@
+package com.mybanking.app.security;
+
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.time.Duration;
+
+/**
+ * Picks a BCrypt cost from a target verify latency measured on this host. Each extra round doubles the work,
+ * so one timed hash at {@code floor} is enough to extrapolate the highest cost that still fits the target.
+ */
+final class BCryptCost {
+
+    static final int MAX = 16;
+
+    private BCryptCost() {}
+
+    static int forTarget(Duration target, int floor) {
+        String salt = BCrypt.gensalt(floor);
+        BCrypt.hashpw("calibration", salt); // warm-up
+        long start = System.nanoTime();
+        BCrypt.hashpw("calibration", salt);
+        return forTarget(target, floor, System.nanoTime() - start);
+    }
+
+    static int forTarget(Duration target, int floor, long measuredNanosAtFloor) {
+        long budget = target.toNanos();
+        long nanos = Math.max(1, measuredNanosAtFloor);
+        int cost = floor;
+        while (cost < MAX && nanos * 2 <= budget) {
+            nanos *= 2;
+            cost++;
+        }
+        return cost;
+    }
+}
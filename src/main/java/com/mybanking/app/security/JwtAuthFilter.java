@@ -1,5 +1,6 @@
 package com.mybanking.app.security;
 
+import com.mybanking.app.auth.service.TokenRevocationService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,8 +18,12 @@ import java.io.IOException;
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwt;
+    private final TokenRevocationService revocations;
 
-    public JwtAuthFilter(JwtTokenProvider jwt) { this.jwt = jwt; }
+    public JwtAuthFilter(JwtTokenProvider jwt, TokenRevocationService revocations) {
+        this.jwt = jwt;
+        this.revocations = revocations;
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
@@ -28,22 +33,14 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         String token = (StringUtils.hasText(header) && header.startsWith("Bearer "))
                 ? header.substring(7) : null;
 
-        if (token != null && jwt.isValid(token) && SecurityContextHolder.getContext().getAuthentication() == null) {
-            String subject = jwt.getSubject(token);
-            var roles = jwt.getRoles(token);
-
-            var authorities = roles.stream()
-                    .map(r -> "ROLE_" + r)
-                    .map(org.springframework.security.core.authority.SimpleGrantedAuthority::new)
-                    .toList();
-
-            var auth = new UsernamePasswordAuthenticationToken(
-                    subject,
-                    null,
-                    authorities
-            );
-            auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(req));
-            SecurityContextHolder.getContext().setAuthentication(auth);
+        if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            jwt.authenticate(token)
+                    .filter(principal -> !revocations.isRevoked(principal.tokenId()))
+                    .ifPresent(principal -> {
+                        var auth = new UsernamePasswordAuthenticationToken(principal.subject(), null, principal.authorities());
+                        auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(req));
+                        SecurityContextHolder.getContext().setAuthentication(auth);
+                    });
         }
 
         chain.doFilter(req, res);
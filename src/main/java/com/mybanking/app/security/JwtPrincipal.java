@@ -0,0 +1,9 @@
+package com.mybanking.app.security;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.time.Instant;
+import java.util.List;
+
+/** Verified claims of an access token, with the role authorities already built. {@code tokenId} is the {@code jti}. */
+public record JwtPrincipal(String subject, String tokenId, List<GrantedAuthority> authorities, Instant expiresAt) {}
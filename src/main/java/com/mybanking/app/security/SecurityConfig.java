@@ -1,6 +1,8 @@
 package com.mybanking.app.security;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -12,9 +14,12 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
+
 @Configuration
 @EnableMethodSecurity
 @RequiredArgsConstructor
+@Slf4j
 public class SecurityConfig {
 
     private final JwtAuthFilter jwtAuthFilter;
@@ -32,8 +37,11 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                         // swagger
                         .requestMatchers("/v3/api-docs/**","/swagger-ui/**","/swagger-ui.html").permitAll()
+                        // actuator
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         // admin
-                        .requestMatchers("/api/accounts/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/api/accounts/admin/**", "/api/users/admin/**").hasRole("ADMIN")
                         // rest required login
                         .anyRequest().authenticated()
                 )
@@ -42,9 +50,18 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * BCrypt at {@code app.auth.bcrypt.strength}, or, when {@code app.auth.bcrypt.target-verify} is set, at the
+     * highest cost (never below the configured strength) that hashes within that target on this host. Older
+     * hashes are re-encoded on the user's next successful login.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${app.auth.bcrypt.strength:10}") int strength,
+            @Value("${app.auth.bcrypt.target-verify:#{null}}") Duration targetVerify) {
+        int cost = targetVerify == null ? strength : BCryptCost.forTarget(targetVerify, strength);
+        log.info("bcrypt cost={}", cost);
+        return new BCryptPasswordEncoder(cost);
     }
 
     @Bean
@@ -52,7 +69,7 @@ public class SecurityConfig {
         var cfg = new org.springframework.web.cors.CorsConfiguration();
         cfg.setAllowedOrigins(java.util.List.of("http://localhost:5173", "http://localhost:3000"));
         cfg.setAllowedMethods(java.util.List.of("GET","POST","PUT","DELETE","PATCH","OPTIONS"));
-        cfg.setAllowedHeaders(java.util.List.of("Authorization","Content-Type","Accept","X-Requested-With"));
+        cfg.setAllowedHeaders(java.util.List.of("Authorization","Content-Type","Accept","X-Requested-With","Idempotency-Key"));
         cfg.setExposedHeaders(java.util.List.of("Location"));
         cfg.setAllowCredentials(true);
         cfg.setMaxAge(3600L);
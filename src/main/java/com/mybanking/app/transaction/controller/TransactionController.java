@@ -1,5 +1,8 @@
 package com.mybanking.app.transaction.controller;
 
+import com.mybanking.app.idempotency.service.IdempotencyService;
+import com.mybanking.app.transaction.dto.BulkTransferRequest;
+import com.mybanking.app.transaction.dto.BulkTransferResponse;
 import com.mybanking.app.transaction.dto.TransferRequest;
 import com.mybanking.app.transaction.dto.TransferResponse;
 import com.mybanking.app.transaction.service.TransactionService;
@@ -18,21 +21,45 @@ import static com.mybanking.app.common.security.SecurityUtils.currentUserId;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping("/transfer")
-    public ResponseEntity<TransferResponse> transfer(@Valid @RequestBody TransferRequest body) {
+    public ResponseEntity<TransferResponse> transfer(@Valid @RequestBody TransferRequest body,
+                                                     @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
         var userId = currentUserId();
         log.info("transfer start from={} to={} amount={}", body.fromAccountId(), body.toAccountNumber(), body.amount());
 
-        var r = transactionService.transfer(body.fromAccountId(), body.toAccountNumber(), body.amount(), userId);
+        var response = idempotencyService.execute(userId, idempotencyKey, "transfer", body, TransferResponse.class, () -> {
+            var r = transactionService.transfer(body.fromAccountId(), body.toAccountNumber(), body.amount(), userId);
+            return new TransferResponse(
+                    r.fromAccountId(),
+                    r.toAccountId(),
+                    r.transferred(),
+                    r.feeCharged(),
+                    r.fromNewBalance(),
+                    r.toNewBalance()
+            );
+        });
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/transfer/bulk")
+    public ResponseEntity<BulkTransferResponse> bulkTransfer(@Valid @RequestBody BulkTransferRequest body) {
+        var userId = currentUserId();
+        log.info("bulk transfer start from={} items={}", body.fromAccountId(), body.items().size());
+
+        var r = transactionService.bulkTransfer(body.fromAccountId(), body.items(), userId);
 
-        return ResponseEntity.ok(new TransferResponse(
-                r.fromAccountId(),
-                r.toAccountId(),
-                r.transferred(),
-                r.feeCharged(),
-                r.fromNewBalance(),
-                r.toNewBalance()
-        ));
+        var items = r.items().stream()
+                .map(i -> new BulkTransferResponse.Item(
+                        i.index(),
+                        i.toAccountNumber(),
+                        i.toAccountId(),
+                        i.transferred(),
+                        i.feeCharged(),
+                        i.errorCode(),
+                        i.message()))
+                .toList();
+        return ResponseEntity.ok(new BulkTransferResponse(r.fromAccountId(), r.fromNewBalance(), r.succeeded(), r.failed(), items));
     }
 }
@@ -0,0 +1,63 @@
+package com.mybanking.app.transaction.controller;
+
+import com.mybanking.app.common.util.StatementFormat;
+import com.mybanking.app.common.util.TransactionDirection;
+import com.mybanking.app.transaction.dto.TransactionHistoryResponse;
+import com.mybanking.app.transaction.service.StatementExportService;
+import com.mybanking.app.transaction.service.TransactionHistoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static com.mybanking.app.common.security.SecurityUtils.currentUserId;
+
+@RestController
+@RequestMapping("/api/accounts")
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionHistoryController {
+
+    private final TransactionHistoryService historyService;
+    private final StatementExportService exportService;
+
+    @GetMapping("/{accountId}/transactions")
+    public ResponseEntity<TransactionHistoryResponse> history(
+            @PathVariable UUID accountId,
+            @RequestParam(required = false) TransactionDirection direction,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        var userId = currentUserId();
+        log.info("history start accountId={} userId={} direction={}", accountId, userId, direction);
+        var page = historyService.history(accountId, userId, direction, from, to, cursor, limit);
+        var items = page.items().stream()
+                .map(t -> TransactionHistoryResponse.Item.of(t, accountId))
+                .toList();
+        return ResponseEntity.ok(new TransactionHistoryResponse(items, page.nextCursor()));
+    }
+
+    @GetMapping("/{accountId}/transactions/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @PathVariable UUID accountId,
+            @RequestParam(defaultValue = "CSV") StatementFormat format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        var userId = currentUserId();
+        log.info("export start accountId={} userId={} format={}", accountId, userId, format);
+        var body = exportService.export(accountId, userId, format, from, to);
+        String filename = "statement-" + accountId + (format == StatementFormat.CSV ? ".csv.gz" : ".ndjson.gz");
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+}
@@ -0,0 +1,21 @@
+package com.mybanking.app.transaction.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+public record BulkTransferRequest(
+        @NotNull UUID fromAccountId,
+        @NotEmpty @Size(max = 1000) List<@Valid @NotNull Item> items
+) {
+    public record Item(
+            @NotNull String toAccountNumber,
+            @NotNull @DecimalMin(value = "0.01") BigDecimal amount
+    ) {}
+}
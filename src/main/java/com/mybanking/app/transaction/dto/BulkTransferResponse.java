@@ -0,0 +1,27 @@
+package com.mybanking.app.transaction.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+public record BulkTransferResponse(
+        UUID fromAccountId,
+        @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "0.00") BigDecimal fromNewBalance,
+        int succeeded,
+        int failed,
+        List<Item> items
+) {
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Item(
+            int index,
+            String toAccountNumber,
+            UUID toAccountId,
+            @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "0.00") BigDecimal transferred,
+            @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "0.00") BigDecimal feeCharged,
+            String errorCode,
+            String message
+    ) {}
+}
@@ -0,0 +1,23 @@
+package com.mybanking.app.transaction.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+public record BulkTransferResult(
+        UUID fromAccountId,
+        BigDecimal fromNewBalance,
+        int succeeded,
+        int failed,
+        List<Item> items
+) {
+    public record Item(
+            int index,
+            String toAccountNumber,
+            UUID toAccountId,
+            BigDecimal transferred,
+            BigDecimal feeCharged,
+            String errorCode,
+            String message
+    ) {}
+}
@@ -0,0 +1,19 @@
+package com.mybanking.app.transaction.dto;
+
+import com.mybanking.app.common.util.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+public record TransactionHistoryItem(
+        UUID id,
+        TransactionType type,
+        BigDecimal amount,
+        BigDecimal fee,
+        Instant occurredAt,
+        UUID fromAccountId,
+        String fromAccountNumber,
+        UUID toAccountId,
+        String toAccountNumber
+) {}
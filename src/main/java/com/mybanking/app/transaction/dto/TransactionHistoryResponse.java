@@ -0,0 +1,37 @@
+package com.mybanking.app.transaction.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.mybanking.app.common.util.TransactionDirection;
+import com.mybanking.app.common.util.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public record TransactionHistoryResponse(List<Item> items, String nextCursor) {
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Item(
+            UUID id,
+            TransactionType type,
+            TransactionDirection direction,
+            @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "0.00") BigDecimal amount,
+            @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "0.00") BigDecimal fee,
+            Instant occurredAt,
+            String counterpartyAccountNumber
+    ) {
+        public static Item of(TransactionHistoryItem t, UUID accountId) {
+            boolean outgoing = accountId.equals(t.fromAccountId());
+            return new Item(
+                    t.id(),
+                    t.type(),
+                    outgoing ? TransactionDirection.OUT : TransactionDirection.IN,
+                    t.amount(),
+                    outgoing ? t.fee() : null,
+                    t.occurredAt(),
+                    outgoing ? t.toAccountNumber() : t.fromAccountNumber());
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.mybanking.app.transaction.dto;
+
+import java.util.List;
+
+public record TransactionPage(List<TransactionHistoryItem> items, String nextCursor) {}
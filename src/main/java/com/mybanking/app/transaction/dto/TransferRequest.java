@@ -1,6 +1,7 @@
 package com.mybanking.app.transaction.dto;
 
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotNull;
 
 import java.math.BigDecimal;
@@ -9,6 +10,6 @@ import java.util.UUID;
 public record TransferRequest(
         @NotNull UUID fromAccountId,
         @NotNull String toAccountNumber,
-        @NotNull @DecimalMin(value = "0.01") BigDecimal amount
+        @NotNull @DecimalMin(value = "0.01") @Digits(integer = 16, fraction = 2) BigDecimal amount
 ) {}
 
@@ -0,0 +1,28 @@
+package com.mybanking.app.transaction.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Commit marker of a write-behind journal entry. Inserted by the locking transaction itself, so it exists
+ * exactly when the balance update it describes committed; deleted together with the entry's inserted rows.
+ * Written through JDBC only; the entity just declares the table.
+ */
+@Entity
+@Table(name = "journal_commits")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JournalCommit {
+
+    @Id
+    private UUID entryId;
+
+    @Column(nullable = false)
+    private Instant committedAt;
+}
@@ -11,7 +11,10 @@ import java.time.Instant;
 import java.util.UUID;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "ix_tx_from_time", columnList = "from_account_id, occurredAt, id"),
+        @Index(name = "ix_tx_to_time", columnList = "to_account_id, occurredAt, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
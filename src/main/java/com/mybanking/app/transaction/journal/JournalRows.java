@@ -0,0 +1,41 @@
+package com.mybanking.app.transaction.journal;
+
+import com.mybanking.app.common.util.TransactionType;
+import com.mybanking.app.ledger.entity.Posting;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/** Batched JDBC inserts for journal writers that run outside the JPA persistence context. */
+public final class JournalRows {
+
+    private static final String INSERT_TRANSFER =
+            "insert into transactions (id, type, amount, fee, occurred_at, from_account_id, to_account_id) values (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_POSTING =
+            "insert into postings (id, operation_id, account_id, type, amount, occurred_at) values (?, ?, ?, ?, ?, ?)";
+
+    private JournalRows() {}
+
+    public static void insert(JdbcTemplate jdbc, Collection<TransferRow> transfers, Collection<Posting> postings) {
+        if (!transfers.isEmpty()) {
+            List<Object[]> rows = new ArrayList<>(transfers.size());
+            for (TransferRow t : transfers) {
+                rows.add(new Object[]{t.id(), TransactionType.TRANSFER.name(), t.amount(), t.fee(),
+                        Timestamp.from(t.occurredAt()), t.fromAccountId(), t.toAccountId()});
+            }
+            jdbc.batchUpdate(INSERT_TRANSFER, rows);
+        }
+        if (!postings.isEmpty()) {
+            List<Object[]> rows = new ArrayList<>(postings.size());
+            for (Posting p : postings) {
+                rows.add(new Object[]{UUID.randomUUID(), p.getOperationId(), p.getAccountId(), p.getType().name(),
+                        p.getAmount(), Timestamp.from(p.getOccurredAt())});
+            }
+            jdbc.batchUpdate(INSERT_POSTING, rows);
+        }
+    }
+}
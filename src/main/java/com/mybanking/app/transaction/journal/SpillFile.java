@@ -0,0 +1,185 @@
+package com.mybanking.app.transaction.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Append-only log of journal lines split into numbered segment files. {@link #append} returns once the
+ * line is on disk; appenders that arrive while another thread is in {@code fsync} are covered by the
+ * next single {@code fsync} (group commit). Segments are deleted oldest first, once rolled over and with
+ * every entry released.
+ */
+@Slf4j
+class SpillFile implements AutoCloseable {
+
+    static final class Segment {
+        private final Path path;
+        private final FileChannel channel;
+        private long size;
+        private int outstanding;
+        private boolean sealed;
+
+        private Segment(Path path) throws IOException {
+            this.path = path;
+            this.channel = FileChannel.open(path, CREATE_NEW, WRITE);
+        }
+    }
+
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".log";
+
+    private final Path dir;
+    private final long maxSegmentBytes;
+    private final Object appendLock = new Object();
+    private final Object syncLock = new Object();
+
+    private final ArrayDeque<Segment> live = new ArrayDeque<>();
+    private Segment current;
+    private long nextSegmentNo;
+    private long writtenSeq;
+    private volatile long durableSeq;
+
+    SpillFile(Path dir, long maxSegmentBytes) throws IOException {
+        this.dir = Files.createDirectories(dir);
+        this.maxSegmentBytes = maxSegmentBytes;
+        List<Path> existing = segments();
+        this.nextSegmentNo = existing.isEmpty() ? 0 : segmentNo(existing.get(existing.size() - 1)) + 1;
+    }
+
+    /** Lines of segments left by a previous run, oldest first. A torn last line is returned as is. */
+    List<String> readExisting() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (Path p : segments()) {
+            try (BufferedReader r = Files.newBufferedReader(p, StandardCharsets.UTF_8)) {
+                r.lines().filter(l -> !l.isBlank()).forEach(lines::add);
+            }
+        }
+        return lines;
+    }
+
+    /** Deletes segments left by a previous run once their entries are in the database, and opens a fresh one. */
+    void reset() throws IOException {
+        synchronized (appendLock) {
+            for (Path p : segments()) {
+                if (current == null || !p.equals(current.path)) Files.delete(p);
+            }
+            if (current == null) {
+                current = newSegment();
+                live.add(current);
+            }
+        }
+    }
+
+    Segment append(String line) throws IOException {
+        byte[] bytes = (line + "\n").getBytes(StandardCharsets.UTF_8);
+        Segment segment;
+        long seq;
+        synchronized (appendLock) {
+            if (current.size >= maxSegmentBytes) rollOver();
+            ByteBuffer buf = ByteBuffer.wrap(bytes);
+            while (buf.hasRemaining()) current.channel.write(buf);
+            current.size += bytes.length;
+            current.outstanding++;
+            segment = current;
+            seq = ++writtenSeq;
+        }
+        awaitDurable(seq);
+        return segment;
+    }
+
+    /** Marks one entry of the segment as applied to the database. */
+    void release(Segment segment) {
+        synchronized (appendLock) {
+            segment.outstanding--;
+            dropReleased();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (appendLock) {
+            if (current == null) return;
+            current.channel.force(false);
+            current.sealed = true;
+            dropReleased();
+            for (Segment segment : live) segment.channel.close();
+            live.clear();
+            current = null;
+        }
+    }
+
+    private void awaitDurable(long seq) throws IOException {
+        if (durableSeq >= seq) return;
+        synchronized (syncLock) {
+            if (durableSeq >= seq) return;
+            long target;
+            FileChannel channel;
+            synchronized (appendLock) {
+                target = writtenSeq;
+                channel = current.channel;
+            }
+            try {
+                channel.force(false);
+            } catch (ClosedChannelException e) {
+                // rolled over and dropped meanwhile; the roll-over forced it
+            }
+            durableSeq = target;
+        }
+    }
+
+    private void rollOver() throws IOException {
+        current.channel.force(false);
+        current.sealed = true;
+        current = newSegment();
+        live.add(current);
+        dropReleased();
+    }
+
+    private void dropReleased() {
+        while (!live.isEmpty() && live.peekFirst().sealed && live.peekFirst().outstanding == 0) {
+            delete(live.pollFirst());
+        }
+    }
+
+    private Segment newSegment() throws IOException {
+        return new Segment(dir.resolve(PREFIX + String.format("%012d", nextSegmentNo++) + SUFFIX));
+    }
+
+    private static void delete(Segment segment) {
+        try {
+            segment.channel.close();
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            log.warn("could not delete journal segment {}", segment.path, e);
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long segmentNo(Path p) {
+        String name = p.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
@@ -0,0 +1,17 @@
+package com.mybanking.app.transaction.journal;
+
+import com.mybanking.app.ledger.entity.Posting;
+import com.mybanking.app.ledger.service.Postings;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/** A transfer as written to the {@code transactions} journal, outside of JPA. */
+public record TransferRow(UUID id, BigDecimal amount, BigDecimal fee, Instant occurredAt, UUID fromAccountId, UUID toAccountId) {
+
+    public List<Posting> postings() {
+        return Postings.transfer(id, fromAccountId, toAccountId, amount, fee, occurredAt);
+    }
+}
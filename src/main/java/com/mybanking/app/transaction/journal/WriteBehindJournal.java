@@ -0,0 +1,296 @@
+package com.mybanking.app.transaction.journal;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mybanking.app.common.error.AppException;
+import com.mybanking.app.common.error.ErrorCode;
+import com.mybanking.app.ledger.entity.Posting;
+import com.mybanking.app.ledger.service.PendingPostings;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional write-behind path for transfer journal rows ({@code app.tx.write-behind.enabled}). The
+ * locking transaction only appends the rows to a local spill file, fsync'd before the balance update
+ * commits, and inserts a one-row commit marker ({@code journal_commits}); after commit the rows are queued
+ * and inserted in batches by a single writer thread, which deletes the marker in the same transaction.
+ * Spilled entries are applied only if their marker exists, so an entry whose transaction rolled back or
+ * never committed is never replayed. Entries still in the spill file at startup are replayed before new
+ * work is accepted. A bounded number of entries may be pending at once; callers that cannot get a slot in
+ * time are turned away with 503.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+public class WriteBehindJournal {
+
+    record SpillRecord(UUID id, List<TransferRow> rows) {}
+
+    /** {@code verify}: the commit outcome was unknown, apply only if the marker shows it committed. */
+    private record Pending(UUID id, List<TransferRow> rows, SpillFile.Segment segment, Instant earliest, boolean verify) {}
+
+    private static final String INSERT_MARKER = "insert into journal_commits (entry_id, committed_at) values (?, ?)";
+    private static final String DELETE_MARKER = "delete from journal_commits where entry_id = ?";
+
+    private final boolean enabled;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate txTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final PendingPostings pendingPostings;
+    private final Path dir;
+    private final long segmentBytes;
+    private final int capacity;
+    private final int maxBatch;
+    private final long flushIntervalMs;
+    private final long acquireTimeoutMs;
+
+    private Semaphore slots;
+    private BlockingQueue<Pending> queue;
+    private SpillFile spill;
+    private Thread writer;
+    private volatile boolean running;
+
+    public WriteBehindJournal(@Value("${app.tx.write-behind.enabled:false}") boolean enabled,
+                              JdbcTemplate jdbc,
+                              TransactionTemplate txTemplate,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              PendingPostings pendingPostings,
+                              @Value("${app.tx.write-behind.dir:#{null}}") Path dir,
+                              @Value("${app.tx.write-behind.segment-bytes:67108864}") long segmentBytes,
+                              @Value("${app.tx.write-behind.capacity:10000}") int capacity,
+                              @Value("${app.tx.write-behind.max-batch:500}") int maxBatch,
+                              @Value("${app.tx.write-behind.flush-interval-ms:5}") long flushIntervalMs,
+                              @Value("${app.tx.write-behind.acquire-timeout-ms:200}") long acquireTimeoutMs) {
+        this.enabled = enabled;
+        this.jdbc = jdbc;
+        this.txTemplate = txTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.pendingPostings = pendingPostings;
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.capacity = capacity;
+        this.maxBatch = maxBatch;
+        this.flushIntervalMs = flushIntervalMs;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        if (!enabled) return;
+        if (dir == null) {
+            throw new IllegalStateException("app.tx.write-behind.dir must be set when the write-behind journal is enabled");
+        }
+        slots = new Semaphore(capacity);
+        queue = new ArrayBlockingQueue<>(capacity);
+        spill = new SpillFile(dir, segmentBytes);
+        replay();
+        spill.reset();
+
+        running = true;
+        writer = new Thread(this::runWriter, "tx-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+        Gauge.builder("bank.tx.journal.pending", queue, Collection::size).register(meterRegistry);
+        log.info("write-behind journal started dir={} capacity={}", dir, capacity);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Reserves a journal slot for the current transaction. Call before taking row locks so that a full
+     * journal turns callers away instead of holding locks while waiting.
+     */
+    public Ticket open() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Write-behind journal requires an active transaction");
+        }
+        try {
+            if (!slots.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new AppException(ErrorCode.SERVICE_BUSY, HttpStatus.SERVICE_UNAVAILABLE, "Journal is busy, please retry");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AppException(ErrorCode.SERVICE_BUSY, HttpStatus.SERVICE_UNAVAILABLE, "Journal is busy, please retry", e);
+        }
+        Ticket ticket = new Ticket();
+        TransactionSynchronizationManager.registerSynchronization(ticket);
+        return ticket;
+    }
+
+    public int pending() {
+        return queue == null ? 0 : queue.size();
+    }
+
+    /** Journal rows of one transaction; made durable and marked just before it commits and queued once it has. */
+    public final class Ticket implements TransactionSynchronization {
+
+        private final UUID id = UUID.randomUUID();
+        private final List<TransferRow> rows = new ArrayList<>();
+        private Instant earliest;
+        private SpillFile.Segment segment;
+
+        private Ticket() {}
+
+        public void record(TransferRow row) {
+            rows.add(row);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (rows.isEmpty()) return;
+            earliest = rows.stream().map(TransferRow::occurredAt).min(Comparator.naturalOrder()).orElseThrow();
+            pendingPostings.add(earliest);
+            try {
+                segment = spill.append(write(new SpillRecord(id, rows)));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write journal spill file", e);
+            }
+            jdbc.update(INSERT_MARKER, id, Timestamp.from(Instant.now()));
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (segment != null && status != STATUS_ROLLED_BACK) {
+                if (status == STATUS_UNKNOWN) log.warn("journal entry id={} has an unknown commit outcome; checking its marker", id);
+                queue.add(new Pending(id, List.copyOf(rows), segment, earliest, status == STATUS_UNKNOWN));
+                return;
+            }
+            if (segment != null) spill.release(segment);
+            if (earliest != null) pendingPostings.remove(earliest);
+            slots.release();
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException, IOException {
+        if (!enabled) return;
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        spill.close();
+    }
+
+    private void runWriter() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                flushWithRetry(batch);
+                for (Pending p : batch) {
+                    spill.release(p.segment());
+                    pendingPostings.remove(p.earliest());
+                }
+                slots.release(batch.size());
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void flushWithRetry(List<Pending> batch) throws InterruptedException {
+        for (long backoff = 50; ; backoff = Math.min(backoff * 2, 5_000)) {
+            try {
+                flush(batch);
+                return;
+            } catch (RuntimeException ex) {
+                log.error("journal flush failed size={} retryInMs={}", batch.size(), backoff, ex);
+                Thread.sleep(backoff);
+            }
+        }
+    }
+
+    void flush(List<Pending> batch) {
+        txTemplate.executeWithoutResult(status -> {
+            List<UUID> unverified = batch.stream().filter(Pending::verify).map(Pending::id).toList();
+            Set<UUID> committed = unverified.isEmpty() ? Set.of() : committedAmong(unverified);
+            Map<UUID, List<TransferRow>> entries = new LinkedHashMap<>();
+            for (Pending p : batch) {
+                if (!p.verify() || committed.contains(p.id())) entries.put(p.id(), p.rows());
+                else log.info("journal entry id={} did not commit; dropped", p.id());
+            }
+            apply(entries);
+        });
+        log.debug("journal flushed entries={}", batch.size());
+    }
+
+    private void replay() throws IOException {
+        Map<UUID, List<TransferRow>> entries = new LinkedHashMap<>();
+        for (String line : spill.readExisting()) {
+            try {
+                SpillRecord record = objectMapper.readValue(line, SpillRecord.class);
+                entries.put(record.id(), record.rows());
+            } catch (JsonProcessingException e) {
+                log.warn("skipping unreadable journal line (torn write?)");
+            }
+        }
+        if (entries.isEmpty()) return;
+
+        int spilled = entries.size();
+        entries.keySet().retainAll(committedAmong(List.copyOf(entries.keySet())));
+        txTemplate.executeWithoutResult(status -> apply(entries));
+        log.info("write-behind journal replayed spilled={} committed={} discarded={}",
+                spilled, entries.size(), spilled - entries.size());
+    }
+
+    /** Ids whose commit marker exists, i.e. whose locking transaction committed and whose rows are not yet inserted. */
+    private Set<UUID> committedAmong(List<UUID> ids) {
+        Set<UUID> committed = new HashSet<>();
+        for (int i = 0; i < ids.size(); i += maxBatch) {
+            var chunk = ids.subList(i, Math.min(ids.size(), i + maxBatch));
+            String marks = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            committed.addAll(jdbc.queryForList("select entry_id from journal_commits where entry_id in (" + marks + ")",
+                    UUID.class, chunk.toArray()));
+        }
+        return committed;
+    }
+
+    /** Inserts the entries' rows and deletes their markers; runs inside the caller's transaction. */
+    private void apply(Map<UUID, List<TransferRow>> entries) {
+        if (entries.isEmpty()) return;
+        List<TransferRow> transfers = new ArrayList<>();
+        List<Posting> postings = new ArrayList<>();
+        for (List<TransferRow> rows : entries.values()) {
+            for (TransferRow row : rows) {
+                transfers.add(row);
+                postings.addAll(row.postings());
+            }
+        }
+        JournalRows.insert(jdbc, transfers, postings);
+        jdbc.batchUpdate(DELETE_MARKER, entries.keySet().stream().map(id -> new Object[]{id}).toList());
+    }
+
+    private String write(SpillRecord record) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(record);
+    }
+}
@@ -1,10 +1,61 @@
 package com.mybanking.app.transaction.repository;
 
+import com.mybanking.app.transaction.dto.TransactionHistoryItem;
 import com.mybanking.app.transaction.entity.Transaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface TransactionRepository extends JpaRepository<Transaction, UUID> {
 
+    String HISTORY_SELECT = "select new com.mybanking.app.transaction.dto.TransactionHistoryItem(" +
+            "t.id, t.type, t.amount, t.fee, t.occurredAt, f.id, f.accountNumber, a.id, a.accountNumber) " +
+            "from Transaction t join t.fromAccount f join t.toAccount a ";
+
+    String KEYSET = "and t.occurredAt >= :from " +
+            "and (t.occurredAt < :beforeTs or (t.occurredAt = :beforeTs and t.id < :beforeId)) " +
+            "order by t.occurredAt desc, t.id desc";
+
+    String STATEMENT_RANGE = "and t.occurredAt >= :from and t.occurredAt < :to order by t.occurredAt, t.id";
+
+    @Query(HISTORY_SELECT + "where t.fromAccount.id = :accountId " + KEYSET)
+    List<TransactionHistoryItem> findOutgoingPage(@Param("accountId") UUID accountId,
+                                                  @Param("from") Instant from,
+                                                  @Param("beforeTs") Instant beforeTs,
+                                                  @Param("beforeId") UUID beforeId,
+                                                  Limit limit);
+
+    @Query(HISTORY_SELECT + "where t.toAccount.id = :accountId " + KEYSET)
+    List<TransactionHistoryItem> findIncomingPage(@Param("accountId") UUID accountId,
+                                                  @Param("from") Instant from,
+                                                  @Param("beforeTs") Instant beforeTs,
+                                                  @Param("beforeId") UUID beforeId,
+                                                  Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(HISTORY_SELECT + "where t.fromAccount.id = :accountId " + STATEMENT_RANGE)
+    Stream<TransactionHistoryItem> streamOutgoing(@Param("accountId") UUID accountId,
+                                                  @Param("from") Instant from,
+                                                  @Param("to") Instant to);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(HISTORY_SELECT + "where t.toAccount.id = :accountId " + STATEMENT_RANGE)
+    Stream<TransactionHistoryItem> streamIncoming(@Param("accountId") UUID accountId,
+                                                  @Param("from") Instant from,
+                                                  @Param("to") Instant to);
 }
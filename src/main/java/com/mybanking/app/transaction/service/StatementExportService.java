@@ -0,0 +1,140 @@
+package com.mybanking.app.transaction.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mybanking.app.account.repository.AccountRepository;
+import com.mybanking.app.common.error.AppException;
+import com.mybanking.app.common.util.StatementFormat;
+import com.mybanking.app.transaction.dto.TransactionHistoryItem;
+import com.mybanking.app.transaction.dto.TransactionHistoryResponse;
+import com.mybanking.app.transaction.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static com.mybanking.app.common.error.ErrorCode.*;
+
+/**
+ * Writes an account statement as gzip-compressed CSV or NDJSON while the rows are still being read.
+ * Rows arrive as DTO projections from two forward-only cursors (outgoing and incoming, both in
+ * (occurredAt, id) order) that are merged on the fly, so nothing is held in the persistence context
+ * and memory use does not grow with the statement.
+ */
+@Slf4j
+@Service
+public class StatementExportService {
+
+    private static final int FLUSH_EVERY = 1000;
+    private static final String CSV_HEADER = "id,occurredAt,direction,type,amount,fee,counterpartyAccountNumber";
+
+    private static final Comparator<TransactionHistoryItem> OLDEST_FIRST =
+            Comparator.comparing(TransactionHistoryItem::occurredAt)
+                    .thenComparing(TransactionHistoryItem::id, TransactionService.LOCK_ORDER);
+
+    private final TransactionRepository txRepo;
+    private final AccountRepository accountRepo;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTx;
+
+    public StatementExportService(TransactionRepository txRepo,
+                                  AccountRepository accountRepo,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager) {
+        this.txRepo = txRepo;
+        this.accountRepo = accountRepo;
+        this.objectMapper = objectMapper;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    /** Checks access up front; the returned body opens its own read-only transaction on the streaming thread. */
+    public StreamingResponseBody export(UUID accountId, UUID callerUserId, StatementFormat format, Instant from, Instant to) {
+        var account = accountRepo.findSnapshotById(accountId)
+                .orElseThrow(() -> AppException.notFound(ACCOUNT_NOT_FOUND, "Account not found"));
+        if (!account.ownerId().equals(callerUserId)) {
+            throw AppException.forbidden(ACCOUNT_FORBIDDEN, "Not owner of the account");
+        }
+        Instant lower = from != null ? from : Instant.EPOCH;
+        Instant upper = to != null ? to : TransactionHistoryService.END_OF_TIME;
+
+        return out -> readOnlyTx.executeWithoutResult(status -> {
+            try (Stream<TransactionHistoryItem> outgoing = txRepo.streamOutgoing(accountId, lower, upper);
+                 Stream<TransactionHistoryItem> incoming = txRepo.streamIncoming(accountId, lower, upper)) {
+                long rows = write(out, format, accountId, outgoing.iterator(), incoming.iterator());
+                log.info("statement exported accountId={} format={} rows={}", accountId, format, rows);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    long write(OutputStream out, StatementFormat format, UUID accountId,
+               Iterator<TransactionHistoryItem> outgoing, Iterator<TransactionHistoryItem> incoming) throws IOException {
+        // syncFlush so each flush reaches the client instead of waiting in the deflater
+        var gzip = new GZIPOutputStream(out, 8192, true);
+        var writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8));
+        if (format == StatementFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long rows = 0;
+        TransactionHistoryItem nextOut = outgoing.hasNext() ? outgoing.next() : null;
+        TransactionHistoryItem nextIn = incoming.hasNext() ? incoming.next() : null;
+        while (nextOut != null || nextIn != null) {
+            TransactionHistoryItem row;
+            if (nextIn == null || (nextOut != null && OLDEST_FIRST.compare(nextOut, nextIn) <= 0)) {
+                row = nextOut;
+                nextOut = outgoing.hasNext() ? outgoing.next() : null;
+            } else {
+                row = nextIn;
+                nextIn = incoming.hasNext() ? incoming.next() : null;
+            }
+
+            var item = TransactionHistoryResponse.Item.of(row, accountId);
+            if (format == StatementFormat.CSV) {
+                writeCsv(writer, item);
+            } else {
+                writer.write(objectMapper.writeValueAsString(item));
+            }
+            writer.write('\n');
+
+            if (++rows % FLUSH_EVERY == 1) writer.flush();
+        }
+        writer.flush();
+        gzip.finish();
+        return rows;
+    }
+
+    private static void writeCsv(Writer w, TransactionHistoryResponse.Item item) throws IOException {
+        w.write(item.id().toString());
+        w.write(',');
+        w.write(item.occurredAt().toString());
+        w.write(',');
+        w.write(item.direction().name());
+        w.write(',');
+        w.write(item.type().name());
+        w.write(',');
+        w.write(item.amount().toPlainString());
+        w.write(',');
+        if (item.fee() != null) w.write(item.fee().toPlainString());
+        w.write(',');
+        w.write(csvField(item.counterpartyAccountNumber()));
+    }
+
+    private static String csvField(String v) {
+        if (v == null) return "";
+        if (v.indexOf(',') < 0 && v.indexOf('"') < 0 && v.indexOf('\n') < 0) return v;
+        return '"' + v.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,112 @@
+package com.mybanking.app.transaction.service;
+
+import com.mybanking.app.account.repository.AccountRepository;
+import com.mybanking.app.common.error.AppException;
+import com.mybanking.app.common.util.TransactionDirection;
+import com.mybanking.app.transaction.dto.TransactionHistoryItem;
+import com.mybanking.app.transaction.dto.TransactionPage;
+import com.mybanking.app.transaction.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static com.mybanking.app.common.error.ErrorCode.*;
+
+/**
+ * Pages an account's transactions newest first. Pages continue from a cursor on (occurredAt, id) instead of
+ * an offset, so every page is an index range scan of at most {@code limit + 1} rows however deep it is.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionHistoryService {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    static final Instant END_OF_TIME = Instant.parse("9999-12-31T23:59:59Z");
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+
+    // Newest first, with ids compared the way the database compares uuid columns.
+    private static final Comparator<TransactionHistoryItem> NEWEST_FIRST =
+            Comparator.comparing(TransactionHistoryItem::occurredAt)
+                    .thenComparing(TransactionHistoryItem::id, TransactionService.LOCK_ORDER)
+                    .reversed();
+
+    private final TransactionRepository txRepo;
+    private final AccountRepository accountRepo;
+
+    @Transactional(readOnly = true)
+    public TransactionPage history(UUID accountId,
+                                   UUID callerUserId,
+                                   TransactionDirection direction,
+                                   Instant from,
+                                   Instant to,
+                                   String cursor,
+                                   Integer limit) {
+        var account = accountRepo.findSnapshotById(accountId)
+                .orElseThrow(() -> AppException.notFound(ACCOUNT_NOT_FOUND, "Account not found"));
+        if (!account.ownerId().equals(callerUserId)) {
+            throw AppException.forbidden(ACCOUNT_FORBIDDEN, "Not owner of the account");
+        }
+
+        int size = limit == null ? DEFAULT_LIMIT : limit;
+        if (size < 1 || size > MAX_LIMIT) {
+            throw AppException.badRequest(VALIDATION_ERROR, "limit must be between 1 and " + MAX_LIMIT);
+        }
+        Instant lower = from != null ? from : Instant.EPOCH;
+        Instant beforeTs = to != null ? to : END_OF_TIME;
+        UUID beforeId = MIN_ID;
+        if (cursor != null && !cursor.isBlank()) {
+            var position = decodeCursor(cursor);
+            beforeTs = position.occurredAt();
+            beforeId = position.id();
+        }
+
+        // One extra row tells whether another page exists without a count query.
+        Limit fetch = Limit.of(size + 1);
+        List<TransactionHistoryItem> rows = new ArrayList<>();
+        if (direction != TransactionDirection.IN) {
+            rows.addAll(txRepo.findOutgoingPage(accountId, lower, beforeTs, beforeId, fetch));
+        }
+        if (direction != TransactionDirection.OUT) {
+            rows.addAll(txRepo.findIncomingPage(accountId, lower, beforeTs, beforeId, fetch));
+        }
+        if (direction == null) rows.sort(NEWEST_FIRST);
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            nextCursor = encodeCursor(rows.get(size - 1));
+        }
+        log.debug("history accountId={} direction={} rows={} more={}", accountId, direction, rows.size(), nextCursor != null);
+        return new TransactionPage(List.copyOf(rows), nextCursor);
+    }
+
+    private record Position(Instant occurredAt, UUID id) {}
+
+    static String encodeCursor(TransactionHistoryItem last) {
+        String raw = last.occurredAt() + "|" + last.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Position decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            return new Position(Instant.parse(raw.substring(0, sep)), UUID.fromString(raw.substring(sep + 1)));
+        } catch (RuntimeException ex) {
+            throw AppException.badRequest(VALIDATION_ERROR, "Invalid cursor");
+        }
+    }
+}
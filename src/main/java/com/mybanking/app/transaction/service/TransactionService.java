@@ -1,33 +1,79 @@
 package com.mybanking.app.transaction.service;
 
+import com.mybanking.app.account.dto.AccountRow;
 import com.mybanking.app.account.entity.Account;
+import com.mybanking.app.account.entity.AccountSlot;
 import com.mybanking.app.account.repository.AccountRepository;
+import com.mybanking.app.account.service.AccountBalanceCache;
+import com.mybanking.app.account.service.HotAccountSlots;
 import com.mybanking.app.common.error.AppException;
+import com.mybanking.app.common.retry.RetryOnConflict;
+import com.mybanking.app.common.util.CardType;
+import com.mybanking.app.common.util.ConcurrencyMode;
 import com.mybanking.app.common.util.FeePolicy;
+import com.mybanking.app.common.util.Money;
 import com.mybanking.app.common.util.TransactionType;
+import com.mybanking.app.common.validation.Amounts;
+import com.mybanking.app.ledger.entity.Posting;
+import com.mybanking.app.ledger.service.LedgerService;
+import com.mybanking.app.ledger.service.Postings;
+import com.mybanking.app.transaction.dto.BulkTransferRequest;
+import com.mybanking.app.transaction.dto.BulkTransferResult;
 import com.mybanking.app.transaction.dto.TransferResult;
 import com.mybanking.app.transaction.entity.Transaction;
+import com.mybanking.app.transaction.journal.TransferRow;
+import com.mybanking.app.transaction.journal.WriteBehindJournal;
 import com.mybanking.app.transaction.repository.TransactionRepository;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.Instant;
-import java.util.UUID;
+import java.util.*;
 
 import static com.mybanking.app.common.error.ErrorCode.*;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class TransactionService {
 
+    // Same ordering the database applies to uuid columns, so locks are always taken low id first.
+    static final Comparator<UUID> LOCK_ORDER = (a, b) -> {
+        int c = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return c != 0 ? c : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    };
+
     private final TransactionRepository txRepo;
     private final AccountRepository accountRepo;
     private final FeePolicy feePolicy;
+    private final LedgerService ledgerService;
+    private final WriteBehindJournal writeBehind;
+    private final HotAccountSlots hotSlots;
+    private final AccountBalanceCache balanceCache;
+    private final ConcurrencyMode concurrencyMode;
+
+    public TransactionService(TransactionRepository txRepo,
+                              AccountRepository accountRepo,
+                              FeePolicy feePolicy,
+                              LedgerService ledgerService,
+                              WriteBehindJournal writeBehind,
+                              HotAccountSlots hotSlots,
+                              AccountBalanceCache balanceCache,
+                              @Value("${app.accounts.concurrency:PESSIMISTIC}") ConcurrencyMode concurrencyMode) {
+        this.txRepo = txRepo;
+        this.accountRepo = accountRepo;
+        this.feePolicy = feePolicy;
+        this.ledgerService = ledgerService;
+        this.writeBehind = writeBehind;
+        this.hotSlots = hotSlots;
+        this.balanceCache = balanceCache;
+        this.concurrencyMode = concurrencyMode;
+    }
 
+    @RetryOnConflict
     @Transactional
     public TransferResult transfer(UUID fromAccountId,
                                    String toAccountNumber,
@@ -36,63 +82,247 @@ public class TransactionService {
         log.info("transfer.start from={} to={} amt={} req={}",
                 shortId(fromAccountId), toAccountNumber, safeAmt(amount), shortId(requesterId));
 
-        var toAccount = accountRepo.findByAccountNumber(toAccountNumber)
-                .orElseThrow(() -> AppException.notFound(ACCOUNT_NOT_FOUND, "Destination account not found"));
-
-        if (fromAccountId == null || toAccount.getId() == null) {
+        if (fromAccountId == null || toAccountNumber == null) {
             throw AppException.badRequest(VALIDATION_ERROR, "Account ids are required");
         }
-        if (fromAccountId.equals(toAccount.getId())) {
+        Money value = Amounts.require(amount);
+
+        var ticket = writeBehind.isEnabled() ? writeBehind.open() : null;
+        boolean optimistic = concurrencyMode == ConcurrencyMode.OPTIMISTIC;
+        AccountRow from = null;
+        AccountRow to = null;
+        // one round trip reads (and, unless optimistic, locks in id order) both rows
+        for (AccountRow row : optimistic
+                ? accountRepo.findRows(fromAccountId, toAccountNumber)
+                : accountRepo.findRowsForUpdate(fromAccountId, toAccountNumber)) {
+            if (row.id().equals(fromAccountId)) from = row;
+            if (row.accountNumber().equals(toAccountNumber)) to = row;
+        }
+        if (to == null && !optimistic) {
+            // hot destinations are not locked; they are credited through a slot
+            to = accountRepo.findRowByAccountNumber(toAccountNumber).filter(r -> r.hotSlots() > 0).orElse(null);
+        }
+        if (to == null) {
+            throw AppException.notFound(ACCOUNT_NOT_FOUND, "Destination account not found");
+        }
+        if (fromAccountId.equals(to.id())) {
             throw AppException.conflict(SAME_ACCOUNT, "Source and destination accounts cannot be the same");
         }
-        validateAmount(amount);
-
-        Account from = accountRepo.findByIdForUpdate(fromAccountId)
-                .orElseThrow(() -> AppException.notFound(ACCOUNT_NOT_FOUND, "Source account not found"));
-
-        Account to = accountRepo.findByIdForUpdate(toAccount.getId())
-                .orElseThrow(() -> AppException.notFound(ACCOUNT_NOT_FOUND, "Destination account not found"));
-
-        ensureOwnerOrThrow(from, requesterId);
-
-        BigDecimal fee = feePolicy.feeFor(FeePolicy.Operation.TRANSFER, from, amount);
+        if (from == null) {
+            throw AppException.notFound(ACCOUNT_NOT_FOUND, "Source account not found");
+        }
+        ensureOwnerOrThrow(from.ownerId(), requesterId);
 
-        from.withdrawWithFeeOrThrow(amount, fee,
-                () -> AppException.conflict(INSUFFICIENT_BALANCE, "Insufficient balance"));
+        Money fee = feePolicy.feeFor(FeePolicy.Operation.TRANSFER, from.cardType(), value);
+        Money total = value.plus(fee);
 
-        to.setBalance(to.getBalance().add(amount));
+        // slot locks follow (account id, slot) order: a hot destination sorting first is credited before the sweep
+        boolean creditFirst = to.hotSlots() > 0 && from.hotSlots() > 0 && LOCK_ORDER.compare(to.id(), from.id()) < 0;
+        if (creditFirst) {
+            hotSlots.credit(to.id(), to.hotSlots(), value);
+        }
+        Money fromBalance = from.hotSlots() > 0
+                ? hotSlots.sweep(from.id(), from.hotSlots(), from.balance(), total)
+                : from.balance();
+        if (fromBalance.isLessThan(total)) {
+            throw AppException.conflict(INSUFFICIENT_BALANCE, "Insufficient balance");
+        }
+        Money fromNewBalance = writeBalance(from, fromBalance.minus(total));
+        balanceCache.evictAfterCommit(from.ownerId(), from.id(), from.version() + 1);
 
-        accountRepo.save(from);
-        accountRepo.save(to);
+        Money toNewBalance;
+        if (to.hotSlots() > 0) {
+            // the row version does not move for a slot credit
+            balanceCache.evictAfterCommit(to.ownerId(), to.id(), (Long) null);
+            if (!creditFirst) {
+                hotSlots.credit(to.id(), to.hotSlots(), value);
+            }
+            toNewBalance = hotSlots.consolidatedBalance(to.id(), to.hotSlots(), to.balance());
+        } else {
+            toNewBalance = writeBalance(to, to.balance().plus(value));
+            balanceCache.evictAfterCommit(to.ownerId(), to.id(), to.version() + 1);
+        }
+        if (from.hotSlots() > 0) {
+            fromNewBalance = hotSlots.consolidatedBalance(from.id(), from.hotSlots(), fromNewBalance);
+        }
 
+        Instant now = Instant.now();
         Transaction tx = Transaction.builder()
                 .type(TransactionType.TRANSFER)
-                .amount(amount)
-                .fee(fee)
-                .occurredAt(Instant.now())
-                .fromAccount(from)
-                .toAccount(to)
+                .amount(value.toBigDecimal())
+                .fee(fee.toBigDecimal())
+                .occurredAt(now)
+                .fromAccount(accountRepo.getReferenceById(from.id()))
+                .toAccount(accountRepo.getReferenceById(to.id()))
                 .build();
-        txRepo.save(tx);
+        if (ticket != null) {
+            ticket.record(rowOf(tx));
+        } else {
+            txRepo.save(tx);
+            ledgerService.append(Postings.transfer(tx.getId(), from.id(), to.id(), tx.getAmount(), tx.getFee(), now));
+        }
 
         return new TransferResult(
-                from.getId(), to.getId(),
-                amount, fee,
-                from.getBalance(), to.getBalance()
+                from.id(), to.id(),
+                tx.getAmount(), tx.getFee(),
+                fromNewBalance.toBigDecimal(), toNewBalance.toBigDecimal()
         );
     }
 
-    private static void validateAmount(BigDecimal v) {
-        if (v == null || v.signum() <= 0) {
-            throw AppException.badRequest(VALIDATION_ERROR, "Amount must be > 0");
+    @RetryOnConflict
+    @Transactional
+    public BulkTransferResult bulkTransfer(UUID fromAccountId,
+                                           List<BulkTransferRequest.Item> items,
+                                           UUID requesterId) {
+        if (fromAccountId == null || items == null || items.isEmpty()) {
+            throw AppException.badRequest(VALIDATION_ERROR, "Source account and at least one item are required");
+        }
+        log.info("bulkTransfer.start from={} items={} req={}", shortId(fromAccountId), items.size(), shortId(requesterId));
+        boolean optimistic = concurrencyMode == ConcurrencyMode.OPTIMISTIC;
+        if (!optimistic) {
+            // owner first, so a foreign caller never gets to lock the destinations
+            ensureOwnerOrThrow(accountRepo.findOwnerIdById(fromAccountId)
+                    .orElseThrow(() -> AppException.notFound(ACCOUNT_NOT_FOUND, "Source account not found")), requesterId);
+        }
+
+        Set<String> numbers = new HashSet<>();
+        for (var item : items) {
+            if (item.toAccountNumber() != null) numbers.add(item.toAccountNumber());
         }
+
+        var ticket = writeBehind.isEnabled() ? writeBehind.open() : null;
+        Map<String, Account> byNumber = new HashMap<>();
+        Account from = null;
+        var accounts = optimistic
+                ? accountRepo.findAllByIdOrAccountNumberIn(fromAccountId, numbers)
+                : accountRepo.findAllByIdOrAccountNumberInForUpdate(fromAccountId, numbers);
+        for (Account a : accounts) {
+            if (a.getId().equals(fromAccountId)) from = a;
+            byNumber.put(a.getAccountNumber(), a);
+        }
+        Set<String> missing = new HashSet<>(numbers);
+        missing.removeAll(byNumber.keySet());
+        if (!optimistic && !missing.isEmpty()) {
+            // hot destinations are left out of the locking query and credited through their slots
+            for (Account a : accountRepo.findAllByAccountNumberIn(missing)) {
+                if (a.getHotSlots() > 0) byNumber.put(a.getAccountNumber(), a);
+            }
+        }
+        if (from == null) {
+            throw AppException.notFound(ACCOUNT_NOT_FOUND, "Source account not found");
+        }
+        ensureOwnerOrThrow(from, requesterId);
+
+        // slot locks follow (account id, slot) order: credit slots of hot destinations sorting before a hot
+        // source are locked before the source's slots are swept, the others after
+        Map<Account, AccountSlot> earlyCreditSlots = new HashMap<>();
+        if (from.getHotSlots() > 0) {
+            UUID sourceId = from.getId();
+            for (Account a : byNumber.values().stream()
+                    .filter(a -> a.getHotSlots() > 0 && LOCK_ORDER.compare(a.getId(), sourceId) < 0)
+                    .sorted(Comparator.comparing(Account::getId, LOCK_ORDER))
+                    .toList()) {
+                earlyCreditSlots.put(a, hotSlots.lockCreditSlot(a.getId(), a.getHotSlots()));
+            }
+        }
+
+        Instant now = Instant.now();
+        CardType fromCardType = from.getCardType();
+        Map<Account, Money> hotCredits = new TreeMap<>(Comparator.comparing(Account::getId, LOCK_ORDER));
+        List<Transaction> journal = new ArrayList<>(items.size());
+        List<BulkTransferResult.Item> results = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            var item = items.get(i);
+            try {
+                Money value = Amounts.require(item.amount());
+                Account to = byNumber.get(item.toAccountNumber());
+                if (to == null) {
+                    throw AppException.notFound(ACCOUNT_NOT_FOUND, "Destination account not found");
+                }
+                if (to == from) {
+                    throw AppException.conflict(SAME_ACCOUNT, "Source and destination accounts cannot be the same");
+                }
+
+                Money fee = feePolicy.feeFor(FeePolicy.Operation.TRANSFER, fromCardType, value);
+                hotSlots.coverDebit(from, value.plus(fee));
+                from.withdrawWithFeeOrThrow(value, fee,
+                        () -> AppException.conflict(INSUFFICIENT_BALANCE, "Insufficient balance"));
+                if (to.getHotSlots() > 0) {
+                    hotCredits.merge(to, value, Money::plus);
+                } else {
+                    to.depositCore(value);
+                }
+
+                journal.add(Transaction.builder()
+                        .type(TransactionType.TRANSFER)
+                        .amount(value.toBigDecimal())
+                        .fee(fee.toBigDecimal())
+                        .occurredAt(now)
+                        .fromAccount(from)
+                        .toAccount(to)
+                        .build());
+                results.add(new BulkTransferResult.Item(i, item.toAccountNumber(), to.getId(),
+                        value.toBigDecimal(), fee.toBigDecimal(), null, null));
+            } catch (AppException ex) {
+                results.add(new BulkTransferResult.Item(i, item.toAccountNumber(), null,
+                        null, null, ex.getErrorCode().name(), ex.getMessage()));
+            }
+        }
+
+        hotCredits.forEach((to, value) -> {
+            AccountSlot slot = earlyCreditSlots.get(to);
+            if (slot != null) hotSlots.credit(slot, value);
+            else hotSlots.credit(to, value);
+        });
+        // entity versions are read after the commit flush has bumped them
+        Set<Account> touched = new HashSet<>();
+        touched.add(from);
+        for (Transaction tx : journal) touched.add(tx.getToAccount());
+        for (Account a : touched) balanceCache.evictAfterCommit(a.ownerId(), a.getId(), a::getVersion);
+
+        if (ticket != null) {
+            journal.forEach(tx -> ticket.record(rowOf(tx)));
+        } else {
+            txRepo.saveAll(journal);
+            List<Posting> postings = new ArrayList<>(journal.size() * 4);
+            for (Transaction tx : journal) {
+                postings.addAll(Postings.transfer(tx.getId(), from.getId(), tx.getToAccount().getId(),
+                        tx.getAmount(), tx.getFee(), now));
+            }
+            ledgerService.append(postings);
+        }
+
+        int succeeded = journal.size();
+        log.info("bulkTransfer.done from={} ok={} failed={}", shortId(fromAccountId), succeeded, items.size() - succeeded);
+        return new BulkTransferResult(from.getId(), balanceOf(from), succeeded, items.size() - succeeded, results);
+    }
+
+    private BigDecimal balanceOf(Account account) {
+        return (account.getHotSlots() > 0 ? hotSlots.consolidatedBalance(account) : account.getBalance()).toBigDecimal();
+    }
+
+    /** Versioned write of a balance read through {@link AccountRow}; a lost race surfaces as a retryable conflict. */
+    private Money writeBalance(AccountRow row, Money balance) {
+        if (accountRepo.updateBalance(row.id(), balance, row.version()) == 0) {
+            throw new ObjectOptimisticLockingFailureException(Account.class, row.id());
+        }
+        return balance;
+    }
+
+    private static TransferRow rowOf(Transaction tx) {
+        return new TransferRow(UUID.randomUUID(), tx.getAmount(), tx.getFee(), tx.getOccurredAt(),
+                tx.getFromAccount().getId(), tx.getToAccount().getId());
     }
 
     private static void ensureOwnerOrThrow(Account acc, UUID requesterId) {
-        if (acc == null || acc.getUser() == null || acc.getUser().getId() == null) {
+        ensureOwnerOrThrow(acc == null ? null : acc.ownerId(), requesterId);
+    }
+
+    private static void ensureOwnerOrThrow(UUID ownerId, UUID requesterId) {
+        if (ownerId == null) {
             throw AppException.notFound(ACCOUNT_NOT_FOUND, "Account has no owner");
         }
-        if (!acc.getUser().getId().equals(requesterId)) {
+        if (!ownerId.equals(requesterId)) {
             throw AppException.forbidden(ACCOUNT_FORBIDDEN, "You are not allowed to operate on this account");
         }
     }
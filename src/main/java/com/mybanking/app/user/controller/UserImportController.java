@@ -0,0 +1,35 @@
+package com.mybanking.app.user.controller;
+
+import com.mybanking.app.user.dto.ImportFormat;
+import com.mybanking.app.user.service.UserImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+
+import static com.mybanking.app.common.security.SecurityUtils.requireAdmin;
+
+@RestController
+@RequestMapping("/api/users")
+@RequiredArgsConstructor
+@Slf4j
+public class UserImportController {
+
+    private final UserImportService importService;
+
+    /** Streams the request body in and an NDJSON report of errors, progress and totals out. */
+    @PostMapping("/admin/import")
+    public ResponseEntity<StreamingResponseBody> importUsers(@RequestParam(defaultValue = "CSV") ImportFormat format,
+                                                             HttpServletRequest request) throws IOException {
+        requireAdmin();
+        log.info("admin user import start format={}", format);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(importService.importUsers(request.getInputStream(), format));
+    }
+}
@@ -0,0 +1,26 @@
+package com.mybanking.app.user.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/** One line of the NDJSON import report: a rejected row (or a failure of the whole import), progress after a chunk, or the final totals. */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ImportEvent(String event, Long line, String code, String message,
+                          Long processed, Long imported, Long failed) {
+
+    public static ImportEvent error(long line, String code, String message) {
+        return new ImportEvent("error", line, code, message, null, null, null);
+    }
+
+    /** An error not tied to one input line. */
+    public static ImportEvent error(String code, String message) {
+        return new ImportEvent("error", null, code, message, null, null, null);
+    }
+
+    public static ImportEvent progress(long processed, long imported, long failed) {
+        return new ImportEvent("progress", null, null, null, processed, imported, failed);
+    }
+
+    public static ImportEvent done(long processed, long imported, long failed) {
+        return new ImportEvent("done", null, null, null, processed, imported, failed);
+    }
+}
@@ -0,0 +1,3 @@
+package com.mybanking.app.user.dto;
+
+public enum ImportFormat { CSV, NDJSON }
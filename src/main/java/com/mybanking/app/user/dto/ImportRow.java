@@ -0,0 +1,26 @@
+package com.mybanking.app.user.dto;
+
+import com.mybanking.app.common.util.CardType;
+import jakarta.validation.constraints.*;
+
+import java.math.BigDecimal;
+
+/**
+ * One onboarding record: a user with one account and, optionally, its card. CSV columns carry the same names
+ * in any order; {@code balance} defaults to zero and becomes the account's opening posting.
+ */
+public record ImportRow(
+        @NotBlank @Size(max = 255) String name,
+        @NotBlank @Size(max = 255) String surname,
+        @NotBlank @Email @Size(max = 255) String email,
+        @NotBlank @Size(min = 8, max = 72) String password,
+        @NotBlank @Size(max = 32) String accountNumber,
+        @DecimalMin("0.00") @Digits(integer = 16, fraction = 2) BigDecimal balance,
+        CardType cardType,
+        @Size(max = 255) String cardNumber
+) {
+    @AssertTrue(message = "cardType and cardNumber must be given together")
+    public boolean isCardComplete() {
+        return (cardType == null) == (cardNumber == null || cardNumber.isBlank());
+    }
+}
@@ -0,0 +1,22 @@
+package com.mybanking.app.user.dto;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/** What a login needs from a user: the id, the stored password hash and the roles. */
+public record LoginCredentials(UUID id, String passwordHash, Set<Role> roles) {
+
+    /** Folds the rows of one user into its credentials; empty when there are no rows. */
+    public static Optional<LoginCredentials> of(List<LoginRow> rows) {
+        if (rows.isEmpty()) return Optional.empty();
+        Set<Role> roles = EnumSet.noneOf(Role.class);
+        for (LoginRow row : rows) {
+            if (row.role() != null) roles.add(row.role());
+        }
+        LoginRow first = rows.get(0);
+        return Optional.of(new LoginCredentials(first.id(), first.passwordHash(), Set.copyOf(roles)));
+    }
+}
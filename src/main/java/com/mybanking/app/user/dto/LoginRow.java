@@ -0,0 +1,6 @@
+package com.mybanking.app.user.dto;
+
+import java.util.UUID;
+
+/** One (user, role) row of the login lookup; {@code role} is null for a user without roles. */
+public record LoginRow(UUID id, String passwordHash, Role role) {}
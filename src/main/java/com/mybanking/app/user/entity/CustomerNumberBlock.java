@@ -0,0 +1,48 @@
+package com.mybanking.app.user.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Next unreserved customer-number sequence value of one calendar year. The id is assigned, so the entity is
+ * {@link Persistable}: saving a new block must INSERT (and fail on a concurrent duplicate) rather than merge
+ * over a row another node just created.
+ */
+@Entity
+@Table(name = "customer_number_blocks")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerNumberBlock implements Persistable<Integer> {
+
+    @Id
+    private Integer issueYear;
+
+    @Column(nullable = false)
+    private long nextValue;
+
+    @Transient
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean fresh = true;
+
+    @Override
+    public Integer getId() {
+        return issueYear;
+    }
+
+    @Override
+    public boolean isNew() {
+        return fresh;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        fresh = false;
+    }
+}
@@ -52,5 +52,15 @@ public class User {
     @Column(name = "role", nullable = false, length = 20)
     private Set<Role> roles = new HashSet<>();
 
+    /** Emails are stored trimmed and lower-cased, so the unique index on {@code email} serves case-insensitive lookups. */
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void normalize() {
+        email = normalizeEmail(email);
+    }
 }
 
@@ -0,0 +1,20 @@
+package com.mybanking.app.user.repository;
+
+import com.mybanking.app.user.entity.CustomerNumberBlock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface CustomerNumberBlockRepository extends JpaRepository<CustomerNumberBlock, Integer> {
+
+    /** Reserves {@code size} values for {@code year}; the row stays locked until the transaction ends. 0 if there is no row yet. */
+    @Modifying
+    @Query("update CustomerNumberBlock b set b.nextValue = b.nextValue + :size where b.issueYear = :year")
+    int advance(@Param("year") int year, @Param("size") long size);
+
+    @Query("select b.nextValue from CustomerNumberBlock b where b.issueYear = :year")
+    Optional<Long> findNextValue(@Param("year") int year);
+}
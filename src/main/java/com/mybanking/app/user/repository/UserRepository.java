@@ -1,8 +1,16 @@
 package com.mybanking.app.user.repository;
 
+import com.mybanking.app.user.dto.LoginCredentials;
+import com.mybanking.app.user.dto.LoginRow;
 import com.mybanking.app.user.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -13,4 +21,25 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByCustomerNumber(String customerNumber);
 
     boolean existsByCustomerNumber(String customerNumber);
-}
\ No newline at end of file
+
+    @Query("select max(u.customerNumber) from User u where u.customerNumber like concat(:prefix, '%')")
+    Optional<String> findMaxCustomerNumberStartingWith(@Param("prefix") String prefix);
+
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /** Id, hash and roles of the user with this (normalized) email, in one statement and without loading the entity. */
+    @Query("select new com.mybanking.app.user.dto.LoginRow(u.id, u.password, r) " +
+            "from User u left join u.roles r where u.email = :email")
+    List<LoginRow> findLoginRowsByEmail(@Param("email") String email);
+
+    default Optional<LoginCredentials> findLoginCredentials(String email) {
+        return LoginCredentials.of(findLoginRowsByEmail(email));
+    }
+
+    /** Replaces the password hash unless it changed since it was read; returns 0 in that case. */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update User u set u.password = :hash, u.version = u.version + 1 where u.id = :id and u.password = :previous")
+    int updatePasswordIfUnchanged(@Param("id") UUID id, @Param("previous") String previous, @Param("hash") String hash);
+}
@@ -0,0 +1,142 @@
+package com.mybanking.app.user.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mybanking.app.common.util.CardType;
+import com.mybanking.app.user.dto.ImportFormat;
+import com.mybanking.app.user.dto.ImportRow;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Reads import records one line at a time. CSV needs a header row naming the {@link ImportRow} columns and
+ * supports double-quoted fields (no line breaks inside them); NDJSON has one JSON object per line. Blank
+ * lines are skipped. A line that cannot be parsed comes back with an error instead of a row; only an unusable
+ * CSV header stops the reader, with {@link BadHeaderException}.
+ */
+final class ImportRowReader {
+
+    record Parsed(long line, ImportRow row, String error) {}
+
+    static final class BadHeaderException extends RuntimeException {
+        BadHeaderException(String message) {
+            super(message);
+        }
+    }
+
+    private static final List<String> COLUMNS =
+            List.of("name", "surname", "email", "password", "accountNumber", "balance", "cardType", "cardNumber");
+
+    private final BufferedReader reader;
+    private final ImportFormat format;
+    private final ObjectMapper objectMapper;
+    private Map<String, Integer> header;
+    private long line;
+
+    ImportRowReader(InputStream in, ImportFormat format, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /** The next record, or null at the end of the input. */
+    Parsed next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            if (text == null) return null;
+            line++;
+        } while (text.isBlank());
+
+        if (format == ImportFormat.NDJSON) {
+            try {
+                JsonNode node = objectMapper.readTree(text);
+                if (!node.isObject()) return new Parsed(line, null, "Expected a JSON object");
+                return new Parsed(line, objectMapper.treeToValue(node, ImportRow.class), null);
+            } catch (JsonProcessingException e) {
+                return new Parsed(line, null, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+        if (header == null) {
+            String error = readHeader(text);
+            if (error != null) throw new BadHeaderException(error);
+            return next();
+        }
+        return parseCsv(text);
+    }
+
+    private String readHeader(String text) {
+        List<String> names = split(text);
+        if (names == null) return "Malformed CSV header";
+        header = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) header.put(names.get(i).trim(), i);
+        List<String> missing = COLUMNS.stream()
+                .filter(c -> !header.containsKey(c) && !c.equals("balance") && !c.startsWith("card"))
+                .toList();
+        return missing.isEmpty() ? null : "CSV header is missing " + String.join(", ", missing);
+    }
+
+    private Parsed parseCsv(String text) {
+        List<String> fields = split(text);
+        if (fields == null) return new Parsed(line, null, "Unterminated quoted field");
+        try {
+            String balance = field(fields, "balance");
+            String cardType = field(fields, "cardType");
+            return new Parsed(line, new ImportRow(
+                    field(fields, "name"),
+                    field(fields, "surname"),
+                    field(fields, "email"),
+                    field(fields, "password"),
+                    field(fields, "accountNumber"),
+                    balance == null ? null : new BigDecimal(balance),
+                    cardType == null ? null : CardType.valueOf(cardType.toUpperCase(Locale.ROOT)),
+                    field(fields, "cardNumber")), null);
+        } catch (IllegalArgumentException e) {
+            return new Parsed(line, null, "Invalid value: " + e.getMessage());
+        }
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer i = header.get(column);
+        if (i == null || i >= fields.size()) return null;
+        String v = fields.get(i).trim();
+        return v.isEmpty() ? null : v;
+    }
+
+    /** Splits one CSV line; null if a quoted field is not closed. */
+    static List<String> split(String text) {
+        List<String> out = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    cur.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cur.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                out.add(cur.toString());
+                cur.setLength(0);
+            } else {
+                cur.append(c);
+            }
+        }
+        if (quoted) return null;
+        out.add(cur.toString());
+        return out;
+    }
+}
@@ -0,0 +1,52 @@
+package com.mybanking.app.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Short-lived set of emails that had no user, so repeated logins with them skip the database. Registering
+ * an email removes it; a lookup that started before a registration does not put its stale miss back.
+ * Metrics are tagged {@code cache=auth.unknown-emails}.
+ */
+@Component
+public class UnknownEmailCache {
+
+    private final Cache<String, Boolean> unknown;
+    private final AtomicLong generation = new AtomicLong();
+
+    public UnknownEmailCache(MeterRegistry meterRegistry,
+                             @Value("${app.auth.unknown-email.max-size:10000}") long maxSize,
+                             @Value("${app.auth.unknown-email.ttl:PT30S}") Duration ttl) {
+        this.unknown = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, unknown, "auth.unknown-emails");
+    }
+
+    public boolean isUnknown(String email) {
+        return unknown.getIfPresent(email) != null;
+    }
+
+    /** Token to pass to {@link #markUnknown}; read it before the lookup that found nothing. */
+    public long generation() {
+        return generation.get();
+    }
+
+    public void markUnknown(String email, long generationBeforeLookup) {
+        unknown.asMap().compute(email, (k, v) -> generation.get() == generationBeforeLookup ? Boolean.TRUE : v);
+    }
+
+    public void forget(String email) {
+        generation.incrementAndGet();
+        unknown.invalidate(email);
+    }
+}
@@ -0,0 +1,320 @@
+package com.mybanking.app.user.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mybanking.app.account.entity.Account;
+import com.mybanking.app.account.repository.AccountRepository;
+import com.mybanking.app.card.entity.Card;
+import com.mybanking.app.card.repository.CardRepository;
+import com.mybanking.app.common.error.AppException;
+import com.mybanking.app.common.util.CustomerNumberGenerator;
+import com.mybanking.app.ledger.entity.Posting;
+import com.mybanking.app.ledger.service.LedgerService;
+import com.mybanking.app.ledger.service.Postings;
+import com.mybanking.app.user.dto.ImportEvent;
+import com.mybanking.app.user.dto.ImportFormat;
+import com.mybanking.app.user.dto.ImportRow;
+import com.mybanking.app.user.dto.Role;
+import com.mybanking.app.user.entity.User;
+import com.mybanking.app.user.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static com.mybanking.app.common.error.ErrorCode.ALREADY_EXISTS;
+import static com.mybanking.app.common.error.ErrorCode.VALIDATION_ERROR;
+
+/**
+ * Onboards users with one account (and optional card) each from a CSV or NDJSON stream. The input is read
+ * in chunks of {@code batch-size} rows; while one chunk is inserted, the passwords of the next are hashed
+ * on a ForkJoin pool of {@code hash-parallelism} threads. Each chunk is written in one transaction with
+ * {@code saveAll}, so the JDBC batching and insert ordering settings apply. Rejected rows and per-chunk
+ * progress go to the NDJSON report as soon as they are known; nothing outlives its chunk, so memory does
+ * not grow with the file. The report always ends with a {@code done} line, also when the import stops early.
+ */
+@Slf4j
+@Service
+public class UserImportService {
+
+    private record Pending(long line, ImportRow row, String email) {}
+
+    private record Hashed(Pending pending, String passwordHash) {}
+
+    private record Written(List<Hashed> inserted, List<Pending> taken) {}
+
+    private static final String INTERNAL_ERROR = "INTERNAL_ERROR";
+
+    private final UserRepository userRepo;
+    private final AccountRepository accountRepo;
+    private final CardRepository cardRepo;
+    private final LedgerService ledgerService;
+    private final PasswordEncoder passwordEncoder;
+    private final CustomerNumberGenerator customerNumbers;
+    private final UnknownEmailCache unknownEmails;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate tx;
+    private final ForkJoinPool hashPool;
+    private final int batchSize;
+
+    public UserImportService(UserRepository userRepo,
+                             AccountRepository accountRepo,
+                             CardRepository cardRepo,
+                             LedgerService ledgerService,
+                             PasswordEncoder passwordEncoder,
+                             CustomerNumberGenerator customerNumbers,
+                             UnknownEmailCache unknownEmails,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.import.batch-size:500}") int batchSize,
+                             @Value("${app.import.hash-parallelism:0}") int hashParallelism) {
+        this.userRepo = userRepo;
+        this.accountRepo = accountRepo;
+        this.cardRepo = cardRepo;
+        this.ledgerService = ledgerService;
+        this.passwordEncoder = passwordEncoder;
+        this.customerNumbers = customerNumbers;
+        this.unknownEmails = unknownEmails;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.hashPool = new ForkJoinPool(hashParallelism > 0 ? hashParallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /** The returned body reads {@code in} and writes the report on the streaming thread. */
+    public StreamingResponseBody importUsers(InputStream in, ImportFormat format) {
+        return out -> run(in, format, out);
+    }
+
+    ImportEvent run(InputStream in, ImportFormat format, OutputStream out) throws IOException {
+        var report = new Report(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+        var reader = new ImportRowReader(in, format, objectMapper);
+        CompletableFuture<List<Hashed>> previous = null;
+        try {
+            while (true) {
+                List<Pending> chunk = readChunk(reader, report);
+                CompletableFuture<List<Hashed>> current = chunk.isEmpty() ? null : hash(chunk);
+                if (previous != null) {
+                    insert(previous.join(), report);
+                    report.progress();
+                }
+                if (current == null) break;
+                previous = current;
+            }
+        } catch (ImportRowReader.BadHeaderException badHeader) {
+            report.error(1, VALIDATION_ERROR.name(), badHeader.getMessage());
+        } catch (UncheckedIOException streamBroken) {
+            throw streamBroken; // the report cannot be written any more
+        } catch (RuntimeException ex) {
+            log.error("user import stopped format={} processed={}", format, report.processed, ex);
+            report.failure(INTERNAL_ERROR, "Import stopped: " + ex.getMessage());
+        }
+        ImportEvent done = report.done();
+        log.info("user import finished format={} processed={} imported={} failed={}",
+                format, done.processed(), done.imported(), done.failed());
+        return done;
+    }
+
+    /** Up to {@code batchSize} valid rows, reporting invalid ones on the way; empty only at the end of the input. */
+    private List<Pending> readChunk(ImportRowReader reader, Report report) throws IOException {
+        List<Pending> chunk = new ArrayList<>(batchSize);
+        Set<String> emails = new HashSet<>();
+        Set<String> accountNumbers = new HashSet<>();
+        Set<String> cardNumbers = new HashSet<>();
+        ImportRowReader.Parsed parsed;
+        while (chunk.size() < batchSize && (parsed = reader.next()) != null) {
+            report.processed++;
+            if (parsed.error() != null) {
+                report.error(parsed.line(), VALIDATION_ERROR.name(), parsed.error());
+                continue;
+            }
+            ImportRow row = parsed.row();
+            Set<ConstraintViolation<ImportRow>> violations = validator.validate(row);
+            if (!violations.isEmpty()) {
+                report.error(parsed.line(), VALIDATION_ERROR.name(), violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                continue;
+            }
+            String email = User.normalizeEmail(row.email());
+            if (!emails.add(email) || !accountNumbers.add(row.accountNumber())
+                    || (row.cardNumber() != null && !cardNumbers.add(row.cardNumber()))) {
+                report.error(parsed.line(), ALREADY_EXISTS.name(), "Duplicate email, account or card number in the file");
+                continue;
+            }
+            chunk.add(new Pending(parsed.line(), row, email));
+        }
+        return chunk;
+    }
+
+    private CompletableFuture<List<Hashed>> hash(List<Pending> chunk) {
+        return CompletableFuture.supplyAsync(() -> chunk.parallelStream()
+                .map(p -> new Hashed(p, passwordEncoder.encode(p.row().password())))
+                .toList(), hashPool);
+    }
+
+    /**
+     * Writes the chunk in one transaction; if that fails (a unique key that still collides, or any other row
+     * error), retries row by row so only the failing rows are reported.
+     */
+    private void insert(List<Hashed> chunk, Report report) {
+        try {
+            committed(tx.execute(s -> persistNew(chunk)), report);
+        } catch (RuntimeException ex) {
+            if (!(ex instanceof DataIntegrityViolationException)) {
+                log.warn("user import chunk failed, retrying row by row size={}", chunk.size(), ex);
+            }
+            for (Hashed h : chunk) {
+                long line = h.pending().line();
+                try {
+                    committed(tx.execute(s -> persistNew(List.of(h))), report);
+                } catch (DataIntegrityViolationException rowEx) {
+                    report.error(line, ALREADY_EXISTS.name(), "Email, account or card number already exists");
+                } catch (AppException rowEx) {
+                    report.error(line, rowEx.getErrorCode().name(), rowEx.getMessage());
+                } catch (RuntimeException rowEx) {
+                    log.error("user import row failed line={}", line, rowEx);
+                    report.error(line, INTERNAL_ERROR, "Row could not be imported");
+                }
+            }
+        }
+    }
+
+    private void committed(Written written, Report report) {
+        written.taken().forEach(p -> report.error(p.line(), ALREADY_EXISTS.name(), "Email, account or card number already exists"));
+        report.imported += written.inserted().size();
+        written.inserted().forEach(h -> unknownEmails.forget(h.pending().email()));
+    }
+
+    private Written persistNew(List<Hashed> chunk) {
+        Set<String> takenEmails = new HashSet<>(userRepo.findExistingEmails(
+                chunk.stream().map(h -> h.pending().email()).toList()));
+        Set<String> takenAccounts = new HashSet<>(accountRepo.findExistingAccountNumbers(
+                chunk.stream().map(h -> h.pending().row().accountNumber()).toList()));
+        List<String> cardNumbers = chunk.stream().map(h -> h.pending().row().cardNumber()).filter(Objects::nonNull).toList();
+        Set<String> takenCards = cardNumbers.isEmpty() ? Set.of() : new HashSet<>(cardRepo.findExistingCardNumbers(cardNumbers));
+
+        List<Hashed> fresh = new ArrayList<>(chunk.size());
+        List<Pending> taken = new ArrayList<>();
+        List<User> users = new ArrayList<>(chunk.size());
+        List<Account> accounts = new ArrayList<>(chunk.size());
+        List<Card> cards = new ArrayList<>();
+        for (Hashed h : chunk) {
+            Pending p = h.pending();
+            ImportRow row = p.row();
+            if (takenEmails.contains(p.email()) || takenAccounts.contains(row.accountNumber())
+                    || (row.cardNumber() != null && takenCards.contains(row.cardNumber()))) {
+                taken.add(p);
+                continue;
+            }
+            var user = User.builder()
+                    .customerNumber(customerNumbers.next())
+                    .name(row.name())
+                    .surname(row.surname())
+                    .email(p.email())
+                    .password(h.passwordHash())
+                    .roles(Set.of(Role.USER))
+                    .build();
+            var account = Account.builder()
+                    .user(user)
+                    .accountNumber(row.accountNumber())
+                    .balance(row.balance() == null ? BigDecimal.ZERO : row.balance())
+                    .build();
+            if (row.cardType() != null) {
+                cards.add(Card.builder().account(account).cardType(row.cardType()).cardNumber(row.cardNumber()).build());
+            }
+            users.add(user);
+            accounts.add(account);
+            fresh.add(h);
+        }
+
+        userRepo.saveAll(users);
+        accountRepo.saveAll(accounts);
+        cardRepo.saveAll(cards);
+        Instant openedAt = Instant.now();
+        // zero balances too: the opening posting is what counts an account into the balance summary
+        List<Posting> postings = new ArrayList<>(accounts.size() * 2);
+        for (Account a : accounts) {
+            postings.addAll(Postings.opening(a.getId(), a.getBalance().toBigDecimal(), openedAt));
+        }
+        ledgerService.append(postings);
+        userRepo.flush();
+        return new Written(fresh, taken);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hashPool.shutdownNow();
+    }
+
+    /** Running totals and the NDJSON writer; errors are buffered until the next progress line flushes them. */
+    private final class Report {
+        private final Writer writer;
+        long processed;
+        long imported;
+        long failed;
+
+        Report(Writer writer) {
+            this.writer = writer;
+        }
+
+        void error(long line, String code, String message) {
+            failed++;
+            write(ImportEvent.error(line, code, message));
+        }
+
+        /** Stops the import: every row read but not imported, including rows of an unwritten chunk, is failed. */
+        void failure(String code, String message) {
+            failed = processed - imported;
+            write(ImportEvent.error(code, message));
+        }
+
+        void progress() {
+            write(ImportEvent.progress(processed, imported, failed));
+            flush();
+        }
+
+        ImportEvent done() {
+            var done = ImportEvent.done(processed, imported, failed);
+            write(done);
+            flush();
+            return done;
+        }
+
+        private void write(ImportEvent event) {
+            try {
+                writer.write(objectMapper.writeValueAsString(event));
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void flush() {
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
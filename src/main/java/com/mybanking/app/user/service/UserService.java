@@ -16,16 +16,19 @@ public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final CustomerNumberGenerator customerNumberGenerator;
+    private final UnknownEmailCache unknownEmails;
 
     public User register(String name, String surname, String email, String rawPassword) {
         var user = User.builder()
                 .customerNumber(customerNumberGenerator.next())
                 .name(name)
                 .surname(surname)
-                .email(email)
+                .email(User.normalizeEmail(email))
                 .password(passwordEncoder.encode(rawPassword))
                 .build();
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        unknownEmails.forget(user.getEmail());
+        return saved;
     }
 
     public User getByCustomerNumber(String customerNumber) {
@@ -3,8 +3,12 @@ package com.mybanking.app.account.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mybanking.app.account.dto.*;
 import com.mybanking.app.account.service.AccountService;
+import com.mybanking.app.account.service.BalanceReportService;
+import com.mybanking.app.ledger.service.BalanceSummaryService;
 import com.mybanking.app.security.JwtAuthFilter;
 import com.mybanking.app.security.JwtTokenProvider;
+import com.mybanking.app.idempotency.service.IdempotencyService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,10 +18,13 @@ import org.springframework.boot.test.context.TestComponent;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import static com.mybanking.app.common.security.SecurityUtils.currentUserId;
 import static com.mybanking.app.common.security.SecurityUtils.requireAdmin;
@@ -38,6 +45,21 @@ class AccountControllerTest {
     @MockitoBean
     AccountService accountService;
 
+    @MockitoBean
+    IdempotencyService idempotencyService;
+
+    @MockitoBean
+    BalanceReportService balanceReportService;
+
+    @MockitoBean
+    BalanceSummaryService balanceSummaryService;
+
+    @BeforeEach
+    void passThroughIdempotency() {
+        when(idempotencyService.execute(any(), any(), any(), any(), any(), any()))
+                .thenAnswer(inv -> ((Supplier<?>) inv.getArgument(5)).get());
+    }
+
     @MockitoBean
     JwtAuthFilter jwtAuthFilter;
 
@@ -91,6 +113,44 @@ class AccountControllerTest {
         verify(accountService).getAllBalances();
     }
 
+    @Test
+    void admin_balance_stream_is_async_json() throws Exception {
+        StreamingResponseBody body = out -> out.write("[]".getBytes(StandardCharsets.UTF_8));
+        when(balanceReportService.streamBalances(true)).thenReturn(body);
+
+        try (MockedStatic<?> ignored = mockStatic(
+                com.mybanking.app.common.security.SecurityUtils.class)) {
+            ignored.when(() -> requireAdmin()).thenAnswer(inv -> null);
+
+            var started = mvc.perform(get("/api/accounts/admin/balances/stream").param("aggregates", "true"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mvc.perform(asyncDispatch(started))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(content().string("[]"));
+        }
+    }
+
+    @Test
+    void admin_balance_summary_ok() throws Exception {
+        var report = new BalanceReport(3, new BigDecimal("300.00"), java.util.Map.of("DEBIT", 3L),
+                List.of(new BalanceReport.Bucket(null, new BigDecimal("100"), 0)), null);
+        when(balanceSummaryService.report()).thenReturn(report);
+
+        try (MockedStatic<?> ignored = mockStatic(
+                com.mybanking.app.common.security.SecurityUtils.class)) {
+            ignored.when(() -> requireAdmin()).thenAnswer(inv -> null);
+
+            mvc.perform(get("/api/accounts/admin/balances/summary"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.accounts").value(3))
+                    .andExpect(jsonPath("$.byCardType.DEBIT").value(3))
+                    .andExpect(jsonPath("$.histogram[0].from").doesNotExist())
+                    .andExpect(jsonPath("$.asOf").doesNotExist());
+        }
+    }
+
     @Test
     void withdraw_ok() throws Exception {
         UUID userId = UUID.fromString("aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
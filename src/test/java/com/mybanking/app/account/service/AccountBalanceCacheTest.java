@@ -0,0 +1,98 @@
+package com.mybanking.app.account.service;
+
+import com.mybanking.app.account.dto.AccountSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AccountBalanceCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final UUID userId = UUID.randomUUID();
+    private final UUID accountId = UUID.randomUUID();
+    private final AtomicInteger loads = new AtomicInteger();
+    private AccountBalanceCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new AccountBalanceCache(registry, 100, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /** Loads through a replica loader; the primary is not expected to be hit. */
+    private List<AccountSummary> get(java.util.function.Function<UUID, List<AccountSummary>> loader) {
+        return cache.get(userId, loader, id -> {
+            throw new AssertionError("unexpected primary read");
+        });
+    }
+
+    private List<AccountSummary> load(String balance, long version) {
+        loads.incrementAndGet();
+        return List.of(new AccountSummary(accountId, "NL01", null, new BigDecimal(balance), version));
+    }
+
+    @Test
+    void second_read_is_a_hit_and_counted() {
+        get(id -> load("10.00", 1));
+        var out = get(id -> load("99.00", 1));
+
+        assertThat(out.get(0).balance()).isEqualByComparingTo("10.00");
+        assertThat(loads).hasValue(1);
+        assertThat(registry.get("cache.gets").tag("cache", "account.balances").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+        assertThat(registry.get("cache.gets").tag("cache", "account.balances").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void eviction_waits_for_commit() {
+        get(id -> load("10.00", 1));
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.evictAfterCommit(userId, accountId, 2L);
+        assertThat(get(id -> load("5.00", 2)).get(0).balance()).isEqualByComparingTo("10.00");
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(get(id -> load("5.00", 2)).get(0).balance()).isEqualByComparingTo("5.00");
+    }
+
+    @Test
+    void read_older_than_a_committed_write_is_repeated_on_the_primary() {
+        var out = cache.get(userId, id -> {
+            var stale = load("10.00", 1);
+            cache.evictAfterCommit(userId, accountId, 2L); // a write commits while this read is in flight
+            return stale;
+        }, id -> load("5.00", 2));
+
+        assertThat(out.get(0).balance()).isEqualByComparingTo("5.00");
+        assertThat(loads).hasValue(2);
+        assertThat(get(id -> load("0.00", 3)).get(0).balance()).isEqualByComparingTo("5.00");
+    }
+
+    @Test
+    void lagging_replica_after_own_write_is_not_returned() {
+        cache.evictAfterCommit(userId, accountId, 4L);
+
+        var out = cache.get(userId, id -> load("10.00", 3), id -> load("25.00", 4));
+
+        assertThat(out.get(0).balance()).isEqualByComparingTo("25.00");
+        assertThat(get(id -> load("0.00", 5)).get(0).balance()).isEqualByComparingTo("25.00");
+    }
+}
@@ -5,14 +5,20 @@ import com.mybanking.app.account.entity.Account;
 import com.mybanking.app.account.repository.AccountRepository;
 import com.mybanking.app.common.error.AppException;
 import com.mybanking.app.common.error.ErrorCode;
+import com.mybanking.app.common.util.CardType;
+import com.mybanking.app.common.util.ConcurrencyMode;
 import com.mybanking.app.common.util.FeePolicy;
+import com.mybanking.app.common.util.Money;
+import com.mybanking.app.ledger.entity.Posting;
+import com.mybanking.app.ledger.service.LedgerService;
 import com.mybanking.app.user.entity.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -20,6 +26,7 @@ import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -28,8 +35,12 @@ class AccountServiceTest {
 
     @Mock AccountRepository accountRepository;
     @Mock FeePolicy feePolicy;
+    @Mock LedgerService ledgerService;
+    @Mock HotAccountSlots hotSlots;
+    @Mock AccountBalanceCache balanceCache;
+    @Mock TransactionTemplate txTemplate;
 
-    @InjectMocks AccountService service;
+    AccountService service;
 
     private final UUID owner1Id = UUID.randomUUID();
     private final UUID owner2Id = UUID.randomUUID();
@@ -40,8 +51,14 @@ class AccountServiceTest {
     private Account acc1_owner1;
     private Account acc2_owner2;
 
+    private AccountService service(ConcurrencyMode mode) {
+        return new AccountService(accountRepository, feePolicy, ledgerService, hotSlots, balanceCache, txTemplate, mode);
+    }
+
     @BeforeEach
     void setUp() {
+        service = service(ConcurrencyMode.PESSIMISTIC);
+
         owner1 = new User();
         owner1.setId(owner1Id);
 
@@ -64,38 +81,70 @@ class AccountServiceTest {
     }
 
     @Test
-    void listMine_maps_entities_to_summary() {
-        acc1_owner1.setBalance(new BigDecimal("100.00"));
-        var acc1b = Account.builder()
-                .id(UUID.fromString("33333333-3333-3333-3333-333333333333"))
-                .accountNumber("NL02")
-                .balance(new BigDecimal("200.00"))
-                .user(owner1)
-                .build();
-        when(accountRepository.findAllByUser_Id(owner1Id)).thenReturn(List.of(acc1_owner1, acc1b));
+    void listMine_returns_projected_summaries() {
+        var rows = List.of(
+                new AccountSummary(acc1Id, "NL01", CardType.DEBIT, new BigDecimal("100.00")),
+                new AccountSummary(UUID.fromString("33333333-3333-3333-3333-333333333333"), "NL02", null, new BigDecimal("200.00")));
+        when(accountRepository.findSummariesByUserId(owner1Id)).thenReturn(rows);
+        when(balanceCache.get(eq(owner1Id), any(), any())).thenAnswer(inv ->
+                inv.<java.util.function.Function<UUID, List<AccountSummary>>>getArgument(1).apply(owner1Id));
 
         List<AccountSummary> out = service.listMine(owner1Id);
 
         assertThat(out).hasSize(2);
         assertThat(out.get(0).accountNumber()).isEqualTo("NL01");
         assertThat(out.get(1).balance()).isEqualByComparingTo("200.00");
+        verify(accountRepository, never()).findAllByUser_Id(any());
+        verifyNoInteractions(txTemplate);
+    }
+
+    @Test
+    void listMine_primary_fallback_reads_inside_a_read_write_transaction() {
+        var rows = List.of(new AccountSummary(acc1Id, "NL01", null, new BigDecimal("5.00")));
+        when(accountRepository.findSummariesByUserId(owner1Id)).thenReturn(rows);
+        when(txTemplate.execute(any())).thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(balanceCache.get(eq(owner1Id), any(), any())).thenAnswer(inv ->
+                inv.<java.util.function.Function<UUID, List<AccountSummary>>>getArgument(2).apply(owner1Id));
+
+        assertThat(service.listMine(owner1Id)).isEqualTo(rows);
+        verify(txTemplate).execute(any());
     }
 
     @Test
     void withdraw_ok_applies_fee_and_saves() {
         acc1_owner1.setBalance(new BigDecimal("500.00"));
         when(accountRepository.findByIdForUpdate(acc1Id)).thenReturn(Optional.of(acc1_owner1));
-        when(feePolicy.feeFor(eq(FeePolicy.Operation.WITHDRAW), eq(acc1_owner1), eq(new BigDecimal("100.00"))))
-                .thenReturn(new BigDecimal("1.00"));
+        when(feePolicy.feeFor(eq(FeePolicy.Operation.WITHDRAW), isNull(), eq(Money.of("100.00"))))
+                .thenReturn(Money.of("1.00"));
 
         var r = service.withdraw(acc1Id, new BigDecimal("100.00"), owner1Id);
 
-        assertThat(acc1_owner1.getBalance()).isEqualByComparingTo("399.00");
+        assertThat(acc1_owner1.getBalance()).isEqualTo(Money.of("399.00"));
         assertThat(r.accountId()).isEqualTo(acc1Id);
         assertThat(r.withdrawn()).isEqualByComparingTo("100.00");
         assertThat(r.feeCharged()).isEqualByComparingTo("1.00");
         assertThat(r.newBalance()).isEqualByComparingTo("399.00");
         verify(accountRepository).saveAndFlush(acc1_owner1);
+        verify(balanceCache).evictAfterCommit(eq(owner1Id), eq(acc1Id), any(java.util.function.Supplier.class));
+        verify(ledgerService).append(argThat(legs -> legs.size() == 4
+                && legs.stream().filter(p -> p.getAccountId().equals(acc1Id))
+                        .map(Posting::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add)
+                        .compareTo(new BigDecimal("-101.00")) == 0));
+    }
+
+    @Test
+    void withdraw_optimistic_mode_reads_without_lock() {
+        service = service(ConcurrencyMode.OPTIMISTIC);
+        acc1_owner1.setBalance(new BigDecimal("500.00"));
+        when(accountRepository.findById(acc1Id)).thenReturn(Optional.of(acc1_owner1));
+        when(feePolicy.feeFor(eq(FeePolicy.Operation.WITHDRAW), isNull(), eq(Money.of("100.00"))))
+                .thenReturn(Money.ZERO);
+
+        var r = service.withdraw(acc1Id, new BigDecimal("100.00"), owner1Id);
+
+        assertThat(r.newBalance()).isEqualByComparingTo("400.00");
+        verify(accountRepository, never()).findByIdForUpdate(any());
+        verify(accountRepository).saveAndFlush(acc1_owner1);
     }
 
     @Test
@@ -107,6 +156,17 @@ class AccountServiceTest {
         verifyNoInteractions(accountRepository, feePolicy);
     }
 
+    @Test
+    void deposit_rejects_sub_cent_or_out_of_range_amount() {
+        for (String amount : new String[]{"0.015", "1e30"}) {
+            assertThatThrownBy(() ->
+                    service.deposit(acc1Id, new BigDecimal(amount), owner1Id))
+                    .isInstanceOfSatisfying(AppException.class,
+                            ex -> assertThat(ex.getErrorCode()).isEqualTo(ErrorCode.VALIDATION_ERROR));
+        }
+        verifyNoInteractions(accountRepository, feePolicy);
+    }
+
     @Test
     void withdraw_not_owner_forbidden() {
         acc1_owner1.setBalance(new BigDecimal("50.00"));
@@ -122,8 +182,8 @@ class AccountServiceTest {
     void withdraw_insufficient_balance() {
         acc1_owner1.setBalance(new BigDecimal("50.00"));
         when(accountRepository.findByIdForUpdate(acc1Id)).thenReturn(Optional.of(acc1_owner1));
-        when(feePolicy.feeFor(eq(FeePolicy.Operation.WITHDRAW), eq(acc1_owner1), eq(new BigDecimal("100.00"))))
-                .thenReturn(new BigDecimal("1.00"));
+        when(feePolicy.feeFor(eq(FeePolicy.Operation.WITHDRAW), isNull(), eq(Money.of("100.00"))))
+                .thenReturn(Money.of("1.00"));
 
         assertThatThrownBy(() ->
                 service.withdraw(acc1Id, new BigDecimal("100.00"), owner1Id))
@@ -131,18 +191,19 @@ class AccountServiceTest {
                         ex -> assertThat(ex.getErrorCode()).isEqualTo(ErrorCode.INSUFFICIENT_BALANCE));
 
         verify(accountRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(ledgerService, balanceCache);
     }
 
     @Test
     void deposit_ok_applies_fee_and_saves() {
         acc1_owner1.setBalance(new BigDecimal("100.00"));
         when(accountRepository.findByIdForUpdate(acc1Id)).thenReturn(Optional.of(acc1_owner1));
-        when(feePolicy.feeFor(eq(FeePolicy.Operation.DEPOSIT), eq(acc1_owner1), eq(new BigDecimal("50.00"))))
-                .thenReturn(new BigDecimal("1.00"));
+        when(feePolicy.feeFor(eq(FeePolicy.Operation.DEPOSIT), isNull(), eq(Money.of("50.00"))))
+                .thenReturn(Money.of("1.00"));
 
         var r = service.deposit(acc1Id, new BigDecimal("50.00"), owner1Id);
 
-        assertThat(acc1_owner1.getBalance()).isEqualByComparingTo("149.00");
+        assertThat(acc1_owner1.getBalance()).isEqualTo(Money.of("149.00"));
         assertThat(r.deposited()).isEqualByComparingTo("50.00");
         assertThat(r.feeCharged()).isEqualByComparingTo("1.00");
         assertThat(r.newBalance()).isEqualByComparingTo("149.00");
@@ -153,8 +214,8 @@ class AccountServiceTest {
     void deposit_too_small_after_fee_rejected() {
         acc1_owner1.setBalance(new BigDecimal("100.00"));
         when(accountRepository.findByIdForUpdate(acc1Id)).thenReturn(Optional.of(acc1_owner1));
-        when(feePolicy.feeFor(eq(FeePolicy.Operation.DEPOSIT), eq(acc1_owner1), eq(new BigDecimal("1.00"))))
-                .thenReturn(new BigDecimal("1.00"));
+        when(feePolicy.feeFor(eq(FeePolicy.Operation.DEPOSIT), isNull(), eq(Money.of("1.00"))))
+                .thenReturn(Money.of("1.00"));
 
         assertThatThrownBy(() ->
                 service.deposit(acc1Id, new BigDecimal("1.00"), owner1Id))
@@ -165,13 +226,14 @@ class AccountServiceTest {
     }
 
     @Test
-    void getAllBalances_maps() {
-        acc1_owner1.setBalance(new BigDecimal("10.00"));
-        when(accountRepository.findAll()).thenReturn(List.of(acc1_owner1));
+    void getAllBalances_returns_projected_summaries() {
+        when(accountRepository.findAllSummaries())
+                .thenReturn(List.of(new AccountSummary(acc1Id, "NL01", null, new BigDecimal("10.00"))));
 
         var out = service.getAllBalances();
 
         assertThat(out).hasSize(1);
         assertThat(out.get(0).accountNumber()).isEqualTo("NL01");
+        verify(accountRepository, never()).findAll();
     }
 }
@@ -0,0 +1,98 @@
+package com.mybanking.app.account.service;
+
+import com.mybanking.app.account.entity.Account;
+import com.mybanking.app.account.repository.AccountRepository;
+import com.mybanking.app.card.entity.Card;
+import com.mybanking.app.card.repository.CardRepository;
+import com.mybanking.app.common.util.CardType;
+import com.mybanking.app.user.dto.Role;
+import com.mybanking.app.user.entity.User;
+import com.mybanking.app.user.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+class AccountSummaryStatementCountTest {
+
+    @Autowired UserRepository userRepo;
+    @Autowired AccountRepository accountRepo;
+    @Autowired CardRepository cardRepo;
+    @Autowired AccountService accountService;
+    @Autowired EntityManagerFactory emf;
+
+    private User owner;
+    private Account debitAccount;
+    private Statistics stats;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepo.save(User.builder()
+                .customerNumber("SC" + UUID.randomUUID().toString().substring(0, 8))
+                .name("Stat").surname("Count")
+                .email(UUID.randomUUID() + "@mybanking.nl")
+                .password("{noop}x")
+                .roles(Set.of(Role.USER))
+                .build());
+        for (int i = 0; i < 3; i++) {
+            var account = accountRepo.save(Account.builder()
+                    .user(owner)
+                    .accountNumber("SC" + UUID.randomUUID().toString().replace("-", "").substring(0, 16))
+                    .balance(new BigDecimal("10.00"))
+                    .build());
+            if (i == 1) debitAccount = account;
+            cardRepo.save(Card.builder()
+                    .account(account)
+                    .cardType(i == 0 ? CardType.CREDIT : CardType.DEBIT)
+                    .cardNumber(UUID.randomUUID().toString().substring(0, 19))
+                    .build());
+        }
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+    }
+
+    @Test
+    void listMine_is_one_statement_then_cached() {
+        var out = accountService.listMine(owner.getId());
+
+        assertThat(out).hasSize(3);
+        assertThat(out).allSatisfy(s -> assertThat(s.cardType()).isNotNull());
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(stats.getEntityLoadCount()).isZero();
+
+        assertThat(accountService.listMine(owner.getId())).isEqualTo(out);
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getAllBalances_is_one_statement() {
+        var out = accountService.getAllBalances();
+
+        assertThat(out).hasSizeGreaterThanOrEqualTo(3);
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(stats.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void withdraw_checks_ownership_and_fee_without_loading_owner_or_card() {
+        var r = accountService.withdraw(debitAccount.getId(), new BigDecimal("1.00"), owner.getId());
+
+        assertThat(r.newBalance()).isEqualByComparingTo("9.00");
+        assertThat(stats.getEntityStatistics(User.class.getName()).getLoadCount()).isZero();
+        assertThat(stats.getEntityStatistics(Card.class.getName()).getLoadCount()).isZero();
+        assertThat(stats.getCollectionLoadCount()).isZero();
+    }
+}
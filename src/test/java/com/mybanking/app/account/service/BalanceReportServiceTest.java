@@ -0,0 +1,88 @@
+package com.mybanking.app.account.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mybanking.app.account.dto.AccountSummary;
+import com.mybanking.app.account.repository.AccountRepository;
+import com.mybanking.app.common.util.CardType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceReportServiceTest {
+
+    @Mock AccountRepository accountRepo;
+    @Mock PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper om = new ObjectMapper();
+    private BalanceReportService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BalanceReportService(accountRepo, om, transactionManager);
+    }
+
+    private static AccountSummary row(String number, CardType cardType, String balance) {
+        return new AccountSummary(UUID.randomUUID(), number, cardType, new BigDecimal(balance));
+    }
+
+    @Test
+    void writes_plain_array_without_aggregates() throws Exception {
+        var out = new ByteArrayOutputStream();
+
+        long count = service.write(out, List.of(row("NL01", null, "10.00"), row("NL02", CardType.DEBIT, "20.00")).iterator(), false);
+
+        JsonNode json = om.readTree(out.toByteArray());
+        assertThat(count).isEqualTo(2);
+        assertThat(json.isArray()).isTrue();
+        assertThat(json.get(1).get("accountNumber").asText()).isEqualTo("NL02");
+        assertThat(json.get(1).get("cardType").asText()).isEqualTo("DEBIT");
+    }
+
+    @Test
+    void computes_aggregates_in_the_same_pass() throws Exception {
+        var out = new ByteArrayOutputStream();
+        var rows = List.of(
+                row("NL01", null, "50.00"),
+                row("NL02", CardType.DEBIT, "150.00"),
+                row("NL03", CardType.CREDIT, "2500.00"),
+                row("NL04", CardType.DEBIT, "1000000.00"));
+
+        service.write(out, rows.iterator(), true);
+
+        JsonNode json = om.readTree(out.toByteArray());
+        assertThat(json.get("accounts")).hasSize(4);
+        JsonNode agg = json.get("aggregates");
+        assertThat(agg.get("accounts").asLong()).isEqualTo(4);
+        assertThat(agg.get("totalLiabilities").decimalValue()).isEqualByComparingTo("1002700.00");
+        assertThat(agg.get("byCardType").get("DEBIT").asLong()).isEqualTo(2);
+        assertThat(agg.get("byCardType").get("NONE").asLong()).isEqualTo(1);
+        assertThat(agg.get("histogram")).extracting(b -> b.get("accounts").asLong())
+                .containsExactly(1L, 1L, 1L, 0L, 0L, 1L);
+        assertThat(agg.get("histogram").get(0).has("from")).isFalse();
+        assertThat(agg.get("histogram").get(5).has("to")).isFalse();
+        assertThat(agg.has("asOf")).isFalse();
+    }
+
+    @Test
+    void empty_table_streams_empty_array_and_zero_totals() throws Exception {
+        var out = new ByteArrayOutputStream();
+
+        service.write(out, List.<AccountSummary>of().iterator(), true);
+
+        JsonNode json = om.readTree(out.toByteArray());
+        assertThat(json.get("accounts")).isEmpty();
+        assertThat(json.get("aggregates").get("accounts").asLong()).isZero();
+    }
+}
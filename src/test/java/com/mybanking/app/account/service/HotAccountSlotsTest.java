@@ -0,0 +1,105 @@
+package com.mybanking.app.account.service;
+
+import com.mybanking.app.account.entity.Account;
+import com.mybanking.app.account.entity.AccountSlot;
+import com.mybanking.app.account.repository.AccountSlotRepository;
+import com.mybanking.app.common.util.Money;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HotAccountSlotsTest {
+
+    @Mock AccountSlotRepository slotRepo;
+
+    @InjectMocks HotAccountSlots hotSlots;
+
+    private final UUID accountId = UUID.randomUUID();
+
+    private Account hot(String balance, int slots) {
+        return Account.builder().id(accountId).accountNumber("NL-HOT")
+                .balance(new BigDecimal(balance)).hotSlots(slots).build();
+    }
+
+    private AccountSlot slot(int no, String balance) {
+        return AccountSlot.builder().accountId(accountId).slotNo(no).balance(new BigDecimal(balance)).build();
+    }
+
+    @Test
+    void credit_goes_to_one_slot_within_range() {
+        var account = hot("0.00", 4);
+        var captured = ArgumentCaptor.forClass(Integer.class);
+        var slot = slot(0, "5.00");
+        when(slotRepo.findForUpdate(eq(accountId), captured.capture())).thenReturn(Optional.of(slot));
+
+        hotSlots.credit(account, Money.of("10.00"));
+
+        assertThat(captured.getValue()).isBetween(0, 3);
+        assertThat(slot.getBalance()).isEqualByComparingTo("15.00");
+        assertThat(account.getBalance()).isEqualTo(Money.of("0.00"));
+    }
+
+    @Test
+    void credit_to_a_slot_removed_by_resize_is_a_retryable_conflict() {
+        when(slotRepo.findForUpdate(eq(accountId), anyInt())).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> hotSlots.credit(accountId, 4, Money.of("10.00")))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+    }
+
+    @Test
+    void debit_sweeps_slots_until_covered() {
+        var account = hot("10.00", 3);
+        var s0 = slot(0, "20.00");
+        var s1 = slot(1, "30.00");
+        var s2 = slot(2, "40.00");
+        when(slotRepo.findAllForUpdate(accountId)).thenReturn(List.of(s0, s1, s2));
+
+        hotSlots.coverDebit(account, Money.of("55.00"));
+
+        assertThat(account.getBalance()).isEqualTo(Money.of("60.00"));
+        assertThat(s0.getBalance()).isEqualByComparingTo("0.00");
+        assertThat(s1.getBalance()).isEqualByComparingTo("0.00");
+        assertThat(s2.getBalance()).isEqualByComparingTo("40.00");
+    }
+
+    @Test
+    void debit_covered_by_row_does_not_touch_slots() {
+        hotSlots.coverDebit(hot("100.00", 3), Money.of("55.00"));
+        hotSlots.coverDebit(hot("0.00", 0), Money.of("55.00"));
+
+        verifyNoInteractions(slotRepo);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void resize_folds_removed_slots_into_row_and_creates_missing() {
+        var account = hot("10.00", 2);
+        var s0 = slot(0, "1.00");
+        var s1 = slot(1, "2.00");
+        when(slotRepo.findAllForUpdate(accountId)).thenReturn(List.of(s0, s1));
+
+        hotSlots.resize(account, 1);
+
+        assertThat(account.getBalance()).isEqualTo(Money.of("12.00"));
+        assertThat(account.getHotSlots()).isEqualTo(1);
+        verify(slotRepo).deleteAll(List.of(s1));
+        ArgumentCaptor<List<AccountSlot>> added = ArgumentCaptor.forClass(List.class);
+        verify(slotRepo).saveAll(added.capture());
+        assertThat(added.getValue()).isEmpty();
+    }
+}
@@ -13,7 +13,9 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Set;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -32,7 +34,7 @@ class AuthControllerTest {
     void login_ok() throws Exception {
         var req = new LoginRequest("alice@example.com", "S3cret!");
         var serviceRes = new AuthService.LoginResult("jwt-token-123", 1_700_000_000L, Set.of("USER"));
-        when(authService.loginWithEmail(eq("alice@example.com"), eq("S3cret!"))).thenReturn(serviceRes);
+        when(authService.loginWithEmail(eq("alice@example.com"), eq("S3cret!"), any())).thenReturn(serviceRes);
 
         mvc.perform(post("/api/auth/login")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -43,4 +45,12 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.expiresAt").value(1_700_000_000L))
                 .andExpect(jsonPath("$.roles[0]").value("USER"));
     }
+
+    @Test
+    void logout_revokes_bearer_token() throws Exception {
+        mvc.perform(post("/api/auth/logout").header("Authorization", "Bearer jwt-token-123"))
+                .andExpect(status().isNoContent());
+
+        verify(authService).logout("jwt-token-123");
+    }
 }
@@ -2,16 +2,20 @@ package com.mybanking.app.auth.service;
 
 import com.mybanking.app.common.error.AppException;
 import com.mybanking.app.common.error.ErrorCode;
-import com.mybanking.app.user.entity.User;
+import com.mybanking.app.security.JwtPrincipal;
+import com.mybanking.app.user.dto.LoginCredentials;
 import com.mybanking.app.user.repository.UserRepository;
 import com.mybanking.app.user.dto.Role;
+import com.mybanking.app.user.service.UnknownEmailCache;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.http.HttpStatus;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -23,62 +27,116 @@ import static org.mockito.Mockito.*;
 class AuthServiceTest {
 
     @Mock UserRepository userRepository;
-    @Mock PasswordEncoder passwordEncoder;
+    @Mock PasswordVerifier passwordVerifier;
+    @Mock LoginThrottle loginThrottle;
+    @Mock UnknownEmailCache unknownEmails;
+    @Mock TokenRevocationService tokenRevocations;
     @Mock com.mybanking.app.security.JwtTokenProvider jwtTokenProvider;
 
     @InjectMocks AuthService authService;
 
-    private static User user(UUID id, String email, String hash, Set<Role> roles) {
-        var u = new User();
-        u.setId(id);
-        u.setEmail(email);
-        u.setPassword(hash);
-        u.setRoles(roles);
-        return u;
-    }
 
     @Test
     void login_ok() {
         var id = UUID.fromString("aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
-        var u  = user(id, "jonathanjackson@mybanking.nl", "{bcrypt}hash", Set.of(Role.USER));
+        var u  = new LoginCredentials(id, "{bcrypt}hash", Set.of(Role.USER));
 
-        when(userRepository.findByEmail("jonathanjackson@mybanking.nl")).thenReturn(Optional.of(u));
-        when(passwordEncoder.matches("S3cret!", "{bcrypt}hash")).thenReturn(true);
-        when(jwtTokenProvider.createToken(id.toString(), u.getRoles())).thenReturn("jwt-token-123");
+        when(userRepository.findLoginCredentials("jonathanjackson@mybanking.nl")).thenReturn(Optional.of(u));
+        when(passwordVerifier.verify("S3cret!", "{bcrypt}hash")).thenReturn(new PasswordVerifier.Verification(true, null));
+        when(jwtTokenProvider.createToken(id.toString(), u.roles())).thenReturn("jwt-token-123");
         when(jwtTokenProvider.getExpiryEpochSeconds()).thenReturn(1_700_000_000L);
 
-        AuthService.LoginResult res = authService.loginWithEmail("jonathanjackson@mybanking.nl", "S3cret!");
+        AuthService.LoginResult res = authService.loginWithEmail("jonathanjackson@mybanking.nl", "S3cret!", "10.0.0.1");
 
         assertThat(res.token()).isEqualTo("jwt-token-123");
         assertThat(res.expiresAt()).isEqualTo(1_700_000_000L);
 
-        verify(jwtTokenProvider).createToken(id.toString(), u.getRoles());
+        verify(loginThrottle).acquire("jonathanjackson@mybanking.nl", "10.0.0.1");
+        verify(jwtTokenProvider).createToken(id.toString(), u.roles());
+        verify(userRepository, never()).updatePasswordIfUnchanged(any(), any(), any());
+    }
+
+    @Test
+    void login_ok_stores_upgraded_hash() {
+        var u = new LoginCredentials(UUID.randomUUID(), "$2a$04$old", Set.of(Role.USER));
+        when(userRepository.findLoginCredentials("jonathanjackson@mybanking.nl")).thenReturn(Optional.of(u));
+        when(passwordVerifier.verify("S3cret!", "$2a$04$old")).thenReturn(new PasswordVerifier.Verification(true, "$2a$10$new"));
+        when(jwtTokenProvider.createToken(any(), any())).thenReturn("jwt");
+
+        authService.loginWithEmail("jonathanjackson@mybanking.nl", "S3cret!", "10.0.0.1");
+
+        verify(userRepository).updatePasswordIfUnchanged(u.id(), "$2a$04$old", "$2a$10$new");
     }
 
     @Test
-    void login_email_not_found() {
-        when(userRepository.findByEmail("jonathanjackson@mybanking.nl")).thenReturn(Optional.empty());
+    void login_throttled_before_lookup() {
+        doThrow(new AppException(ErrorCode.AUTH_THROTTLED, HttpStatus.TOO_MANY_REQUESTS, "Too many login attempts"))
+                .when(loginThrottle).acquire("jonathanjackson@mybanking.nl", "10.0.0.1");
 
-        assertThatThrownBy(() -> authService.loginWithEmail("jonathanjackson@mybanking.nl", "x"))
+        assertThatThrownBy(() -> authService.loginWithEmail(" JonathanJackson@mybanking.nl ", "x", "10.0.0.1"))
+                .isInstanceOfSatisfying(AppException.class,
+                        ex -> assertThat(ex.getErrorCode()).isEqualTo(ErrorCode.AUTH_THROTTLED));
+
+        verifyNoInteractions(userRepository, unknownEmails, passwordVerifier, jwtTokenProvider);
+    }
+
+    @Test
+    void login_email_not_found_is_remembered() {
+        when(unknownEmails.generation()).thenReturn(7L);
+        when(userRepository.findLoginCredentials("jonathanjackson@mybanking.nl")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> authService.loginWithEmail("jonathanjackson@mybanking.nl", "x", "10.0.0.1"))
                 .isInstanceOfSatisfying(AppException.class,
                         ex -> assertThat(ex.getErrorCode()).isEqualTo(ErrorCode.AUTH_INVALID_CREDENTIALS))
                 .hasMessageContaining("Invalid credentials");
 
-        verifyNoInteractions(passwordEncoder, jwtTokenProvider);
+        verify(unknownEmails).markUnknown("jonathanjackson@mybanking.nl", 7L);
+        verifyNoInteractions(passwordVerifier, jwtTokenProvider);
+    }
+
+    @Test
+    void login_known_unknown_email_skips_lookup() {
+        when(unknownEmails.isUnknown("jonathanjackson@mybanking.nl")).thenReturn(true);
+
+        assertThatThrownBy(() -> authService.loginWithEmail("jonathanjackson@mybanking.nl", "x", "10.0.0.1"))
+                .isInstanceOfSatisfying(AppException.class,
+                        ex -> assertThat(ex.getErrorCode()).isEqualTo(ErrorCode.AUTH_INVALID_CREDENTIALS));
+
+        verifyNoInteractions(userRepository, passwordVerifier, jwtTokenProvider);
     }
 
     @Test
     void login_wrong_password() {
-        var u = user(UUID.randomUUID(), "jonathanjackson@mybanking.nl", "{bcrypt}hash", Set.of(Role.USER));
-        when(userRepository.findByEmail("jonathanjackson@mybanking.nl")).thenReturn(Optional.of(u));
-        when(passwordEncoder.matches("bad", "{bcrypt}hash")).thenReturn(false);
+        var u = new LoginCredentials(UUID.randomUUID(), "{bcrypt}hash", Set.of(Role.USER));
+        when(userRepository.findLoginCredentials("jonathanjackson@mybanking.nl")).thenReturn(Optional.of(u));
+        when(passwordVerifier.verify("bad", "{bcrypt}hash")).thenReturn(new PasswordVerifier.Verification(false, null));
 
-        assertThatThrownBy(() -> authService.loginWithEmail("jonathanjackson@mybanking.nl", "bad"))
+        assertThatThrownBy(() -> authService.loginWithEmail("jonathanjackson@mybanking.nl", "bad", "10.0.0.1"))
                 .isInstanceOfSatisfying(AppException.class,
                         ex -> assertThat(ex.getErrorCode()).isEqualTo(ErrorCode.AUTH_INVALID_CREDENTIALS))
                 .hasMessageContaining("Invalid credentials");
 
         verify(jwtTokenProvider, never()).createToken(any(), any());
     }
-}
 
+    @Test
+    void logout_revokes_token_until_its_expiry() {
+        var exp = Instant.now().plusSeconds(600);
+        when(jwtTokenProvider.authenticate("jwt")).thenReturn(Optional.of(new JwtPrincipal("user-1", "jti-1", List.of(), exp)));
+
+        authService.logout("jwt");
+
+        verify(tokenRevocations).revoke("jti-1", exp);
+    }
+
+    @Test
+    void logout_with_invalid_or_missing_token_is_unauthorized() {
+        when(jwtTokenProvider.authenticate("bad")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> authService.logout("bad"))
+                .isInstanceOfSatisfying(AppException.class,
+                        ex -> assertThat(ex.getErrorCode()).isEqualTo(ErrorCode.UNAUTHORIZED));
+        assertThatThrownBy(() -> authService.logout(null)).isInstanceOf(AppException.class);
+        verifyNoInteractions(tokenRevocations);
+    }
+}
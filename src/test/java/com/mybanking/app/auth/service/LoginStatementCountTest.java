@@ -0,0 +1,83 @@
+package com.mybanking.app.auth.service;
+
+import com.mybanking.app.user.dto.Role;
+import com.mybanking.app.user.entity.User;
+import com.mybanking.app.user.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+class LoginStatementCountTest {
+
+    @Autowired UserRepository userRepo;
+    @Autowired PasswordEncoder encoder;
+    @Autowired AuthService authService;
+    @Autowired EntityManagerFactory emf;
+
+    private final String clientIp = "10.1." + (int) (Math.random() * 255) + ".1";
+    private String email;
+    private Statistics stats;
+
+    @BeforeEach
+    void setUp() {
+        email = UUID.randomUUID() + "@mybanking.nl";
+        userRepo.save(User.builder()
+                .customerNumber("LC" + UUID.randomUUID().toString().substring(0, 8))
+                .name("Login").surname("Count")
+                .email(email.toUpperCase())
+                .password(encoder.encode("S3cret!"))
+                .roles(Set.of(Role.USER, Role.ADMIN))
+                .build());
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+    }
+
+    @Test
+    void login_is_one_statement_without_loading_the_user() {
+        var res = authService.loginWithEmail(" " + email.toUpperCase() + " ", "S3cret!", clientIp);
+
+        assertThat(res.roles()).containsExactlyInAnyOrder("USER", "ADMIN");
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(stats.getEntityLoadCount()).isZero();
+        assertThat(stats.getCollectionLoadCount()).isZero();
+    }
+
+    @Test
+    void unknown_email_is_looked_up_once() {
+        String unknown = UUID.randomUUID() + "@mybanking.nl";
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> authService.loginWithEmail(unknown, "x", clientIp));
+        }
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void outdated_hash_is_upgraded_on_login() {
+        String old = new BCryptPasswordEncoder(4).encode("S3cret!");
+        var user = userRepo.findByEmail(email).orElseThrow();
+        user.setPassword(old);
+        userRepo.save(user);
+
+        authService.loginWithEmail(email, "S3cret!", clientIp);
+
+        String stored = userRepo.findByEmail(email).orElseThrow().getPassword();
+        assertThat(stored).isNotEqualTo(old).startsWith("$2a$10$");
+        assertThat(encoder.matches("S3cret!", stored)).isTrue();
+    }
+}
@@ -0,0 +1,31 @@
+package com.mybanking.app.auth.service;
+
+import com.mybanking.app.common.error.AppException;
+import com.mybanking.app.common.error.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LoginThrottleTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final LoginThrottle throttle = new LoginThrottle(64, 3, 1, 2, 1, registry);
+
+    @Test
+    void exhausted_ip_does_not_drain_the_email_budget() {
+        throttle.acquire("attacker@x.nl", "10.0.0.1");
+        throttle.acquire("attacker@x.nl", "10.0.0.1");
+
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> throttle.acquire("victim@x.nl", "10.0.0.1"))
+                    .isInstanceOfSatisfying(AppException.class,
+                            ex -> assertThat(ex.getErrorCode()).isEqualTo(ErrorCode.AUTH_THROTTLED));
+        }
+
+        throttle.acquire("victim@x.nl", "10.0.0.2");
+        throttle.acquire("victim@x.nl", "10.0.0.3");
+        throttle.acquire("victim@x.nl", "10.0.0.4");
+        assertThat(registry.counter("auth.login.throttled").count()).isEqualTo(5.0);
+    }
+}
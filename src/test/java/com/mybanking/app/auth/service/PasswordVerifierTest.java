@@ -0,0 +1,105 @@
+package com.mybanking.app.auth.service;
+
+import com.mybanking.app.common.error.AppException;
+import com.mybanking.app.common.error.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PasswordVerifierTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private PasswordVerifier verifier;
+
+    @AfterEach
+    void tearDown() {
+        if (verifier != null) verifier.shutdown();
+    }
+
+    @Test
+    void match_at_current_cost_needs_no_rehash() {
+        var encoder = new BCryptPasswordEncoder(4);
+        verifier = new PasswordVerifier(encoder, 1, 4, registry);
+
+        var v = verifier.verify("S3cret!", encoder.encode("S3cret!"));
+
+        assertThat(v.matches()).isTrue();
+        assertThat(v.upgradedHash()).isNull();
+        assertThat(registry.timer("auth.password.verify").count()).isEqualTo(1);
+    }
+
+    @Test
+    void match_below_current_cost_returns_upgraded_hash() {
+        String old = new BCryptPasswordEncoder(4).encode("S3cret!");
+        var encoder = new BCryptPasswordEncoder(5);
+        verifier = new PasswordVerifier(encoder, 1, 4, registry);
+
+        var v = verifier.verify("S3cret!", old);
+
+        assertThat(v.matches()).isTrue();
+        assertThat(v.upgradedHash()).startsWith("$2a$05$");
+        assertThat(encoder.matches("S3cret!", v.upgradedHash())).isTrue();
+    }
+
+    @Test
+    void mismatch_is_not_rehashed() {
+        var encoder = new BCryptPasswordEncoder(4);
+        verifier = new PasswordVerifier(encoder, 1, 4, registry);
+
+        var v = verifier.verify("bad", new BCryptPasswordEncoder(4).encode("S3cret!"));
+
+        assertThat(v.matches()).isFalse();
+        assertThat(v.upgradedHash()).isNull();
+    }
+
+    @Test
+    void full_queue_is_rejected_with_429() throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        PasswordEncoder blocking = new BCryptPasswordEncoder(4) {
+            @Override
+            public boolean matches(CharSequence raw, String encoded) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return false;
+            }
+        };
+        verifier = new PasswordVerifier(blocking, 1, 1, registry);
+
+        var running = CompletableFuture.runAsync(() -> verifier.verify("a", "x"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        var queued = CompletableFuture.runAsync(() -> verifier.verify("b", "x"));
+        await(() -> registry.get("auth.password.queue").gauge().value() == 1);
+
+        assertThatThrownBy(() -> verifier.verify("c", "x"))
+                .isInstanceOfSatisfying(AppException.class, ex -> {
+                    assertThat(ex.getErrorCode()).isEqualTo(ErrorCode.SERVICE_BUSY);
+                    assertThat(ex.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+                });
+        assertThat(registry.counter("auth.password.rejected").count()).isEqualTo(1);
+
+        release.countDown();
+        CompletableFuture.allOf(running, queued).get(5, TimeUnit.SECONDS);
+    }
+
+    private static void await(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) fail("condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+}
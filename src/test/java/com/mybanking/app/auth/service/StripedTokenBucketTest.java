@@ -0,0 +1,53 @@
+package com.mybanking.app.auth.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class StripedTokenBucketTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void spends_capacity_then_refuses() {
+        var buckets = new StripedTokenBucket(16, 3, 60, clock::get);
+
+        assertThat(buckets.tryAcquire("a@x.nl")).isTrue();
+        assertThat(buckets.tryAcquire("a@x.nl")).isTrue();
+        assertThat(buckets.tryAcquire("a@x.nl")).isTrue();
+        assertThat(buckets.tryAcquire("a@x.nl")).isFalse();
+    }
+
+    @Test
+    void refills_over_time_up_to_capacity() {
+        var buckets = new StripedTokenBucket(16, 2, 60, clock::get);
+        buckets.tryAcquire("a@x.nl");
+        buckets.tryAcquire("a@x.nl");
+        assertThat(buckets.tryAcquire("a@x.nl")).isFalse();
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(buckets.tryAcquire("a@x.nl")).isTrue();
+        assertThat(buckets.tryAcquire("a@x.nl")).isFalse();
+
+        clock.addAndGet(TimeUnit.HOURS.toNanos(1));
+        assertThat(buckets.tryAcquire("a@x.nl")).isTrue();
+        assertThat(buckets.tryAcquire("a@x.nl")).isTrue();
+        assertThat(buckets.tryAcquire("a@x.nl")).isFalse();
+    }
+
+    @Test
+    void stripes_round_up_to_power_of_two() {
+        assertThat(new StripedTokenBucket(1, 1, 1).stripeCount()).isEqualTo(1);
+        assertThat(new StripedTokenBucket(1000, 1, 1).stripeCount()).isEqualTo(1024);
+        assertThat(new StripedTokenBucket(4096, 1, 1).stripeCount()).isEqualTo(4096);
+    }
+
+    @Test
+    void rejects_non_positive_settings() {
+        assertThatThrownBy(() -> new StripedTokenBucket(0, 1, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new StripedTokenBucket(1, 0, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
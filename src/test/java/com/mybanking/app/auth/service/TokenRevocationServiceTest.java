@@ -0,0 +1,98 @@
+package com.mybanking.app.auth.service;
+
+import com.mybanking.app.auth.entity.RevokedToken;
+import com.mybanking.app.auth.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    @Mock RevokedTokenRepository repository;
+    @Mock PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private TokenRevocationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TokenRevocationService(repository, transactionManager, registry, 1000, 0.001);
+    }
+
+    private static RevokedToken row(String jti, Instant revokedAt) {
+        return RevokedToken.builder().jti(jti).revokedAt(revokedAt).expiresAt(revokedAt.plusSeconds(3600)).build();
+    }
+
+    private double checks(String result) {
+        return registry.get("auth.revocation.checks").tag("result", result).counter().count();
+    }
+
+    @Test
+    void unknown_token_passes_without_a_query() {
+        assertThat(service.isRevoked("jti-1")).isFalse();
+        assertThat(service.isRevoked(null)).isFalse();
+
+        verifyNoInteractions(repository);
+        assertThat(checks("pass")).isEqualTo(2);
+    }
+
+    @Test
+    void revoked_token_is_confirmed_against_the_table() {
+        service.revoke("jti-1", Instant.now().plusSeconds(60));
+        when(repository.existsById("jti-1")).thenReturn(true);
+
+        assertThat(service.isRevoked("jti-1")).isTrue();
+
+        verify(repository).save(argThat(t -> t.getJti().equals("jti-1") && t.getRevokedAt() != null));
+        assertThat(checks("revoked")).isEqualTo(1);
+    }
+
+    @Test
+    void filter_hit_without_a_row_is_a_false_positive() {
+        service.revoke("jti-1", Instant.now().plusSeconds(60));
+        when(repository.existsById("jti-1")).thenReturn(false);
+
+        assertThat(service.isRevoked("jti-1")).isFalse();
+        assertThat(checks("false-positive")).isEqualTo(1);
+    }
+
+    @Test
+    void startup_loads_all_rows_and_refresh_reads_from_the_newest_seen() {
+        Instant t = Instant.parse("2026-01-01T10:00:00Z");
+        when(repository.findAll()).thenReturn(List.of(row("old", t)));
+        when(repository.findByRevokedAtGreaterThanEqual(any())).thenReturn(List.of());
+        service.rebuild();
+
+        when(repository.findByRevokedAtGreaterThanEqual(t.minusSeconds(60))).thenReturn(List.of(row("other-node", t.plusSeconds(5))));
+        service.refresh();
+
+        when(repository.existsById(any())).thenReturn(true);
+        assertThat(service.isRevoked("old")).isTrue();
+        assertThat(service.isRevoked("other-node")).isTrue();
+        verify(repository, times(2)).existsById(any());
+    }
+
+    @Test
+    void purge_rebuilds_without_the_deleted_rows() {
+        service.revoke("expired", Instant.now().minusSeconds(1));
+        when(repository.deleteExpiredBefore(any())).thenReturn(1);
+        when(repository.findAll()).thenReturn(List.of());
+
+        service.purgeExpired();
+
+        assertThat(service.isRevoked("expired")).isFalse();
+        verify(repository, never()).existsById(any());
+    }
+}
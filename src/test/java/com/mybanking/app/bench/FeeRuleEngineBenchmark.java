@@ -0,0 +1,62 @@
+package com.mybanking.app.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mybanking.app.common.util.CardType;
+import com.mybanking.app.common.util.FeePolicy;
+import com.mybanking.app.common.util.FeePolicy.Operation;
+import com.mybanking.app.common.util.Money;
+import com.mybanking.app.fee.service.FeeRuleEngine;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Per-call cost of a fee lookup in the compiled rule table, with the shipped rules and with a tiered,
+ * capped rule set, next to the former hardcoded policy.
+ * Not part of the regular build; run with {@code mvn test -Dtest=FeeRuleEngineBenchmark}.
+ * Tunables: -Dbench.iterations, -Dbench.rounds.
+ */
+class FeeRuleEngineBenchmark {
+
+    private static final int ITERATIONS = Integer.getInteger("bench.iterations", 10_000_000);
+    private static final int ROUNDS = Integer.getInteger("bench.rounds", 5);
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static final Operation[] OPS = Operation.values();
+    private static final CardType[] CARDS = {null, CardType.DEBIT, CardType.CREDIT};
+    private static final Money[] AMOUNTS = {Money.of("12.34"), Money.of("250.00"), Money.of("999.99"), Money.of("25000.00")};
+
+    private static long sink;
+
+    @Test
+    void fee_lookup_cost() throws Exception {
+        var loader = new DefaultResourceLoader();
+        var mapper = new ObjectMapper();
+        var shipped = new FeeRuleEngine(loader, mapper, "classpath:fees.json");
+        var tiered = new FeeRuleEngine(loader, mapper, "classpath:bench/fees-tiered.json");
+        var hardcoded = new FeePolicy.CreditCardOnePercent();
+
+        System.out.printf("%n%-12s %10s %14s%n", "policy", "ns/op", "bytes/op");
+        for (int round = 0; round < ROUNDS; round++) {
+            report("hardcoded", hardcoded);
+            report("shipped", shipped);
+            report("tiered", tiered);
+        }
+    }
+
+    private void report(String name, FeePolicy policy) {
+        long bytes = THREADS.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        long total = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            total += policy.feeFor(OPS[i % OPS.length], CARDS[i % CARDS.length], AMOUNTS[i & 3]).minor();
+        }
+        long nanos = System.nanoTime() - start;
+        bytes = THREADS.getCurrentThreadAllocatedBytes() - bytes;
+        sink += total;
+        System.out.printf("%-12s %10.1f %14.1f%n", name, nanos / (double) ITERATIONS, bytes / (double) ITERATIONS);
+    }
+}
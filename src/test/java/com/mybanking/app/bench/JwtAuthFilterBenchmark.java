@@ -0,0 +1,83 @@
+package com.mybanking.app.bench;
+
+import com.mybanking.app.auth.repository.RevokedTokenRepository;
+import com.mybanking.app.auth.service.TokenRevocationService;
+import com.mybanking.app.security.JwtAuthFilter;
+import com.mybanking.app.security.JwtTokenProvider;
+import com.mybanking.app.user.dto.Role;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.crypto.SecretKey;
+import java.util.Set;
+
+/**
+ * Per-request cost of bearer-token authentication in {@link JwtAuthFilter}: the former four-parse
+ * validation, one verification per request (cache disabled), and the verified-claims cache. The filter
+ * modes include the revocation check against an empty denylist.
+ * Not part of the regular build; run with {@code mvn test -Dtest=JwtAuthFilterBenchmark}.
+ * Tunables: -Dbench.iterations, -Dbench.rounds.
+ */
+class JwtAuthFilterBenchmark {
+
+    private static final int ITERATIONS = Integer.getInteger("bench.iterations", 10_000);
+    private static final int ROUNDS = Integer.getInteger("bench.rounds", 3);
+    private static final String SECRET = "xdpYwoBA592ZeWodsOsxkR0f3TpuXgUC9FnzggPQXVg";
+    private static final SecretKey KEY = Keys.hmacShaKeyFor(SECRET.getBytes());
+    /** Empty denylist: every request pays the Bloom-filter probe and nothing else. */
+    private static final TokenRevocationService REVOCATIONS = new TokenRevocationService(
+            Mockito.mock(RevokedTokenRepository.class), Mockito.mock(PlatformTransactionManager.class),
+            new SimpleMeterRegistry(), 100_000, 0.001);
+
+    @Test
+    void filter_cost() throws Exception {
+        var uncached = new JwtTokenProvider(SECRET, 3600, "MyBankingBV", 0, new SimpleMeterRegistry());
+        var cached = new JwtTokenProvider(SECRET, 3600, "MyBankingBV", 10_000, new SimpleMeterRegistry());
+        String token = cached.createToken("5f0c6f52-8d0a-4c57-9d3e-6a0f1b2c3d4e", Set.of(Role.USER, Role.ADMIN));
+
+        System.out.printf("%n%-10s %12s%n", "mode", "us/request");
+        for (int round = 0; round < ROUNDS; round++) {
+            report("four-parse", () -> legacy(token));
+            report("verify", filter(uncached, token));
+            report("cached", filter(cached, token));
+        }
+    }
+
+    private interface Step { void run() throws Exception; }
+
+    private void report(String mode, Step step) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            step.run();
+            SecurityContextHolder.clearContext();
+        }
+        System.out.printf("%-10s %12.2f%n", mode, (System.nanoTime() - start) / 1_000.0 / ITERATIONS);
+    }
+
+    private static Step filter(JwtTokenProvider jwt, String token) {
+        var filter = new JwtAuthFilter(jwt, REVOCATIONS);
+        return () -> {
+            var req = new MockHttpServletRequest("GET", "/api/accounts/detail");
+            req.addHeader("Authorization", "Bearer " + token);
+            filter.doFilter(req, new MockHttpServletResponse(), new MockFilterChain());
+        };
+    }
+
+    /** What the filter used to do per request: isValid (two parses), getSubject, getRoles. */
+    private static void legacy(String token) {
+        var key = KEY;
+        var claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+        if (!"MyBankingBV".equals(claims.getIssuer())) throw new IllegalStateException();
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject();
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().get("roles");
+    }
+}
@@ -0,0 +1,120 @@
+package com.mybanking.app.bench;
+
+import com.mybanking.app.MyBankApplication;
+import com.mybanking.app.account.entity.Account;
+import com.mybanking.app.account.repository.AccountRepository;
+import com.mybanking.app.common.error.AppException;
+import com.mybanking.app.common.util.Money;
+import com.mybanking.app.engine.EngineJournal;
+import com.mybanking.app.transaction.service.TransactionService;
+import com.mybanking.app.user.dto.Role;
+import com.mybanking.app.user.entity.User;
+import com.mybanking.app.user.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput of concurrent transfers on the pessimistic-lock path versus the in-memory ledger engine.
+ * Not part of the regular build; run with {@code mvn test -Dtest=LedgerEngineBenchmark}.
+ * Tunables: -Dbench.accounts, -Dbench.threads, -Dbench.seconds.
+ */
+class LedgerEngineBenchmark {
+
+    private static final int ACCOUNTS = Integer.getInteger("bench.accounts", 32);
+    private static final int THREADS = Integer.getInteger("bench.threads", 16);
+    private static final int SECONDS = Integer.getInteger("bench.seconds", 10);
+
+    @Test
+    void compare_locking_and_engine() throws Exception {
+        var locking = run("locking", false);
+        var engine = run("engine", true);
+
+        System.out.printf("%n%-8s %12s %10s %10s %10s%n", "mode", "transfers/s", "p50 us", "p99 us", "failed");
+        for (var r : List.of(locking, engine)) {
+            System.out.printf("%-8s %12.0f %10d %10d %10d%n", r.mode, r.throughput, r.p50Micros, r.p99Micros, r.failed);
+        }
+    }
+
+    private record Result(String mode, double throughput, long p50Micros, long p99Micros, long failed) {}
+
+    private Result run(String mode, boolean engineEnabled) throws Exception {
+        try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(MyBankApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + mode + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--logging.level.com.mybanking.app=WARN",
+                "--app.engine.enabled=" + engineEnabled)) {
+
+            var owner = ctx.getBean(UserRepository.class).save(User.builder()
+                    .customerNumber("BENCH-" + mode).name("Bench").surname(mode)
+                    .email(mode + "@bench.local").password("{noop}x").roles(Set.of(Role.USER)).build());
+            var accountRepo = ctx.getBean(AccountRepository.class);
+            List<Account> accounts = new ArrayList<>();
+            for (int i = 0; i < ACCOUNTS; i++) {
+                accounts.add(accountRepo.save(Account.builder().user(owner)
+                        .accountNumber("BENCH-" + mode + "-" + i).balance(new BigDecimal("1000000.00")).build()));
+            }
+            BigDecimal before = total(accountRepo);
+
+            var service = ctx.getBean(TransactionService.class);
+            var latencies = new ConcurrentLinkedQueue<long[]>();
+            var failed = new AtomicLong();
+            var ops = new AtomicLong();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SECONDS);
+
+            ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(pool.submit(() -> {
+                    var rnd = ThreadLocalRandom.current();
+                    long[] samples = new long[1 << 20];
+                    int n = 0;
+                    while (System.nanoTime() < deadline) {
+                        var from = accounts.get(rnd.nextInt(ACCOUNTS));
+                        var to = accounts.get(rnd.nextInt(ACCOUNTS));
+                        if (from == to) continue;
+                        long start = System.nanoTime();
+                        try {
+                            service.transfer(from.getId(), to.getAccountNumber(), BigDecimal.ONE, owner.getId());
+                            ops.incrementAndGet();
+                        } catch (AppException | org.springframework.dao.DataAccessException ex) {
+                            failed.incrementAndGet();
+                        }
+                        if (n < samples.length) samples[n++] = System.nanoTime() - start;
+                    }
+                    latencies.add(Arrays.copyOf(samples, n));
+                }));
+            }
+            for (var f : futures) f.get();
+            pool.shutdown();
+
+            if (engineEnabled) {
+                var journal = ctx.getBean(EngineJournal.class);
+                while (journal.pending() > 0) Thread.sleep(10);
+                Thread.sleep(200);
+            }
+            assertThat(total(accountRepo)).isEqualByComparingTo(before);
+
+            long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            return new Result(mode, ops.get() / (double) SECONDS,
+                    percentileMicros(all, 0.50), percentileMicros(all, 0.99), failed.get());
+        }
+    }
+
+    private static BigDecimal total(AccountRepository repo) {
+        return repo.findAll().stream().map(Account::getBalance).reduce(Money.ZERO, Money::plus).toBigDecimal();
+    }
+
+    private static long percentileMicros(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))] / 1_000;
+    }
+}
@@ -0,0 +1,67 @@
+package com.mybanking.app.bench;
+
+import com.mybanking.app.common.util.Money;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Cost of the fee-and-balance step (1% fee, withdraw amount plus fee) with BigDecimal versus {@link Money}.
+ * Not part of the regular build; run with {@code mvn test -Dtest=MoneyArithmeticBenchmark}.
+ * Tunables: -Dbench.iterations, -Dbench.rounds.
+ */
+class MoneyArithmeticBenchmark {
+
+    private static final int ITERATIONS = Integer.getInteger("bench.iterations", 5_000_000);
+    private static final int ROUNDS = Integer.getInteger("bench.rounds", 5);
+    private static final BigDecimal ONE_PERCENT = new BigDecimal("0.01");
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static long sink;
+
+    @Test
+    void compare_decimal_and_minor_units() {
+        System.out.printf("%n%-12s %10s %14s%n", "mode", "ns/op", "bytes/op");
+        for (int round = 0; round < ROUNDS; round++) {
+            report("bigdecimal", this::decimal);
+            report("money", this::money);
+        }
+    }
+
+    private void report(String mode, Runnable body) {
+        long bytes = THREADS.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        body.run();
+        long nanos = System.nanoTime() - start;
+        bytes = THREADS.getCurrentThreadAllocatedBytes() - bytes;
+        System.out.printf("%-12s %10.1f %14.1f%n", mode, nanos / (double) ITERATIONS, bytes / (double) ITERATIONS);
+    }
+
+    private void decimal() {
+        BigDecimal balance = new BigDecimal("1000000000.00");
+        BigDecimal amount = new BigDecimal("12.34");
+        for (int i = 0; i < ITERATIONS; i++) {
+            BigDecimal fee = amount.multiply(ONE_PERCENT).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal total = amount.add(fee);
+            if (balance.compareTo(total) < 0) balance = balance.add(BigDecimal.valueOf(1_000_000_000));
+            balance = balance.subtract(total).setScale(2, RoundingMode.HALF_UP);
+        }
+        sink += balance.unscaledValue().longValue();
+    }
+
+    private void money() {
+        Money balance = Money.of("1000000000.00");
+        Money amount = Money.of("12.34");
+        for (int i = 0; i < ITERATIONS; i++) {
+            Money fee = amount.basisPoints(100);
+            Money total = amount.plus(fee);
+            if (balance.isLessThan(total)) balance = balance.plus(Money.ofMinor(100_000_000_000L));
+            balance = balance.minus(total);
+        }
+        sink += balance.minor();
+    }
+}
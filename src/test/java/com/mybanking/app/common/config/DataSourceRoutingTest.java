@@ -0,0 +1,90 @@
+package com.mybanking.app.common.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.lag-query=select lag_seconds from replica_status",
+        "app.datasource.replica.max-lag=PT5S",
+        "app.datasource.replica.lag-check-interval-ms=3600000"
+})
+class DataSourceRoutingTest {
+
+    @Autowired DataSource dataSource;
+    @Autowired @Qualifier("replicaDataSource") DataSource replica;
+    @Autowired PlatformTransactionManager txManager;
+    @Autowired ReplicaLagMonitor lagMonitor;
+    @Autowired MeterRegistry meterRegistry;
+
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        jdbc = new JdbcTemplate(dataSource);
+        var replicaJdbc = new JdbcTemplate(replica);
+        replicaJdbc.execute("create table if not exists replica_status (lag_seconds double)");
+        replicaJdbc.update("delete from replica_status");
+        replicaJdbc.update("insert into replica_status values (0.5)");
+        lagMonitor.check();
+    }
+
+    @Test
+    void read_only_transactions_go_to_the_replica() {
+        assertThat(database(true)).isEqualTo("ROUTING-REPLICA");
+        assertThat(database(false)).isEqualTo("ROUTING-PRIMARY");
+    }
+
+    @Test
+    void read_only_work_joined_into_a_read_write_transaction_stays_on_the_primary() {
+        var readWrite = new TransactionTemplate(txManager);
+        var readOnly = new TransactionTemplate(txManager);
+        readOnly.setReadOnly(true);
+
+        String database = readWrite.execute(s -> readOnly.execute(r -> jdbc.queryForObject("select database()", String.class)));
+
+        assertThat(database).isEqualTo("ROUTING-PRIMARY");
+    }
+
+    @Test
+    void lagging_replica_falls_back_to_primary_until_it_catches_up() {
+        new JdbcTemplate(replica).update("update replica_status set lag_seconds = 30");
+        lagMonitor.check();
+
+        assertThat(lagMonitor.isReplicaUsable()).isFalse();
+        assertThat(database(true)).isEqualTo("ROUTING-PRIMARY");
+
+        new JdbcTemplate(replica).update("update replica_status set lag_seconds = 1");
+        lagMonitor.check();
+
+        assertThat(database(true)).isEqualTo("ROUTING-REPLICA");
+    }
+
+    @Test
+    void each_route_reports_its_own_pool_metrics() {
+        database(true);
+        database(false);
+
+        assertThat(meterRegistry.find("hikaricp.connections").tag("pool", "primary").gauge()).isNotNull();
+        assertThat(meterRegistry.find("hikaricp.connections").tag("pool", "replica").gauge()).isNotNull();
+        assertThat(meterRegistry.find("bank.datasource.replica.usable").gauge().value()).isEqualTo(1.0);
+    }
+
+    private String database(boolean readOnly) {
+        var tx = new TransactionTemplate(txManager);
+        tx.setReadOnly(readOnly);
+        return tx.execute(s -> jdbc.queryForObject("select database()", String.class));
+    }
+}
@@ -0,0 +1,88 @@
+package com.mybanking.app.common.retry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ConflictRetryAspectTest {
+
+    static class Target {
+        final AtomicInteger calls = new AtomicInteger();
+        int failuresBeforeSuccess;
+        RuntimeException failure = new CannotAcquireLockException("locked");
+
+        @RetryOnConflict
+        public String run() {
+            if (calls.incrementAndGet() <= failuresBeforeSuccess) throw failure;
+            return "ok";
+        }
+    }
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private Target proxy(Target target, int maxAttempts) {
+        var factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ConflictRetryAspect(registry, maxAttempts, 1, 2));
+        return factory.getProxy();
+    }
+
+    @Test
+    void retries_lock_failures_until_success() {
+        var target = new Target();
+        target.failuresBeforeSuccess = 2;
+
+        assertThat(proxy(target, 3).run()).isEqualTo("ok");
+        assertThat(target.calls).hasValue(3);
+    }
+
+    @Test
+    void retries_optimistic_failures_and_counts_them() {
+        var target = new Target();
+        target.failuresBeforeSuccess = 1;
+        target.failure = new ObjectOptimisticLockingFailureException(Object.class, "id");
+
+        assertThat(proxy(target, 3).run()).isEqualTo("ok");
+        assertThat(target.calls).hasValue(2);
+        assertThat(registry.find("bank.tx.conflict.retries")
+                .tag("cause", "ObjectOptimisticLockingFailureException").counter())
+                .isNotNull()
+                .satisfies(c -> assertThat(c.count()).isEqualTo(1.0));
+    }
+
+    @Test
+    void gives_up_after_max_attempts() {
+        var target = new Target();
+        target.failuresBeforeSuccess = 10;
+
+        assertThatThrownBy(() -> proxy(target, 3).run()).isInstanceOf(CannotAcquireLockException.class);
+        assertThat(target.calls).hasValue(3);
+        assertThat(registry.find("bank.tx.conflict.exhausted").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void does_not_retry_other_failures() {
+        var target = new Target();
+        target.failuresBeforeSuccess = 1;
+        target.failure = new DataIntegrityViolationException("dup");
+
+        assertThatThrownBy(() -> proxy(target, 3).run()).isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(target.calls).hasValue(1);
+    }
+
+    @Test
+    void backoff_is_bounded_and_jittered() {
+        var aspect = new ConflictRetryAspect(registry, 5, 20, 200);
+        for (int attempt = 1; attempt <= 10; attempt++) {
+            long cap = Math.min(200, 20L << (attempt - 1));
+            assertThat(aspect.backoffMs(attempt)).isBetween(cap / 2, cap);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.mybanking.app.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void never_misses_an_added_key() {
+        var filter = new BloomFilter(10_000, 0.001);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) keys.add(UUID.randomUUID().toString());
+        keys.forEach(filter::put);
+
+        assertThat(keys).allMatch(filter::mightContain);
+    }
+
+    @Test
+    void false_positive_rate_is_near_the_configured_one() {
+        var filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) filter.put(UUID.randomUUID().toString());
+
+        int hits = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) hits++;
+        }
+        assertThat(hits / 100_000.0).isLessThan(0.02);
+    }
+
+    @Test
+    void sized_from_entries_and_rate() {
+        var filter = new BloomFilter(100_000, 0.001);
+
+        assertThat(filter.bitSize()).isBetween(1_437_000L, 1_438_000L);
+        assertThat(filter.hashCount()).isEqualTo(10);
+    }
+
+    @Test
+    void rejects_bad_settings() {
+        assertThatThrownBy(() -> new BloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(10, 1.0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
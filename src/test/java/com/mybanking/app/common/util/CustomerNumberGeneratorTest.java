@@ -0,0 +1,93 @@
+package com.mybanking.app.common.util;
+
+import com.mybanking.app.user.dto.Role;
+import com.mybanking.app.user.entity.CustomerNumberBlock;
+import com.mybanking.app.user.entity.User;
+import com.mybanking.app.user.repository.CustomerNumberBlockRepository;
+import com.mybanking.app.user.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class CustomerNumberGeneratorTest {
+
+    @Autowired CustomerNumberBlockRepository blocks;
+    @Autowired UserRepository userRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    private CustomerNumberGenerator generator(int year, long blockSize) {
+        Clock clock = Clock.fixed(Instant.parse(year + "-06-01T00:00:00Z"), ZoneOffset.UTC);
+        return new CustomerNumberGenerator(blocks, userRepository, transactionManager, blockSize, clock);
+    }
+
+    @Test
+    void numbers_follow_the_year_sequence_in_blocks() {
+        var gen = generator(2040, 3);
+
+        assertThat(List.of(gen.next(), gen.next(), gen.next(), gen.next()))
+                .containsExactly("RB-2040-000000", "RB-2040-000001", "RB-2040-000002", "RB-2040-000003");
+        assertThat(blocks.findNextValue(2040)).contains(6L);
+    }
+
+    @Test
+    void two_nodes_under_contention_never_collide() throws Exception {
+        var nodes = List.of(generator(2041, 10), generator(2041, 10));
+        var pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<String>>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                var gen = nodes.get(t % 2);
+                futures.add(pool.submit(() -> {
+                    List<String> out = new ArrayList<>();
+                    for (int i = 0; i < 250; i++) out.add(gen.next());
+                    return out;
+                }));
+            }
+            Set<String> all = new HashSet<>();
+            for (var f : futures) all.addAll(f.get(60, TimeUnit.SECONDS));
+
+            assertThat(all).hasSize(2000).allMatch(n -> n.matches("RB-2041-\\d{6}"));
+            assertThat(blocks.findNextValue(2041)).hasValueSatisfying(v -> assertThat(v).isBetween(2000L, 2020L));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void creating_an_existing_years_block_inserts_instead_of_overwriting() {
+        blocks.saveAndFlush(CustomerNumberBlock.builder().issueYear(2044).nextValue(10).build());
+
+        assertThatThrownBy(() -> blocks.saveAndFlush(CustomerNumberBlock.builder().issueYear(2044).nextValue(20).build()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(blocks.findNextValue(2044)).contains(10L);
+    }
+
+    @Test
+    void new_year_starts_after_numbers_issued_before_the_sequence() {
+        userRepository.save(User.builder()
+                .customerNumber("RB-2042-500000")
+                .name("Legacy").surname("Number")
+                .email(UUID.randomUUID() + "@mybanking.nl")
+                .password("{noop}x")
+                .roles(Set.of(Role.USER))
+                .build());
+
+        assertThat(generator(2042, 10).next()).isEqualTo("RB-2042-500001");
+    }
+
+    @Test
+    void rejects_non_positive_block_size() {
+        assertThatThrownBy(() -> generator(2043, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
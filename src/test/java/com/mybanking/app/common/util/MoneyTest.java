@@ -0,0 +1,61 @@
+package com.mybanking.app.common.util;
+
+import com.mybanking.app.account.entity.Account;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void of_rounds_half_up_to_cents() {
+        assertThat(Money.of("10.005").minor()).isEqualTo(1001);
+        assertThat(Money.of("10.004").minor()).isEqualTo(1000);
+        assertThat(Money.of("-10.005").minor()).isEqualTo(-1001);
+        assertThat(Money.of("7").toBigDecimal()).isEqualTo(new BigDecimal("7.00"));
+    }
+
+    @Test
+    void basis_points_round_half_up_away_from_zero() {
+        assertThat(Money.of("0.50").basisPoints(100)).isEqualTo(Money.of("0.01"));   // 0.005
+        assertThat(Money.of("0.49").basisPoints(100)).isEqualTo(Money.ZERO);         // 0.0049
+        assertThat(Money.of("-0.50").basisPoints(100)).isEqualTo(Money.of("-0.01"));
+        assertThat(Money.of("123.45").basisPoints(100)).isEqualTo(Money.of("1.23"));
+    }
+
+    @Test
+    void overflow_is_rejected_instead_of_wrapping() {
+        var max = Money.ofMinor(Long.MAX_VALUE);
+
+        assertThatThrownBy(() -> max.plus(Money.ofMinor(1))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.ofMinor(Long.MIN_VALUE).minus(Money.ofMinor(1))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> max.basisPoints(100)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.of(new BigDecimal("1e30"))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.of("99999999999999999.99")).isInstanceOf(ArithmeticException.class);
+        assertThat(Money.of("9999999999999999.99").minor()).isEqualTo(999_999_999_999_999_999L);
+    }
+
+    @Test
+    void credit_card_fee_matches_the_decimal_rule() {
+        var policy = new FeePolicy.CreditCardOnePercent();
+
+        assertThat(policy.feeFor(FeePolicy.Operation.WITHDRAW, CardType.CREDIT, Money.of("100.50"))).isEqualTo(Money.of("1.01"));
+        assertThat(policy.feeFor(FeePolicy.Operation.WITHDRAW, CardType.DEBIT, Money.of("100.50"))).isSameAs(Money.ZERO);
+        assertThat(policy.feeFor(FeePolicy.Operation.TRANSFER, CardType.CREDIT, new BigDecimal("100.50")))
+                .isEqualByComparingTo("1.01");
+    }
+
+    @Test
+    void withdraw_with_fee_keeps_balance_when_insufficient() {
+        var account = Account.builder().balance(new BigDecimal("10.00")).build();
+
+        assertThatThrownBy(() -> account.withdrawWithFeeOrThrow(Money.of("9.99"), Money.of("0.02"),
+                () -> new IllegalStateException("insufficient")))
+                .isInstanceOf(IllegalStateException.class);
+        account.withdrawWithFeeOrThrow(Money.of("9.90"), Money.of("0.10"), IllegalStateException::new);
+
+        assertThat(account.getBalance()).isSameAs(Money.ZERO);
+    }
+}
@@ -3,6 +3,7 @@ package com.mybanking.app.e2e;
 import com.mybanking.app.account.entity.Account;
 import com.mybanking.app.account.repository.AccountRepository;
 import com.mybanking.app.account.service.AccountService;
+import com.mybanking.app.common.util.Money;
 import com.mybanking.app.transaction.service.TransactionService;
 import com.mybanking.app.user.entity.User;
 import com.mybanking.app.user.repository.UserRepository;
@@ -55,8 +56,8 @@ class FundsLifecycleFlowIT {
         var reloadedA1 = accountRepo.findById(a1.getId()).orElseThrow();
         var reloadedA2 = accountRepo.findById(a2.getId()).orElseThrow();
 
-        assertThat(reloadedA1.getBalance()).isEqualByComparingTo("750.00"); // 0 +1000 -200 -50
-        assertThat(reloadedA2.getBalance()).isEqualByComparingTo("200.00"); // 0 +200
+        assertThat(reloadedA1.getBalance()).isEqualTo(Money.of("750.00")); // 0 +1000 -200 -50
+        assertThat(reloadedA2.getBalance()).isEqualTo(Money.of("200.00")); // 0 +200
     }
 
     private static BigDecimal bd(String s) { return new BigDecimal(s); }
@@ -0,0 +1,159 @@
+package com.mybanking.app.engine;
+
+import com.mybanking.app.account.dto.AccountSnapshot;
+import com.mybanking.app.account.repository.AccountRepository;
+import com.mybanking.app.common.error.AppException;
+import com.mybanking.app.common.error.ErrorCode;
+import com.mybanking.app.common.util.CardType;
+import com.mybanking.app.common.util.FeePolicy;
+import com.mybanking.app.transaction.dto.BulkTransferRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerEngineTest {
+
+    @Mock AccountRepository accountRepo;
+    @Mock EngineJournal journal;
+
+    private final FeePolicy feePolicy = new FeePolicy.CreditCardOnePercent();
+    private final UUID owner = UUID.randomUUID();
+    private LedgerEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new LedgerEngine(accountRepo, feePolicy, journal, 2, 1024);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    private static UUID idOnShard(int shard) {
+        while (true) {
+            UUID id = UUID.randomUUID();
+            if (Math.floorMod(id.hashCode(), 2) == shard) return id;
+        }
+    }
+
+    private void account(UUID id, String number, UUID ownerId, CardType cardType, String balance) {
+        lenient().when(accountRepo.findSnapshotById(id))
+                .thenReturn(Optional.of(new AccountSnapshot(id, number, ownerId, cardType, new BigDecimal(balance))));
+        lenient().when(accountRepo.findIdByAccountNumber(number)).thenReturn(Optional.of(id));
+    }
+
+    @Test
+    void cross_shard_transfer_moves_funds_and_journals_once() {
+        UUID from = idOnShard(0);
+        UUID to = idOnShard(1);
+        account(from, "NL-A", owner, CardType.CREDIT, "100.00");
+        account(to, "NL-B", UUID.randomUUID(), null, "5.00");
+
+        var r = engine.transfer(from, "NL-B", new BigDecimal("50.00"), owner);
+
+        assertThat(r.feeCharged()).isEqualByComparingTo("0.50");
+        assertThat(r.fromNewBalance()).isEqualByComparingTo("49.50");
+        assertThat(r.toNewBalance()).isEqualByComparingTo("55.00");
+
+        var captor = ArgumentCaptor.forClass(EngineJournal.Entry.class);
+        verify(journal).append(captor.capture());
+        assertThat(captor.getValue().deltas())
+                .extracting(EngineJournal.Delta::amount)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("-50.50"), new BigDecimal("50.00"));
+        assertThat(captor.getValue().transfer().fromAccountId()).isEqualTo(from);
+    }
+
+    @Test
+    void failed_credit_releases_reservation() {
+        UUID from = idOnShard(0);
+        UUID missing = idOnShard(1);
+        account(from, "NL-A", owner, null, "100.00");
+        when(accountRepo.findIdByAccountNumber("NL-GONE")).thenReturn(Optional.of(missing));
+        when(accountRepo.findSnapshotById(missing)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> engine.transfer(from, "NL-GONE", new BigDecimal("60.00"), owner))
+                .isInstanceOfSatisfying(AppException.class,
+                        ex -> assertThat(ex.getErrorCode()).isEqualTo(ErrorCode.ACCOUNT_NOT_FOUND));
+
+        var w = engine.withdraw(from, new BigDecimal("100.00"), owner);
+        assertThat(w.newBalance()).isEqualByComparingTo("0.00");
+    }
+
+    @Test
+    void insufficient_balance_and_foreign_owner_are_rejected() {
+        UUID acc = idOnShard(0);
+        account(acc, "NL-A", owner, null, "10.00");
+
+        assertThatThrownBy(() -> engine.withdraw(acc, new BigDecimal("10.01"), owner))
+                .isInstanceOfSatisfying(AppException.class,
+                        ex -> assertThat(ex.getErrorCode()).isEqualTo(ErrorCode.INSUFFICIENT_BALANCE));
+        assertThatThrownBy(() -> engine.deposit(acc, BigDecimal.ONE, UUID.randomUUID()))
+                .isInstanceOfSatisfying(AppException.class,
+                        ex -> assertThat(ex.getErrorCode()).isEqualTo(ErrorCode.ACCOUNT_FORBIDDEN));
+        verify(journal, never()).append(any());
+    }
+
+    @Test
+    void bulk_items_with_sub_cent_amounts_fail_alone() {
+        UUID from = idOnShard(0);
+        UUID to = idOnShard(1);
+        account(from, "NL-A", owner, null, "10.00");
+        account(to, "NL-B", UUID.randomUUID(), null, "0.00");
+
+        var r = engine.bulkTransfer(from, List.of(
+                new BulkTransferRequest.Item("NL-B", new BigDecimal("0.015")),
+                new BulkTransferRequest.Item("NL-B", new BigDecimal("1.00"))), owner);
+
+        assertThat(r.succeeded()).isEqualTo(1);
+        assertThat(r.items().get(0).errorCode()).isEqualTo(ErrorCode.VALIDATION_ERROR.name());
+        assertThat(r.fromNewBalance()).isEqualByComparingTo("9.00");
+        verify(journal, times(1)).append(any());
+    }
+
+    @Test
+    void concurrent_opposite_transfers_conserve_money() throws Exception {
+        UUID a = idOnShard(0);
+        UUID b = idOnShard(1);
+        account(a, "NL-A", owner, null, "1000.00");
+        account(b, "NL-B", owner, null, "1000.00");
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch done = new CountDownLatch(400);
+        for (int i = 0; i < 400; i++) {
+            boolean forward = i % 2 == 0;
+            pool.submit(() -> {
+                try {
+                    engine.transfer(forward ? a : b, forward ? "NL-B" : "NL-A", new BigDecimal("3.00"), owner);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        pool.shutdown();
+
+        var left = engine.deposit(a, new BigDecimal("0.01"), owner).newBalance();
+        var right = engine.deposit(b, new BigDecimal("0.01"), owner).newBalance();
+        assertThat(left.add(right)).isEqualByComparingTo("2000.02");
+        assertThat(left).isEqualByComparingTo("1000.01");
+    }
+}
@@ -0,0 +1,80 @@
+package com.mybanking.app.fee.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mybanking.app.auth.service.TokenRevocationService;
+import com.mybanking.app.common.util.FeePolicy;
+import com.mybanking.app.fee.dto.FeeQuoteRequest;
+import com.mybanking.app.fee.dto.FeeQuoteResponse;
+import com.mybanking.app.fee.service.FeeQuoteService;
+import com.mybanking.app.security.JwtTokenProvider;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static com.mybanking.app.common.security.SecurityUtils.currentUserId;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = FeeController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class FeeControllerTest {
+
+    @Autowired MockMvc mvc;
+    @Autowired ObjectMapper om;
+    @MockitoBean JwtTokenProvider jwtTokenProvider;
+    @MockitoBean TokenRevocationService tokenRevocationService;
+
+    @MockitoBean FeeQuoteService feeQuoteService;
+
+    @Test
+    void quote_ok() throws Exception {
+        UUID userId  = UUID.fromString("aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
+        UUID account = UUID.fromString("11111111-1111-1111-1111-111111111111");
+
+        var items = List.of(
+                new FeeQuoteRequest.Item(account, FeePolicy.Operation.WITHDRAW, new BigDecimal("100.00")),
+                new FeeQuoteRequest.Item(account, FeePolicy.Operation.DEPOSIT, new BigDecimal("50.00")));
+        when(feeQuoteService.quote(items, userId)).thenReturn(new FeeQuoteResponse(List.of(
+                new FeeQuoteResponse.Item(0, account, FeePolicy.Operation.WITHDRAW, new BigDecimal("100.00"),
+                        new BigDecimal("1.00"), new BigDecimal("-101.00"), null, null),
+                new FeeQuoteResponse.Item(1, account, FeePolicy.Operation.DEPOSIT, new BigDecimal("50.00"),
+                        new BigDecimal("0.50"), new BigDecimal("49.50"), null, null))));
+
+        try (MockedStatic<?> ignored = mockStatic(
+                com.mybanking.app.common.security.SecurityUtils.class)) {
+            when(currentUserId()).thenReturn(userId);
+
+            mvc.perform(post("/api/fees/quote")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(om.writeValueAsString(new FeeQuoteRequest(items))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items[0].fee").value(1.0))
+                    .andExpect(jsonPath("$.items[0].balanceChange").value(-101.0))
+                    .andExpect(jsonPath("$.items[1].operation").value("DEPOSIT"))
+                    .andExpect(jsonPath("$.items[1].balanceChange").value(49.5));
+        }
+    }
+
+    @Test
+    void quote_rejects_non_positive_amount() throws Exception {
+        var bad = new FeeQuoteRequest(List.of(new FeeQuoteRequest.Item(
+                UUID.fromString("11111111-1111-1111-1111-111111111111"), FeePolicy.Operation.TRANSFER, BigDecimal.ZERO)));
+
+        mvc.perform(post("/api/fees/quote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(bad)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(feeQuoteService);
+    }
+}
@@ -0,0 +1,74 @@
+package com.mybanking.app.fee.service;
+
+import com.mybanking.app.account.dto.AccountFeeView;
+import com.mybanking.app.account.repository.AccountRepository;
+import com.mybanking.app.common.util.CardType;
+import com.mybanking.app.common.util.FeePolicy;
+import com.mybanking.app.common.util.FeePolicy.Operation;
+import com.mybanking.app.common.util.Money;
+import com.mybanking.app.fee.dto.FeeQuoteRequest;
+import com.mybanking.app.fee.dto.FeeQuoteResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FeeQuoteServiceTest {
+
+    @Mock AccountRepository accountRepo;
+
+    private final FeePolicy feePolicy = new FeePolicy.CreditCardOnePercent();
+    private final UUID owner = UUID.randomUUID();
+    private final UUID credit = UUID.randomUUID();
+    private final UUID plain = UUID.randomUUID();
+    private final UUID foreign = UUID.randomUUID();
+
+    @Test
+    void quotes_each_item_from_one_projection_query() {
+        when(accountRepo.findFeeViewsByIdIn(Set.of(credit, plain, foreign))).thenReturn(List.of(
+                new AccountFeeView(credit, owner, CardType.CREDIT),
+                new AccountFeeView(plain, owner, null),
+                new AccountFeeView(foreign, UUID.randomUUID(), CardType.CREDIT)));
+        var service = new FeeQuoteService(accountRepo, feePolicy);
+
+        var out = service.quote(List.of(
+                new FeeQuoteRequest.Item(credit, Operation.WITHDRAW, new BigDecimal("100.00")),
+                new FeeQuoteRequest.Item(credit, Operation.DEPOSIT, new BigDecimal("50.00")),
+                new FeeQuoteRequest.Item(plain, Operation.TRANSFER, new BigDecimal("10.00")),
+                new FeeQuoteRequest.Item(foreign, Operation.TRANSFER, new BigDecimal("10.00"))), owner).items();
+
+        assertThat(out).extracting(FeeQuoteResponse.Item::fee)
+                .containsExactly(new BigDecimal("1.00"), new BigDecimal("0.50"), new BigDecimal("0.00"), null);
+        assertThat(out.get(0).balanceChange()).isEqualByComparingTo("-101.00");
+        assertThat(out.get(1).balanceChange()).isEqualByComparingTo("49.50");
+        assertThat(out.get(2).balanceChange()).isEqualByComparingTo("-10.00");
+        assertThat(out.get(3).errorCode()).isEqualTo("ACCOUNT_NOT_FOUND");
+        verify(accountRepo, times(1)).findFeeViewsByIdIn(any());
+        verifyNoMoreInteractions(accountRepo);
+    }
+
+    @Test
+    void deposit_eaten_by_its_fee_is_quoted_as_the_deposit_error() {
+        when(accountRepo.findFeeViewsByIdIn(Set.of(plain))).thenReturn(List.of(new AccountFeeView(plain, owner, null)));
+        FeePolicy flatFee = (op, cardType, amount) -> Money.of("1.00");
+        var service = new FeeQuoteService(accountRepo, flatFee);
+
+        var out = service.quote(List.of(
+                new FeeQuoteRequest.Item(plain, Operation.DEPOSIT, new BigDecimal("1.00")),
+                new FeeQuoteRequest.Item(plain, Operation.DEPOSIT, new BigDecimal("1.01"))), owner).items();
+
+        assertThat(out.get(0)).extracting(FeeQuoteResponse.Item::balanceChange, FeeQuoteResponse.Item::errorCode,
+                FeeQuoteResponse.Item::message).containsExactly(null, "VALIDATION_ERROR", "Net amount must be > 0");
+        assertThat(out.get(1).balanceChange()).isEqualByComparingTo("0.01");
+        assertThat(out.get(1).errorCode()).isNull();
+    }
+}
@@ -0,0 +1,100 @@
+package com.mybanking.app.fee.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mybanking.app.common.util.CardType;
+import com.mybanking.app.common.util.FeePolicy.Operation;
+import com.mybanking.app.common.util.Money;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.*;
+
+class FeeRuleEngineTest {
+
+    @TempDir Path dir;
+
+    private static final String RULES = """
+            {"rules": [
+              {"cardType": "CREDIT", "tiers": [{"from": 0, "basisPoints": 100}]},
+              {"operation": "TRANSFER", "cardType": "CREDIT", "tiers": [{"from": 0, "basisPoints": 0}]},
+              {"operation": "WITHDRAW", "cardType": "DEBIT", "min": 0.50, "max": 5.00, "tiers": [
+                {"from": 0, "basisPoints": 50, "fixed": 0.25},
+                {"from": 1000, "basisPoints": 20}
+              ]},
+              {"operation": "WITHDRAW", "cardType": "NONE", "tiers": [{"from": 0, "fixed": 2.00}]}
+            ]}
+            """;
+
+    @Test
+    void most_specific_rule_wins_over_wildcards() throws IOException {
+        var engine = engine(RULES);
+
+        assertThat(engine.feeFor(Operation.WITHDRAW, CardType.CREDIT, Money.of("100.00"))).isEqualTo(Money.of("1.00"));
+        assertThat(engine.feeFor(Operation.DEPOSIT, CardType.CREDIT, Money.of("100.00"))).isEqualTo(Money.of("1.00"));
+        assertThat(engine.feeFor(Operation.TRANSFER, CardType.CREDIT, Money.of("100.00"))).isSameAs(Money.ZERO);
+        assertThat(engine.feeFor(Operation.TRANSFER, CardType.DEBIT, Money.of("100.00"))).isSameAs(Money.ZERO);
+        assertThat(engine.feeFor(Operation.WITHDRAW, null, Money.of("100.00"))).isEqualTo(Money.of("2.00"));
+    }
+
+    @Test
+    void tiers_and_caps_apply_per_amount() throws IOException {
+        var engine = engine(RULES);
+
+        // 0.5% + 0.25, lifted to the 0.50 minimum
+        assertThat(engine.feeFor(Operation.WITHDRAW, CardType.DEBIT, Money.of("10.00"))).isEqualTo(Money.of("0.50"));
+        // 0.5% of 999.99 = 4.99995 -> 5.00, + 0.25, capped at 5.00
+        assertThat(engine.feeFor(Operation.WITHDRAW, CardType.DEBIT, Money.of("999.99"))).isEqualTo(Money.of("5.00"));
+        // second tier: 0.2% of 1000
+        assertThat(engine.feeFor(Operation.WITHDRAW, CardType.DEBIT, Money.of("1000.00"))).isEqualTo(Money.of("2.00"));
+    }
+
+    @Test
+    void invalid_rules_fail_at_startup() throws IOException {
+        assertThatThrownBy(() -> engine("""
+                {"rules": [{"cardType": "DEBIT", "tiers": [{"from": 100, "basisPoints": 10}, {"from": 50, "basisPoints": 5}]}]}
+                """)).isInstanceOf(IllegalArgumentException.class).hasMessageContaining("ascend");
+        assertThatThrownBy(() -> engine("""
+                {"rules": [{"cardType": "GOLD", "tiers": [{"from": 0}]}]}
+                """)).hasMessageContaining("unknown card type GOLD");
+        assertThatThrownBy(() -> engine("""
+                {"rules": [{"cardType": "DEBIT", "tiers": [{"from": 0}]}, {"cardType": "DEBIT", "tiers": [{"from": 0}]}]}
+                """)).hasMessageContaining("duplicates");
+    }
+
+    @Test
+    void changed_file_is_recompiled_and_a_broken_one_is_ignored() throws IOException {
+        Path file = dir.resolve("fees.json");
+        var engine = engine(file, RULES);
+
+        write(file, """
+                {"rules": [{"tiers": [{"from": 0, "basisPoints": 250}]}]}
+                """, 10);
+        engine.reloadIfChanged();
+        assertThat(engine.feeFor(Operation.DEPOSIT, null, Money.of("100.00"))).isEqualTo(Money.of("2.50"));
+
+        write(file, "{\"rules\": [{\"tiers\": []}]}", 20);
+        engine.reloadIfChanged();
+        assertThat(engine.feeFor(Operation.DEPOSIT, null, Money.of("100.00"))).isEqualTo(Money.of("2.50"));
+    }
+
+    private FeeRuleEngine engine(String json) throws IOException {
+        return engine(Files.createTempFile(dir, "fees", ".json"), json);
+    }
+
+    private FeeRuleEngine engine(Path file, String json) throws IOException {
+        Files.writeString(file, json);
+        return new FeeRuleEngine(new DefaultResourceLoader(), new ObjectMapper(), "file:" + file);
+    }
+
+    private static void write(Path file, String json, int secondsLater) throws IOException {
+        Files.writeString(file, json);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(secondsLater)));
+    }
+}
@@ -0,0 +1,199 @@
+package com.mybanking.app.idempotency.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mybanking.app.account.dto.WithdrawRequest;
+import com.mybanking.app.account.dto.WithdrawResponse;
+import com.mybanking.app.common.error.AppException;
+import com.mybanking.app.common.error.ErrorCode;
+import com.mybanking.app.idempotency.entity.IdempotencyRecord;
+import com.mybanking.app.idempotency.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock IdempotencyRecordRepository repository;
+    @Mock PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private IdempotencyService service;
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID accountId = UUID.randomUUID();
+    private final UUID claimId = UUID.randomUUID();
+    private final WithdrawRequest request = new WithdrawRequest(new BigDecimal("10.00"));
+
+    @BeforeEach
+    void setUp() {
+        service = new IdempotencyService(repository, objectMapper, transactionManager, 100, Duration.ofHours(24));
+    }
+
+    private WithdrawResponse response(String newBalance) {
+        return new WithdrawResponse(accountId, new BigDecimal("10.00"), BigDecimal.ZERO, new BigDecimal(newBalance));
+    }
+
+    private void stubClaim() {
+        when(repository.saveAndFlush(any(IdempotencyRecord.class))).thenAnswer(inv -> {
+            IdempotencyRecord r = inv.getArgument(0);
+            r.setId(claimId);
+            return r;
+        });
+    }
+
+    @Test
+    void no_key_runs_action_without_store() {
+        var r = service.execute(userId, null, "withdraw:" + accountId, request, WithdrawResponse.class,
+                () -> response("90.00"));
+
+        assertThat(r.newBalance()).isEqualByComparingTo("90.00");
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void repeated_key_replays_first_response_from_cache() {
+        stubClaim();
+        when(repository.findById(claimId)).thenReturn(Optional.of(new IdempotencyRecord()));
+        AtomicInteger calls = new AtomicInteger();
+
+        var first = service.execute(userId, "k1", "withdraw:" + accountId, request, WithdrawResponse.class,
+                () -> response(calls.incrementAndGet() == 1 ? "90.00" : "80.00"));
+        var second = service.execute(userId, "k1", "withdraw:" + accountId, request, WithdrawResponse.class,
+                () -> response(calls.incrementAndGet() == 1 ? "90.00" : "80.00"));
+
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(second.newBalance()).isEqualByComparingTo(first.newBalance());
+        verify(repository, times(1)).saveAndFlush(any());
+    }
+
+    @Test
+    void same_key_different_body_is_rejected() {
+        stubClaim();
+        when(repository.findById(claimId)).thenReturn(Optional.of(new IdempotencyRecord()));
+        service.execute(userId, "k1", "withdraw:" + accountId, request, WithdrawResponse.class, () -> response("90.00"));
+
+        assertThatThrownBy(() -> service.execute(userId, "k1", "withdraw:" + accountId,
+                new WithdrawRequest(new BigDecimal("20.00")), WithdrawResponse.class, () -> response("70.00")))
+                .isInstanceOf(AppException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.IDEMPOTENCY_KEY_REUSED);
+    }
+
+    @Test
+    void completed_record_in_store_is_replayed() throws Exception {
+        when(repository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("dup"));
+        var stored = new IdempotencyRecord();
+        stored.setStatus(IdempotencyRecord.Status.COMPLETED);
+        stored.setRequestHash(requestFingerprint());
+        stored.setResponseBody(objectMapper.writeValueAsString(response("90.00")));
+        when(repository.findByUserIdAndIdemKey(userId, "k1")).thenReturn(Optional.of(stored));
+
+        var r = service.execute(userId, "k1", "withdraw:" + accountId, request, WithdrawResponse.class,
+                () -> { throw new AssertionError("must not run"); });
+
+        assertThat(r.newBalance()).isEqualByComparingTo("90.00");
+    }
+
+    @Test
+    void in_progress_record_in_store_is_conflict() {
+        when(repository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("dup"));
+        var stored = new IdempotencyRecord();
+        stored.setStatus(IdempotencyRecord.Status.IN_PROGRESS);
+        stored.setRequestHash(requestFingerprint());
+        when(repository.findByUserIdAndIdemKey(userId, "k1")).thenReturn(Optional.of(stored));
+
+        assertThatThrownBy(() -> service.execute(userId, "k1", "withdraw:" + accountId, request,
+                WithdrawResponse.class, () -> response("90.00")))
+                .isInstanceOf(AppException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.IDEMPOTENCY_IN_PROGRESS);
+    }
+
+    @Test
+    void failed_action_releases_claim() {
+        stubClaim();
+
+        assertThatThrownBy(() -> service.execute(userId, "k1", "withdraw:" + accountId, request,
+                WithdrawResponse.class, () -> { throw new IllegalStateException("boom"); }))
+                .isInstanceOf(IllegalStateException.class);
+
+        verify(repository).deleteById(claimId);
+    }
+
+    @Test
+    void concurrent_duplicates_execute_once() throws Exception {
+        stubClaim();
+        when(repository.findById(claimId)).thenReturn(Optional.of(new IdempotencyRecord()));
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<WithdrawResponse> first = pool.submit(() -> service.execute(userId, "k1", "withdraw:" + accountId,
+                    request, WithdrawResponse.class, () -> {
+                        calls.incrementAndGet();
+                        entered.countDown();
+                        awaitQuietly(release);
+                        return response("90.00");
+                    }));
+            assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+            Future<WithdrawResponse> second = pool.submit(() -> service.execute(userId, "k1", "withdraw:" + accountId,
+                    request, WithdrawResponse.class, () -> {
+                        calls.incrementAndGet();
+                        return response("80.00");
+                    }));
+            Thread.sleep(50);
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS).newBalance()).isEqualByComparingTo("90.00");
+            assertThat(second.get(5, TimeUnit.SECONDS).newBalance()).isEqualByComparingTo("90.00");
+            assertThat(calls.get()).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private String requestFingerprint() {
+        var captured = new String[1];
+        var repo = mock(IdempotencyRecordRepository.class);
+        when(repo.saveAndFlush(any())).thenAnswer(inv -> {
+            IdempotencyRecord r = inv.getArgument(0);
+            captured[0] = r.getRequestHash();
+            throw new IllegalStateException("probe");
+        });
+        var probe = new IdempotencyService(repo, objectMapper, transactionManager, 1, Duration.ofHours(1));
+        try {
+            probe.execute(userId, "probe", "withdraw:" + accountId, request, WithdrawResponse.class, () -> response("0.00"));
+        } catch (IllegalStateException ignored) {
+        }
+        return captured[0];
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.mybanking.app.ledger.service;
+
+import com.mybanking.app.account.dto.AccountSummary;
+import com.mybanking.app.account.repository.AccountRepository;
+import com.mybanking.app.common.util.CardType;
+import com.mybanking.app.ledger.entity.BalanceCheckpoint;
+import com.mybanking.app.ledger.entity.BalanceSummaryRow;
+import com.mybanking.app.ledger.repository.BalanceCheckpointRepository;
+import com.mybanking.app.ledger.repository.BalanceSummaryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceSummaryServiceTest {
+
+    @Mock BalanceSummaryRepository summaryRepo;
+    @Mock BalanceCheckpointRepository checkpointRepo;
+    @Mock AccountRepository accountRepo;
+
+    @InjectMocks BalanceSummaryService service;
+
+    private final UUID accountId = UUID.randomUUID();
+    private final UUID newAccountId = UUID.randomUUID();
+    private final Instant asOf = Instant.parse("2026-03-01T10:00:00Z");
+
+    private static BalanceSummaryRow summaryRow(String card, int bucket, long accounts, String total) {
+        return BalanceSummaryRow.builder().cardType(card).bucket(bucket).accounts(accounts).total(new BigDecimal(total)).build();
+    }
+
+    private BalanceCheckpoint checkpoint(UUID id, String balance) {
+        return new BalanceCheckpoint(UUID.randomUUID(), id, asOf, new BigDecimal(balance));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void roll_moves_changed_accounts_between_buckets() {
+        var existing = summaryRow("DEBIT", 0, 1, "50.00");
+        when(summaryRepo.findAll()).thenReturn(new ArrayList<>(List.of(existing)));
+        when(accountRepo.findSummariesByIdIn(anyCollection())).thenReturn(List.of(
+                new AccountSummary(accountId, "NL01", CardType.DEBIT, BigDecimal.ZERO),
+                new AccountSummary(newAccountId, "NL02", null, BigDecimal.ZERO)));
+
+        service.roll(Map.of(accountId, new BigDecimal("50.00")), List.of(
+                checkpoint(accountId, "250.00"),
+                checkpoint(newAccountId, "20.00"),
+                checkpoint(UUID.randomUUID(), "-270.00")));
+
+        ArgumentCaptor<Collection<BalanceSummaryRow>> saved = ArgumentCaptor.forClass(Collection.class);
+        verify(summaryRepo).saveAll(saved.capture());
+        assertThat(saved.getValue())
+                .extracting(BalanceSummaryRow::getCardType, BalanceSummaryRow::getBucket, BalanceSummaryRow::getAccounts,
+                        r -> r.getTotal().toPlainString())
+                .containsExactlyInAnyOrder(
+                        tuple("DEBIT", 0, 0L, "0.00"),
+                        tuple("DEBIT", 1, 1L, "250.00"),
+                        tuple("NONE", 0, 1L, "20.00"));
+    }
+
+    @Test
+    void report_reads_summary_rows_with_checkpoint_time() {
+        when(summaryRepo.findAll()).thenReturn(List.of(
+                summaryRow("DEBIT", 1, 2, "500.00"),
+                summaryRow("CREDIT", 3, 1, "20000.00")));
+        when(checkpointRepo.findLatestAsOf()).thenReturn(Optional.of(asOf));
+
+        var report = service.report();
+
+        assertThat(report.accounts()).isEqualTo(3);
+        assertThat(report.totalLiabilities()).isEqualByComparingTo("20500.00");
+        assertThat(report.byCardType()).containsEntry("DEBIT", 2L).containsEntry("CREDIT", 1L);
+        assertThat(report.histogram().get(1).accounts()).isEqualTo(2);
+        assertThat(report.asOf()).isEqualTo(asOf);
+        verifyNoInteractions(accountRepo);
+    }
+}
@@ -0,0 +1,155 @@
+package com.mybanking.app.ledger.service;
+
+import com.mybanking.app.account.dto.AccountSnapshot;
+import com.mybanking.app.account.repository.AccountRepository;
+import com.mybanking.app.common.error.AppException;
+import com.mybanking.app.common.error.ErrorCode;
+import com.mybanking.app.ledger.dto.AccountDelta;
+import com.mybanking.app.ledger.entity.BalanceCheckpoint;
+import com.mybanking.app.ledger.entity.Posting;
+import com.mybanking.app.ledger.repository.BalanceCheckpointRepository;
+import com.mybanking.app.ledger.repository.PostingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerServiceTest {
+
+    @Mock PostingRepository postingRepo;
+    @Mock BalanceCheckpointRepository checkpointRepo;
+    @Mock AccountRepository accountRepo;
+    @Mock BalanceSummaryService balanceSummary;
+
+    private final PendingPostings pendingPostings = new PendingPostings();
+    private LedgerService service;
+
+    private final UUID ownerId = UUID.randomUUID();
+    private final UUID accountId = UUID.randomUUID();
+    private final UUID otherId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        service = new LedgerService(postingRepo, checkpointRepo, accountRepo, balanceSummary, pendingPostings, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void operations_post_balanced_legs() {
+        Instant now = Instant.now();
+        var ops = List.of(
+                Postings.opening(accountId, new BigDecimal("100.00"), now),
+                Postings.deposit(accountId, new BigDecimal("50.00"), new BigDecimal("1.00"), now),
+                Postings.withdrawal(accountId, new BigDecimal("20.00"), BigDecimal.ZERO, now),
+                Postings.transfer(UUID.randomUUID(), accountId, otherId, new BigDecimal("10.00"), new BigDecimal("0.50"), now));
+
+        for (var legs : ops) {
+            assertThat(sum(legs)).isEqualByComparingTo("0");
+            assertThat(legs).extracting(Posting::getOperationId).containsOnly(legs.get(0).getOperationId());
+        }
+        assertThat(ops.get(2)).hasSize(2);
+        BigDecimal accountTotal = ops.stream().flatMap(List::stream)
+                .filter(p -> p.getAccountId().equals(accountId))
+                .map(Posting::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertThat(accountTotal).isEqualByComparingTo("118.50");
+    }
+
+    @Test
+    void balanceAt_adds_tail_to_last_checkpoint() {
+        Instant cpAt = Instant.parse("2026-01-01T00:00:00Z");
+        Instant at = Instant.parse("2026-01-01T12:00:00Z");
+        when(accountRepo.findSnapshotById(accountId))
+                .thenReturn(Optional.of(new AccountSnapshot(accountId, "NL01", ownerId, null, new BigDecimal("999.00"))));
+        when(checkpointRepo.findFirstByAccountIdAndAsOfLessThanEqualOrderByAsOfDesc(accountId, at))
+                .thenReturn(Optional.of(new BalanceCheckpoint(UUID.randomUUID(), accountId, cpAt, new BigDecimal("100.00"))));
+        when(postingRepo.sumForAccount(accountId, cpAt, at)).thenReturn(new BigDecimal("-25.00"));
+
+        assertThat(service.balanceAt(accountId, at, ownerId)).isEqualByComparingTo("75.00");
+    }
+
+    @Test
+    void balanceAt_without_checkpoint_sums_from_start() {
+        Instant at = Instant.parse("2026-01-01T12:00:00Z");
+        when(accountRepo.findSnapshotById(accountId))
+                .thenReturn(Optional.of(new AccountSnapshot(accountId, "NL01", ownerId, null, BigDecimal.ZERO)));
+        when(checkpointRepo.findFirstByAccountIdAndAsOfLessThanEqualOrderByAsOfDesc(accountId, at)).thenReturn(Optional.empty());
+        when(postingRepo.sumForAccount(accountId, Instant.EPOCH, at)).thenReturn(new BigDecimal("40.00"));
+
+        assertThat(service.balanceAt(accountId, at, ownerId)).isEqualByComparingTo("40.00");
+    }
+
+    @Test
+    void balanceAt_not_owner_forbidden() {
+        when(accountRepo.findSnapshotById(accountId))
+                .thenReturn(Optional.of(new AccountSnapshot(accountId, "NL01", ownerId, null, BigDecimal.ZERO)));
+
+        assertThatThrownBy(() -> service.balanceAt(accountId, Instant.now(), UUID.randomUUID()))
+                .isInstanceOfSatisfying(AppException.class,
+                        ex -> assertThat(ex.getErrorCode()).isEqualTo(ErrorCode.ACCOUNT_FORBIDDEN));
+        verifyNoInteractions(postingRepo, checkpointRepo);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void checkpoint_rolls_previous_balances_forward() {
+        Instant previous = Instant.now().minus(Duration.ofHours(1));
+        when(checkpointRepo.findLatestAsOf()).thenReturn(Optional.of(previous));
+        when(postingRepo.sumByAccount(eq(previous), any())).thenReturn(List.of(
+                new AccountDelta(accountId, new BigDecimal("-30.00")),
+                new AccountDelta(otherId, new BigDecimal("30.00"))));
+        when(checkpointRepo.findLatestFor(List.of(accountId, otherId))).thenReturn(List.of(
+                new BalanceCheckpoint(UUID.randomUUID(), accountId, previous, new BigDecimal("100.00"))));
+
+        assertThat(service.checkpoint()).isEqualTo(2);
+
+        ArgumentCaptor<List<BalanceCheckpoint>> saved = ArgumentCaptor.forClass(List.class);
+        verify(checkpointRepo).saveAll(saved.capture());
+        assertThat(saved.getValue())
+                .extracting(BalanceCheckpoint::getAccountId, c -> c.getBalance().toPlainString())
+                .containsExactlyInAnyOrder(tuple(accountId, "70.00"), tuple(otherId, "30.00"));
+        assertThat(saved.getValue()).allSatisfy(c -> assertThat(c.getAsOf()).isBefore(Instant.now().minusSeconds(59)));
+        verify(balanceSummary).roll(java.util.Map.of(accountId, new BigDecimal("100.00")), saved.getValue());
+    }
+
+    @Test
+    void checkpoint_stops_before_postings_still_pending_in_a_journal() {
+        Instant previous = Instant.now().minus(Duration.ofHours(1));
+        Instant pending = Instant.now().minus(Duration.ofMinutes(10));
+        pendingPostings.add(pending);
+        when(checkpointRepo.findLatestAsOf()).thenReturn(Optional.of(previous));
+        when(postingRepo.sumByAccount(previous, pending.minusNanos(1))).thenReturn(List.of());
+
+        assertThat(service.checkpoint()).isZero();
+
+        pendingPostings.remove(pending);
+        assertThat(pendingPostings.settledBefore(Instant.EPOCH.plusSeconds(1))).isEqualTo(Instant.EPOCH.plusSeconds(1));
+    }
+
+    @Test
+    void checkpoint_skips_when_nothing_moved() {
+        when(checkpointRepo.findLatestAsOf()).thenReturn(Optional.empty());
+        when(postingRepo.sumByAccount(eq(Instant.EPOCH), any())).thenReturn(List.of());
+
+        assertThat(service.checkpoint()).isZero();
+        verify(checkpointRepo, never()).saveAll(any());
+        verifyNoInteractions(balanceSummary);
+    }
+
+    private static BigDecimal sum(List<Posting> legs) {
+        return legs.stream().map(Posting::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
@@ -0,0 +1,86 @@
+package com.mybanking.app.security;
+
+import com.mybanking.app.user.dto.Role;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "xdpYwoBA592ZeWodsOsxkR0f3TpuXgUC9FnzggPQXVg";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final JwtTokenProvider jwt = new JwtTokenProvider(SECRET, 3600, "MyBankingBV", 100, registry);
+
+    @Test
+    void authenticate_returns_subject_and_role_authorities() {
+        var token = jwt.createToken("user-1", Set.of(Role.ADMIN));
+
+        var principal = jwt.authenticate(token).orElseThrow();
+
+        assertThat(principal.subject()).isEqualTo("user-1");
+        assertThat(principal.authorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_ADMIN");
+        assertThat(principal.expiresAt()).isAfter(Instant.now());
+    }
+
+    @Test
+    void every_token_gets_its_own_id() {
+        var first = jwt.authenticate(jwt.createToken("user-1", Set.of(Role.USER))).orElseThrow();
+        var second = jwt.authenticate(jwt.createToken("user-1", Set.of(Role.USER))).orElseThrow();
+
+        assertThat(first.tokenId()).isNotBlank().isNotEqualTo(second.tokenId());
+    }
+
+    @Test
+    void repeat_token_is_served_from_the_cache() {
+        var token = jwt.createToken("user-1", Set.of(Role.USER));
+
+        var first = jwt.authenticate(token).orElseThrow();
+        var second = jwt.authenticate(token).orElseThrow();
+
+        assertThat(second).isSameAs(first);
+        assertThat(registry.get("cache.gets").tag("cache", "jwt.claims").tag("result", "hit").functionCounter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void forged_foreign_and_expired_tokens_are_rejected() {
+        var token = jwt.createToken("user-1", Set.of(Role.USER));
+        var other = new JwtTokenProvider(SECRET, 3600, "SomeoneElse", 100, new SimpleMeterRegistry());
+
+        assertThat(jwt.authenticate(token.substring(0, token.length() - 2) + "xx")).isEmpty();
+        assertThat(jwt.authenticate(other.createToken("user-1", Set.of(Role.USER)))).isEmpty();
+        assertThat(jwt.authenticate(signed(Instant.now().minusSeconds(5)))).isEmpty();
+        assertThat(jwt.authenticate("not-a-jwt")).isEmpty();
+    }
+
+    @Test
+    void cached_principal_is_not_served_past_token_expiry() throws InterruptedException {
+        var token = signed(Instant.now().plusMillis(1500));
+        assertThat(jwt.authenticate(token)).isPresent();
+
+        Thread.sleep(1600);
+
+        assertThat(jwt.authenticate(token)).isEmpty();
+    }
+
+    private static String signed(Instant exp) {
+        return Jwts.builder()
+                .setSubject("user-1")
+                .setIssuer("MyBankingBV")
+                .claim("roles", List.of("USER"))
+                .setExpiration(Date.from(exp))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
@@ -1,10 +1,15 @@
 package com.mybanking.app.transaction.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mybanking.app.auth.service.TokenRevocationService;
 import com.mybanking.app.security.JwtTokenProvider;
+import com.mybanking.app.transaction.dto.BulkTransferRequest;
+import com.mybanking.app.transaction.dto.BulkTransferResult;
 import com.mybanking.app.transaction.dto.TransferRequest;
 import com.mybanking.app.transaction.dto.TransferResult;
 import com.mybanking.app.transaction.service.TransactionService;
+import com.mybanking.app.idempotency.service.IdempotencyService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,7 +20,9 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import static com.mybanking.app.common.security.SecurityUtils.currentUserId;
 import static org.mockito.Mockito.*;
@@ -30,9 +37,20 @@ class TransactionControllerTest {
     @Autowired ObjectMapper om;
     @MockitoBean
     JwtTokenProvider jwtTokenProvider;
+    @MockitoBean
+    TokenRevocationService tokenRevocationService;
 
     @MockitoBean TransactionService transactionService;
 
+    @MockitoBean
+    IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void passThroughIdempotency() {
+        when(idempotencyService.execute(any(), any(), any(), any(), any(), any()))
+                .thenAnswer(inv -> ((Supplier<?>) inv.getArgument(5)).get());
+    }
+
     @Test
     void transfer_ok() throws Exception {
         UUID userId = UUID.fromString("aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
@@ -87,4 +105,63 @@ class TransactionControllerTest {
 
         verifyNoInteractions(transactionService);
     }
+
+    @Test
+    void transfer_amount_beyond_cents_range_is_400() throws Exception {
+        for (String amount : new String[]{"99999999999999999.99", "10.001"}) {
+            var bad = new TransferRequest(UUID.fromString("11111111-1111-1111-1111-111111111111"),
+                    "NL0000000123", new BigDecimal(amount));
+
+            mvc.perform(post("/api/transactions/transfer")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(om.writeValueAsString(bad)))
+                    .andExpect(status().isBadRequest());
+        }
+
+        verifyNoInteractions(transactionService);
+    }
+
+    @Test
+    void bulk_transfer_ok() throws Exception {
+        UUID userId = UUID.fromString("aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
+        UUID from   = UUID.fromString("11111111-1111-1111-1111-111111111111");
+        UUID to     = UUID.fromString("22222222-2222-2222-2222-222222222222");
+
+        var items = List.of(
+                new BulkTransferRequest.Item("NL0000000123", new BigDecimal("100.00")),
+                new BulkTransferRequest.Item("NL0000000999", new BigDecimal("5.00")));
+        var result = new BulkTransferResult(from, new BigDecimal("900.00"), 1, 1, List.of(
+                new BulkTransferResult.Item(0, "NL0000000123", to, new BigDecimal("100.00"), BigDecimal.ZERO, null, null),
+                new BulkTransferResult.Item(1, "NL0000000999", null, null, null, "ACCOUNT_NOT_FOUND", "Destination account not found")));
+        when(transactionService.bulkTransfer(from, items, userId)).thenReturn(result);
+
+        try (MockedStatic<?> ignored = mockStatic(
+                com.mybanking.app.common.security.SecurityUtils.class)) {
+            when(currentUserId()).thenReturn(userId);
+
+            mvc.perform(post("/api/transactions/transfer/bulk")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(om.writeValueAsString(new BulkTransferRequest(from, items))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.fromNewBalance").value("900.00"))
+                    .andExpect(jsonPath("$.succeeded").value(1))
+                    .andExpect(jsonPath("$.failed").value(1))
+                    .andExpect(jsonPath("$.items[0].toAccountId").value(to.toString()))
+                    .andExpect(jsonPath("$.items[0].transferred").value("100.00"))
+                    .andExpect(jsonPath("$.items[1].errorCode").value("ACCOUNT_NOT_FOUND"))
+                    .andExpect(jsonPath("$.items[1].transferred").doesNotExist());
+        }
+    }
+
+    @Test
+    void bulk_transfer_empty_items_rejected() throws Exception {
+        var bad = new BulkTransferRequest(UUID.fromString("11111111-1111-1111-1111-111111111111"), List.of());
+
+        mvc.perform(post("/api/transactions/transfer/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(bad)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(transactionService);
+    }
 }
@@ -0,0 +1,100 @@
+package com.mybanking.app.transaction.controller;
+
+import com.mybanking.app.auth.service.TokenRevocationService;
+import com.mybanking.app.common.util.StatementFormat;
+import com.mybanking.app.common.util.TransactionType;
+import com.mybanking.app.security.JwtTokenProvider;
+import com.mybanking.app.transaction.dto.TransactionHistoryItem;
+import com.mybanking.app.transaction.dto.TransactionPage;
+import com.mybanking.app.transaction.service.StatementExportService;
+import com.mybanking.app.transaction.service.TransactionHistoryService;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static com.mybanking.app.common.security.SecurityUtils.currentUserId;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = TransactionHistoryController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class TransactionHistoryControllerTest {
+
+    @Autowired MockMvc mvc;
+
+    @MockitoBean
+    JwtTokenProvider jwtTokenProvider;
+
+    @MockitoBean
+    TokenRevocationService tokenRevocationService;
+
+    @MockitoBean TransactionHistoryService historyService;
+
+    @MockitoBean StatementExportService exportService;
+
+    @Test
+    void history_maps_direction_and_counterparty() throws Exception {
+        UUID userId = UUID.fromString("aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
+        UUID account = UUID.fromString("11111111-1111-1111-1111-111111111111");
+        UUID other = UUID.fromString("22222222-2222-2222-2222-222222222222");
+        Instant at = Instant.parse("2026-03-01T10:00:00Z");
+
+        var page = new TransactionPage(List.of(
+                new TransactionHistoryItem(UUID.randomUUID(), TransactionType.TRANSFER, new BigDecimal("10.00"),
+                        new BigDecimal("0.50"), at, account, "NL01", other, "NL02"),
+                new TransactionHistoryItem(UUID.randomUUID(), TransactionType.TRANSFER, new BigDecimal("3.00"),
+                        new BigDecimal("0.10"), at, other, "NL02", account, "NL01")
+        ), "next");
+        when(historyService.history(account, userId, null, null, null, null, 2)).thenReturn(page);
+
+        try (MockedStatic<?> ignored = mockStatic(
+                com.mybanking.app.common.security.SecurityUtils.class)) {
+            when(currentUserId()).thenReturn(userId);
+
+            mvc.perform(get("/api/accounts/{id}/transactions", account).param("limit", "2"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.nextCursor").value("next"))
+                    .andExpect(jsonPath("$.items[0].direction").value("OUT"))
+                    .andExpect(jsonPath("$.items[0].amount").value("10.00"))
+                    .andExpect(jsonPath("$.items[0].fee").value("0.50"))
+                    .andExpect(jsonPath("$.items[0].counterpartyAccountNumber").value("NL02"))
+                    .andExpect(jsonPath("$.items[1].direction").value("IN"))
+                    .andExpect(jsonPath("$.items[1].fee").doesNotExist());
+        }
+    }
+
+    @Test
+    void export_streams_gzip_attachment() throws Exception {
+        UUID userId = UUID.fromString("aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
+        UUID account = UUID.fromString("11111111-1111-1111-1111-111111111111");
+        StreamingResponseBody body = out -> out.write(new byte[]{1, 2, 3});
+        when(exportService.export(account, userId, StatementFormat.NDJSON, null, null)).thenReturn(body);
+
+        try (MockedStatic<?> ignored = mockStatic(
+                com.mybanking.app.common.security.SecurityUtils.class)) {
+            when(currentUserId()).thenReturn(userId);
+
+            var started = mvc.perform(get("/api/accounts/{id}/transactions/export", account).param("format", "NDJSON"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mvc.perform(asyncDispatch(started))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Type", "application/gzip"))
+                    .andExpect(header().string("Content-Disposition",
+                            "attachment; filename=\"statement-" + account + ".ndjson.gz\""))
+                    .andExpect(content().bytes(new byte[]{1, 2, 3}));
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.mybanking.app.transaction.journal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mybanking.app.common.error.AppException;
+import com.mybanking.app.common.error.ErrorCode;
+import com.mybanking.app.ledger.service.PendingPostings;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WriteBehindJournalTest {
+
+    private static final String INSERT_TRANSFER_PREFIX = "insert into transactions";
+
+    @Mock JdbcTemplate jdbc;
+    @Mock PlatformTransactionManager transactionManager;
+
+    @TempDir Path dir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final PendingPostings pendingPostings = new PendingPostings();
+    private WriteBehindJournal journal;
+
+    private WriteBehindJournal journal(int capacity) throws Exception {
+        var j = new WriteBehindJournal(true, jdbc, new TransactionTemplate(transactionManager), objectMapper,
+                new SimpleMeterRegistry(), pendingPostings, dir, 1 << 20, capacity, 100, 1, 50);
+        j.start();
+        return j;
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        if (journal != null) journal.stop();
+    }
+
+    private static TransferRow row() {
+        return new TransferRow(UUID.randomUUID(), new BigDecimal("10.00"), new BigDecimal("0.50"),
+                Instant.parse("2026-03-01T10:00:00Z"), UUID.randomUUID(), UUID.randomUUID());
+    }
+
+    private WriteBehindJournal.Ticket openInTransaction(WriteBehindJournal j) {
+        TransactionSynchronizationManager.initSynchronization();
+        var ticket = j.open();
+        TransactionSynchronizationManager.clearSynchronization();
+        return ticket;
+    }
+
+    @Test
+    void committed_entry_is_spilled_marked_then_inserted_in_batch() throws Exception {
+        journal = journal(10);
+        var row = row();
+        var ticket = openInTransaction(journal);
+        ticket.record(row);
+
+        ticket.beforeCommit(false);
+        assertThat(spilledLines()).hasSize(1);
+        verify(jdbc).update(startsWith("insert into journal_commits"), any(UUID.class), any());
+        assertThat(pendingPostings.settledBefore(Instant.MAX)).isBefore(row.occurredAt());
+        ticket.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+
+        verify(jdbc, timeout(2000)).batchUpdate(startsWith(INSERT_TRANSFER_PREFIX), argThat((List<Object[]> rows) -> rows.size() == 1));
+        verify(jdbc, timeout(2000)).batchUpdate(startsWith("insert into postings"), argThat((List<Object[]> rows) -> rows.size() == 4));
+        verify(jdbc, timeout(2000)).batchUpdate(startsWith("delete from journal_commits"), argThat((List<Object[]> rows) -> rows.size() == 1));
+        await(() -> pendingPostings.settledBefore(Instant.MAX).equals(Instant.MAX));
+    }
+
+    @Test
+    void entry_with_unknown_outcome_is_dropped_unless_its_marker_exists() throws Exception {
+        journal = journal(10);
+        var ticket = openInTransaction(journal);
+        ticket.record(row());
+        ticket.beforeCommit(false);
+        when(jdbc.queryForList(startsWith("select entry_id from journal_commits"), eq(UUID.class), any(Object[].class)))
+                .thenReturn(List.of());
+
+        ticket.afterCompletion(TransactionSynchronization.STATUS_UNKNOWN);
+
+        verify(jdbc, timeout(2000)).queryForList(startsWith("select entry_id from journal_commits"), eq(UUID.class), any(Object[].class));
+        await(() -> pendingPostings.settledBefore(Instant.MAX).equals(Instant.MAX));
+        verify(jdbc, never()).batchUpdate(startsWith(INSERT_TRANSFER_PREFIX), anyList());
+    }
+
+    @Test
+    void missing_spill_directory_fails_start() {
+        var j = new WriteBehindJournal(true, jdbc, new TransactionTemplate(transactionManager), objectMapper,
+                new SimpleMeterRegistry(), pendingPostings, null, 1 << 20, 10, 100, 1, 50);
+
+        assertThatThrownBy(j::start).isInstanceOf(IllegalStateException.class).hasMessageContaining("app.tx.write-behind.dir");
+    }
+
+    @Test
+    void rolled_back_entry_is_not_replayed() throws Exception {
+        journal = journal(10);
+        var ticket = openInTransaction(journal);
+        ticket.record(row());
+        ticket.beforeCommit(false);
+        ticket.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        journal.stop();
+
+        journal = journal(10);
+
+        verify(jdbc, never()).batchUpdate(startsWith(INSERT_TRANSFER_PREFIX), anyList());
+    }
+
+    @Test
+    void spilled_entries_are_replayed_on_start_only_if_committed() throws Exception {
+        var uncommitted = row();
+        var lost = row();
+        var lostEntry = UUID.randomUUID();
+        Files.writeString(dir.resolve("journal-000000000000.log"),
+                objectMapper.writeValueAsString(new WriteBehindJournal.SpillRecord(UUID.randomUUID(), List.of(uncommitted))) + "\n"
+                        + objectMapper.writeValueAsString(new WriteBehindJournal.SpillRecord(lostEntry, List.of(lost))) + "\n"
+                        + "{\"id\":");
+        when(jdbc.queryForList(startsWith("select entry_id from journal_commits"), eq(UUID.class), any(Object[].class)))
+                .thenReturn(List.of(lostEntry));
+
+        journal = journal(10);
+
+        verify(jdbc).batchUpdate(startsWith(INSERT_TRANSFER_PREFIX),
+                argThat((List<Object[]> rows) -> rows.size() == 1 && rows.get(0)[0].equals(lost.id())));
+        verify(jdbc).batchUpdate(startsWith("delete from journal_commits"),
+                argThat((List<Object[]> rows) -> rows.size() == 1 && rows.get(0)[0].equals(lostEntry)));
+        assertThat(Files.exists(dir.resolve("journal-000000000000.log"))).isFalse();
+    }
+
+    @Test
+    void full_journal_turns_callers_away() throws Exception {
+        journal = journal(1);
+        openInTransaction(journal);
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertThatThrownBy(journal::open)
+                .isInstanceOfSatisfying(AppException.class,
+                        ex -> assertThat(ex.getErrorCode()).isEqualTo(ErrorCode.SERVICE_BUSY));
+    }
+
+    private static void await(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 200 && !condition.getAsBoolean(); i++) Thread.sleep(10);
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    private List<String> spilledLines() throws Exception {
+        try (var files = Files.list(dir)) {
+            return files.flatMap(p -> {
+                try {
+                    return Files.readAllLines(p).stream();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }).toList();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.mybanking.app.transaction.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mybanking.app.account.dto.AccountSnapshot;
+import com.mybanking.app.account.repository.AccountRepository;
+import com.mybanking.app.common.error.AppException;
+import com.mybanking.app.common.error.ErrorCode;
+import com.mybanking.app.common.util.StatementFormat;
+import com.mybanking.app.common.util.TransactionType;
+import com.mybanking.app.transaction.dto.TransactionHistoryItem;
+import com.mybanking.app.transaction.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StatementExportServiceTest {
+
+    @Mock TransactionRepository txRepo;
+    @Mock AccountRepository accountRepo;
+    @Mock PlatformTransactionManager transactionManager;
+
+    private StatementExportService service;
+
+    private final UUID ownerId = UUID.randomUUID();
+    private final UUID accountId = UUID.randomUUID();
+    private final UUID otherId = UUID.randomUUID();
+    private final Instant t0 = Instant.parse("2026-03-01T10:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        service = new StatementExportService(txRepo, accountRepo,
+                new ObjectMapper().registerModule(new JavaTimeModule()), transactionManager);
+    }
+
+    private TransactionHistoryItem out(int secondsAfter, String amount) {
+        return new TransactionHistoryItem(UUID.randomUUID(), TransactionType.TRANSFER, new BigDecimal(amount),
+                new BigDecimal("0.50"), t0.plusSeconds(secondsAfter), accountId, "NL01", otherId, "NL02");
+    }
+
+    private TransactionHistoryItem in(int secondsAfter, String amount) {
+        return new TransactionHistoryItem(UUID.randomUUID(), TransactionType.TRANSFER, new BigDecimal(amount),
+                BigDecimal.ZERO, t0.plusSeconds(secondsAfter), otherId, "NL02", accountId, "NL01");
+    }
+
+    private void stubOwner() {
+        when(accountRepo.findSnapshotById(accountId))
+                .thenReturn(Optional.of(new AccountSnapshot(accountId, "NL01", ownerId, null, BigDecimal.ZERO)));
+    }
+
+    @Test
+    void csv_export_merges_directions_oldest_first() throws Exception {
+        stubOwner();
+        when(txRepo.streamOutgoing(accountId, Instant.EPOCH, TransactionHistoryService.END_OF_TIME))
+                .thenReturn(Stream.of(out(1, "10.00"), out(3, "30.00")));
+        when(txRepo.streamIncoming(accountId, Instant.EPOCH, TransactionHistoryService.END_OF_TIME))
+                .thenReturn(Stream.of(in(2, "20.00")));
+
+        var buffer = new ByteArrayOutputStream();
+        service.export(accountId, ownerId, StatementFormat.CSV, null, null).writeTo(buffer);
+
+        List<String> lines = gunzip(buffer.toByteArray()).lines().toList();
+        assertThat(lines).hasSize(4);
+        assertThat(lines.get(0)).isEqualTo("id,occurredAt,direction,type,amount,fee,counterpartyAccountNumber");
+        assertThat(lines.get(1)).endsWith(",OUT,TRANSFER,10.00,0.50,NL02");
+        assertThat(lines.get(2)).endsWith(",IN,TRANSFER,20.00,,NL02");
+        assertThat(lines.get(3)).endsWith(",OUT,TRANSFER,30.00,0.50,NL02");
+    }
+
+    @Test
+    void ndjson_export_writes_one_object_per_line() throws Exception {
+        stubOwner();
+        when(txRepo.streamOutgoing(accountId, Instant.EPOCH, TransactionHistoryService.END_OF_TIME))
+                .thenReturn(Stream.of(out(1, "10.00")));
+        when(txRepo.streamIncoming(accountId, Instant.EPOCH, TransactionHistoryService.END_OF_TIME))
+                .thenReturn(Stream.empty());
+
+        var buffer = new ByteArrayOutputStream();
+        service.export(accountId, ownerId, StatementFormat.NDJSON, null, null).writeTo(buffer);
+
+        List<String> lines = gunzip(buffer.toByteArray()).lines().toList();
+        assertThat(lines).hasSize(1);
+        assertThat(lines.get(0)).contains("\"direction\":\"OUT\"", "\"amount\":\"10.00\"", "\"counterpartyAccountNumber\":\"NL02\"");
+    }
+
+    @Test
+    void export_not_owner_forbidden_before_streaming() {
+        stubOwner();
+
+        assertThatThrownBy(() -> service.export(accountId, UUID.randomUUID(), StatementFormat.CSV, null, null))
+                .isInstanceOfSatisfying(AppException.class,
+                        ex -> assertThat(ex.getErrorCode()).isEqualTo(ErrorCode.ACCOUNT_FORBIDDEN));
+        verifyNoInteractions(txRepo);
+    }
+
+    private static String gunzip(byte[] bytes) throws Exception {
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.mybanking.app.transaction.service;
+
+import com.mybanking.app.account.dto.AccountSnapshot;
+import com.mybanking.app.account.repository.AccountRepository;
+import com.mybanking.app.common.error.AppException;
+import com.mybanking.app.common.error.ErrorCode;
+import com.mybanking.app.common.util.TransactionDirection;
+import com.mybanking.app.common.util.TransactionType;
+import com.mybanking.app.transaction.dto.TransactionHistoryItem;
+import com.mybanking.app.transaction.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionHistoryServiceTest {
+
+    @Mock TransactionRepository txRepo;
+    @Mock AccountRepository accountRepo;
+
+    @InjectMocks TransactionHistoryService service;
+
+    private final UUID ownerId = UUID.randomUUID();
+    private final UUID accountId = UUID.randomUUID();
+    private final UUID otherId = UUID.randomUUID();
+    private final Instant t0 = Instant.parse("2026-03-01T10:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(accountRepo.findSnapshotById(accountId))
+                .thenReturn(Optional.of(new AccountSnapshot(accountId, "NL01", ownerId, null, BigDecimal.ZERO)));
+    }
+
+    private TransactionHistoryItem out(int secondsAfter) {
+        return new TransactionHistoryItem(UUID.randomUUID(), TransactionType.TRANSFER, new BigDecimal("1.00"),
+                BigDecimal.ZERO, t0.plusSeconds(secondsAfter), accountId, "NL01", otherId, "NL02");
+    }
+
+    private TransactionHistoryItem in(int secondsAfter) {
+        return new TransactionHistoryItem(UUID.randomUUID(), TransactionType.TRANSFER, new BigDecimal("2.00"),
+                BigDecimal.ZERO, t0.plusSeconds(secondsAfter), otherId, "NL02", accountId, "NL01");
+    }
+
+    @Test
+    void both_directions_are_merged_newest_first_and_trimmed() {
+        var o1 = out(5);
+        var o2 = out(1);
+        var i1 = in(4);
+        var i2 = in(2);
+        when(txRepo.findOutgoingPage(eq(accountId), eq(Instant.EPOCH), eq(TransactionHistoryService.END_OF_TIME), any(), eq(Limit.of(4))))
+                .thenReturn(List.of(o1, o2));
+        when(txRepo.findIncomingPage(eq(accountId), eq(Instant.EPOCH), eq(TransactionHistoryService.END_OF_TIME), any(), eq(Limit.of(4))))
+                .thenReturn(List.of(i1, i2));
+
+        var page = service.history(accountId, ownerId, null, null, null, null, 3);
+
+        assertThat(page.items()).containsExactly(o1, i1, i2);
+        assertThat(page.nextCursor()).isEqualTo(TransactionHistoryService.encodeCursor(i2));
+    }
+
+    @Test
+    void cursor_continues_after_last_row() {
+        var last = in(2);
+        var next = out(1);
+        when(txRepo.findOutgoingPage(accountId, Instant.EPOCH, last.occurredAt(), last.id(), Limit.of(51)))
+                .thenReturn(List.of(next));
+
+        var page = service.history(accountId, ownerId, TransactionDirection.OUT, null, null,
+                TransactionHistoryService.encodeCursor(last), null);
+
+        assertThat(page.items()).containsExactly(next);
+        assertThat(page.nextCursor()).isNull();
+        verify(txRepo, never()).findIncomingPage(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void invalid_cursor_rejected() {
+        assertThatThrownBy(() -> service.history(accountId, ownerId, null, null, null, "not-a-cursor", null))
+                .isInstanceOfSatisfying(AppException.class,
+                        ex -> assertThat(ex.getErrorCode()).isEqualTo(ErrorCode.VALIDATION_ERROR));
+    }
+
+    @Test
+    void not_owner_forbidden() {
+        assertThatThrownBy(() -> service.history(accountId, UUID.randomUUID(), null, null, null, null, null))
+                .isInstanceOfSatisfying(AppException.class,
+                        ex -> assertThat(ex.getErrorCode()).isEqualTo(ErrorCode.ACCOUNT_FORBIDDEN));
+        verifyNoInteractions(txRepo);
+    }
+}
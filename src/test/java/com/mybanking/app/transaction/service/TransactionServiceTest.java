@@ -1,21 +1,35 @@
 package com.mybanking.app.transaction.service;
 
+import com.mybanking.app.account.dto.AccountRow;
 import com.mybanking.app.account.entity.Account;
+import com.mybanking.app.account.entity.AccountSlot;
 import com.mybanking.app.account.repository.AccountRepository;
+import com.mybanking.app.account.service.AccountBalanceCache;
+import com.mybanking.app.account.service.HotAccountSlots;
 import com.mybanking.app.common.error.AppException;
+import com.mybanking.app.common.util.CardType;
+import com.mybanking.app.common.util.ConcurrencyMode;
 import com.mybanking.app.common.util.FeePolicy;
+import com.mybanking.app.common.util.Money;
+import com.mybanking.app.ledger.service.LedgerService;
+import com.mybanking.app.transaction.journal.TransferRow;
+import com.mybanking.app.transaction.journal.WriteBehindJournal;
+import com.mybanking.app.transaction.dto.BulkTransferRequest;
+import com.mybanking.app.transaction.dto.BulkTransferResult;
 import com.mybanking.app.transaction.dto.TransferResult;
 import com.mybanking.app.transaction.entity.Transaction;
 import com.mybanking.app.transaction.repository.TransactionRepository;
 import com.mybanking.app.user.entity.User;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -29,13 +43,26 @@ class TransactionServiceTest {
     @Mock TransactionRepository txRepo;
     @Mock AccountRepository accountRepo;
     @Mock FeePolicy feePolicy;
+    @Mock LedgerService ledgerService;
+    @Mock HotAccountSlots hotSlots;
+    @Mock AccountBalanceCache balanceCache;
+    @Mock WriteBehindJournal writeBehind;
 
-    @InjectMocks TransactionService service;
+    TransactionService service;
 
     private final UUID fromId = UUID.randomUUID();
     private final UUID toId = UUID.randomUUID();
     private final String toAccountNumber = "NL0000000123";
 
+    private TransactionService service(ConcurrencyMode mode) {
+        return new TransactionService(txRepo, accountRepo, feePolicy, ledgerService, writeBehind, hotSlots, balanceCache, mode);
+    }
+
+    @BeforeEach
+    void setUp() {
+        service = service(ConcurrencyMode.PESSIMISTIC);
+    }
+
     private static Account acc(UUID id, UUID ownerId, String balance) {
         var a = new Account();
         a.setId(id);
@@ -49,19 +76,17 @@ class TransactionServiceTest {
     @Test
     void transfer_ok() {
         var requester = UUID.randomUUID();
-        var from = acc(fromId, requester, "1000.00");
-        var to   = acc(toId, UUID.randomUUID(), "500.00");
+        var from = row(fromId, "NL-FROM", requester, "1000.00");
+        var to = row(toId, toAccountNumber, UUID.randomUUID(), "500.00");
 
-        when(accountRepo.findByAccountNumber(toAccountNumber)).thenReturn(Optional.of(to));
-        when(accountRepo.findByIdForUpdate(fromId)).thenReturn(Optional.of(from));
-        when(accountRepo.findByIdForUpdate(toId)).thenReturn(Optional.of(to));
-        when(feePolicy.feeFor(FeePolicy.Operation.TRANSFER, from, new BigDecimal("100.00")))
-                .thenReturn(new BigDecimal("1.00"));
+        when(accountRepo.findRowsForUpdate(fromId, toAccountNumber)).thenReturn(List.of(from, to));
+        when(feePolicy.feeFor(FeePolicy.Operation.TRANSFER, (CardType) null, Money.of("100.00")))
+                .thenReturn(Money.of("1.00"));
+        when(accountRepo.updateBalance(any(), any(), eq(3L))).thenReturn(1);
+        stubReferences();
 
         TransferResult r = service.transfer(fromId, toAccountNumber, new BigDecimal("100.00"), requester);
 
-        assertThat(from.getBalance()).isEqualByComparingTo("899.00");
-        assertThat(to.getBalance()).isEqualByComparingTo("600.00");
         assertThat(r.fromAccountId()).isEqualTo(fromId);
         assertThat(r.toAccountId()).isEqualTo(toId);
         assertThat(r.transferred()).isEqualByComparingTo("100.00");
@@ -69,8 +94,10 @@ class TransactionServiceTest {
         assertThat(r.fromNewBalance()).isEqualByComparingTo("899.00");
         assertThat(r.toNewBalance()).isEqualByComparingTo("600.00");
 
-        verify(accountRepo).save(from);
-        verify(accountRepo).save(to);
+        verify(accountRepo).updateBalance(fromId, Money.of("899.00"), 3L);
+        verify(accountRepo).updateBalance(toId, Money.of("600.00"), 3L);
+        verify(balanceCache).evictAfterCommit(from.ownerId(), fromId, 4L);
+        verify(balanceCache).evictAfterCommit(to.ownerId(), toId, 4L);
 
         var captor = ArgumentCaptor.forClass(Transaction.class);
         verify(txRepo).save(captor.capture());
@@ -82,59 +109,120 @@ class TransactionServiceTest {
     }
 
     @Test
-    void same_account_rejected() {
+    void locks_both_rows_in_one_statement_without_loading_entities() {
+        var requester = UUID.randomUUID();
+        when(accountRepo.findRowsForUpdate(fromId, toAccountNumber)).thenReturn(List.of(
+                row(toId, toAccountNumber, UUID.randomUUID(), "0.00"),
+                row(fromId, "NL-FROM", requester, "100.00")));
+        when(feePolicy.feeFor(FeePolicy.Operation.TRANSFER, (CardType) null, Money.of("10.00")))
+                .thenReturn(Money.ZERO);
+        when(accountRepo.updateBalance(any(), any(), eq(3L))).thenReturn(1);
+        stubReferences();
+
+        service.transfer(fromId, toAccountNumber, new BigDecimal("10.00"), requester);
+
+        verify(accountRepo, times(1)).findRowsForUpdate(fromId, toAccountNumber);
+        verify(accountRepo, never()).findByAccountNumber(any());
+        verify(accountRepo, never()).findByIdForUpdate(any());
+        verify(accountRepo, never()).save(any());
+    }
+
+    @Test
+    void card_type_from_row_drives_the_fee() {
+        var requester = UUID.randomUUID();
+        var from = new AccountRow(fromId, "NL-FROM", Money.of("100.00"), 3L, requester, CardType.CREDIT, 0);
+        when(accountRepo.findRowsForUpdate(fromId, toAccountNumber))
+                .thenReturn(List.of(from, row(toId, toAccountNumber, UUID.randomUUID(), "0.00")));
+        when(feePolicy.feeFor(FeePolicy.Operation.TRANSFER, CardType.CREDIT, Money.of("10.00")))
+                .thenReturn(Money.of("0.10"));
+        when(accountRepo.updateBalance(any(), any(), eq(3L))).thenReturn(1);
+        stubReferences();
+
+        var r = service.transfer(fromId, toAccountNumber, new BigDecimal("10.00"), requester);
+
+        assertThat(r.fromNewBalance()).isEqualByComparingTo("89.90");
+    }
+
+    @Test
+    void stale_version_surfaces_as_retryable_conflict() {
+        var requester = UUID.randomUUID();
+        when(accountRepo.findRowsForUpdate(fromId, toAccountNumber)).thenReturn(List.of(
+                row(fromId, "NL-FROM", requester, "100.00"), row(toId, toAccountNumber, UUID.randomUUID(), "0.00")));
+        when(feePolicy.feeFor(FeePolicy.Operation.TRANSFER, (CardType) null, Money.of("10.00")))
+                .thenReturn(Money.ZERO);
+        when(accountRepo.updateBalance(fromId, Money.of("90.00"), 3L)).thenReturn(0);
+
+        assertThatThrownBy(() -> service.transfer(fromId, toAccountNumber, new BigDecimal("10.00"), requester))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        verifyNoInteractions(txRepo, ledgerService);
+    }
+
+    @Test
+    void optimistic_mode_transfers_without_row_locks() {
+        service = service(ConcurrencyMode.OPTIMISTIC);
         var requester = UUID.randomUUID();
-        var toSameAsFrom = acc(fromId, UUID.randomUUID(), "0.00");
 
-        when(accountRepo.findByAccountNumber(toAccountNumber)).thenReturn(Optional.of(toSameAsFrom));
+        when(accountRepo.findRows(fromId, toAccountNumber)).thenReturn(List.of(
+                row(fromId, "NL-FROM", requester, "100.00"), row(toId, toAccountNumber, UUID.randomUUID(), "0.00")));
+        when(feePolicy.feeFor(FeePolicy.Operation.TRANSFER, (CardType) null, Money.of("10.00")))
+                .thenReturn(Money.ZERO);
+        when(accountRepo.updateBalance(any(), any(), eq(3L))).thenReturn(1);
+        stubReferences();
+
+        var r = service.transfer(fromId, toAccountNumber, new BigDecimal("10.00"), requester);
+
+        assertThat(r.fromNewBalance()).isEqualByComparingTo("90.00");
+        assertThat(r.toNewBalance()).isEqualByComparingTo("10.00");
+        verify(accountRepo, never()).findRowsForUpdate(any(), any());
+        verify(accountRepo, never()).findByIdForUpdate(any());
+    }
+
+    @Test
+    void same_account_rejected() {
+        var requester = UUID.randomUUID();
+        when(accountRepo.findRowsForUpdate(fromId, toAccountNumber))
+                .thenReturn(List.of(row(fromId, toAccountNumber, requester, "0.00")));
 
         assertThatThrownBy(() ->
                 service.transfer(fromId, toAccountNumber, new BigDecimal("10"), requester))
                 .isInstanceOfSatisfying(AppException.class,
                         ex -> assertThat(ex.getErrorCode()).isEqualTo(com.mybanking.app.common.error.ErrorCode.SAME_ACCOUNT));
 
-        verify(accountRepo, never()).findByIdForUpdate(any());
+        verify(accountRepo, never()).updateBalance(any(), any(), any());
         verifyNoInteractions(txRepo, feePolicy);
     }
 
     @Test
     void negative_amount_rejected() {
-        when(accountRepo.findByAccountNumber(toAccountNumber))
-                .thenReturn(Optional.of(acc(toId, UUID.randomUUID(), "0")));
-
         assertThatThrownBy(() ->
                 service.transfer(fromId, toAccountNumber, new BigDecimal("-1"), UUID.randomUUID()))
                 .isInstanceOfSatisfying(AppException.class,
                         ex -> assertThat(ex.getErrorCode()).isEqualTo(com.mybanking.app.common.error.ErrorCode.VALIDATION_ERROR));
 
-        verify(accountRepo, never()).findByIdForUpdate(any());
-        verifyNoInteractions(txRepo, feePolicy);
+        verifyNoInteractions(accountRepo, txRepo, feePolicy);
     }
 
     @Test
     void source_not_found() {
-        when(accountRepo.findByAccountNumber(toAccountNumber))
-                .thenReturn(Optional.of(acc(toId, UUID.randomUUID(), "0")));
-        when(accountRepo.findByIdForUpdate(fromId)).thenReturn(Optional.empty());
+        when(accountRepo.findRowsForUpdate(fromId, toAccountNumber))
+                .thenReturn(List.of(row(toId, toAccountNumber, UUID.randomUUID(), "0")));
 
         assertThatThrownBy(() ->
                 service.transfer(fromId, toAccountNumber, new BigDecimal("10"), UUID.randomUUID()))
                 .isInstanceOfSatisfying(AppException.class,
                         ex -> assertThat(ex.getErrorCode()).isEqualTo(com.mybanking.app.common.error.ErrorCode.ACCOUNT_NOT_FOUND));
 
-        verify(accountRepo, never()).save(any());
+        verify(accountRepo, never()).updateBalance(any(), any(), any());
         verifyNoInteractions(txRepo, feePolicy);
     }
 
     @Test
     void destination_not_found() {
         var requester = UUID.randomUUID();
-        when(accountRepo.findByAccountNumber(toAccountNumber))
-                .thenReturn(Optional.of(acc(toId, UUID.randomUUID(), "0")));
-        when(accountRepo.findByIdForUpdate(fromId))
-                .thenReturn(Optional.of(acc(fromId, requester, "100")));
-        when(accountRepo.findByIdForUpdate(toId))
-                .thenReturn(Optional.empty());
+        when(accountRepo.findRowsForUpdate(fromId, toAccountNumber))
+                .thenReturn(List.of(row(fromId, "NL-FROM", requester, "100")));
+        when(accountRepo.findRowByAccountNumber(toAccountNumber)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() ->
                 service.transfer(fromId, toAccountNumber, new BigDecimal("10"), requester))
@@ -149,12 +237,8 @@ class TransactionServiceTest {
         var requester = UUID.randomUUID();
         var otherOwner = UUID.randomUUID();
 
-        when(accountRepo.findByAccountNumber(toAccountNumber))
-                .thenReturn(Optional.of(acc(toId, UUID.randomUUID(), "0")));
-        when(accountRepo.findByIdForUpdate(fromId))
-                .thenReturn(Optional.of(acc(fromId, otherOwner, "100")));
-        when(accountRepo.findByIdForUpdate(toId))
-                .thenReturn(Optional.of(acc(toId, UUID.randomUUID(), "0")));
+        when(accountRepo.findRowsForUpdate(fromId, toAccountNumber)).thenReturn(List.of(
+                row(fromId, "NL-FROM", otherOwner, "100"), row(toId, toAccountNumber, UUID.randomUUID(), "0")));
 
         assertThatThrownBy(() ->
                 service.transfer(fromId, toAccountNumber, new BigDecimal("10"), requester))
@@ -167,21 +251,195 @@ class TransactionServiceTest {
     @Test
     void insufficient_balance() {
         var requester = UUID.randomUUID();
-        var from = acc(fromId, requester, "50.00");
-        var to = acc(toId, UUID.randomUUID(), "0.00");
-
-        when(accountRepo.findByAccountNumber(toAccountNumber)).thenReturn(Optional.of(to));
-        when(accountRepo.findByIdForUpdate(fromId)).thenReturn(Optional.of(from));
-        when(accountRepo.findByIdForUpdate(toId)).thenReturn(Optional.of(to));
-        when(feePolicy.feeFor(eq(FeePolicy.Operation.TRANSFER), eq(from), eq(new BigDecimal("100.00"))))
-                .thenReturn(new BigDecimal("1.00"));
+        when(accountRepo.findRowsForUpdate(fromId, toAccountNumber)).thenReturn(List.of(
+                row(fromId, "NL-FROM", requester, "50.00"), row(toId, toAccountNumber, UUID.randomUUID(), "0.00")));
+        when(feePolicy.feeFor(eq(FeePolicy.Operation.TRANSFER), eq((CardType) null), eq(Money.of("100.00"))))
+                .thenReturn(Money.of("1.00"));
 
         assertThatThrownBy(() ->
                 service.transfer(fromId, toAccountNumber, new BigDecimal("100.00"), requester))
                 .isInstanceOfSatisfying(AppException.class,
                         ex -> assertThat(ex.getErrorCode()).isEqualTo(com.mybanking.app.common.error.ErrorCode.INSUFFICIENT_BALANCE));
 
-        verify(accountRepo, never()).save(any());
+        verify(accountRepo, never()).updateBalance(any(), any(), any());
         verifyNoInteractions(txRepo);
     }
+
+    @Test
+    void bulk_transfer_locks_once_and_reports_each_item() {
+        var requester = UUID.randomUUID();
+        var from = acc(fromId, requester, "100.00");
+        from.setAccountNumber("NL-FROM");
+        var to = acc(toId, UUID.randomUUID(), "0.00");
+        to.setAccountNumber(toAccountNumber);
+
+        when(accountRepo.findOwnerIdById(fromId)).thenReturn(Optional.of(requester));
+        when(accountRepo.findAllByIdOrAccountNumberInForUpdate(eq(fromId), anyCollection()))
+                .thenReturn(java.util.List.of(from, to));
+        when(feePolicy.feeFor(eq(FeePolicy.Operation.TRANSFER), isNull(), any(Money.class))).thenReturn(Money.ZERO);
+
+        var items = java.util.List.of(
+                new BulkTransferRequest.Item(toAccountNumber, new BigDecimal("30.00")),
+                new BulkTransferRequest.Item("NL-UNKNOWN", new BigDecimal("5.00")),
+                new BulkTransferRequest.Item(toAccountNumber, new BigDecimal("80.00")),
+                new BulkTransferRequest.Item("NL-FROM", new BigDecimal("1.00")),
+                new BulkTransferRequest.Item(toAccountNumber, new BigDecimal("20.00")),
+                new BulkTransferRequest.Item(toAccountNumber, new BigDecimal("1e30")),
+                new BulkTransferRequest.Item(toAccountNumber, new BigDecimal("1.005")));
+
+        var r = service.bulkTransfer(fromId, items, requester);
+
+        assertThat(r.succeeded()).isEqualTo(2);
+        assertThat(r.failed()).isEqualTo(5);
+        assertThat(r.fromNewBalance()).isEqualByComparingTo("50.00");
+        assertThat(to.getBalance()).isEqualTo(Money.of("50.00"));
+        assertThat(r.items()).extracting(BulkTransferResult.Item::errorCode)
+                .containsExactly(null, "ACCOUNT_NOT_FOUND", "INSUFFICIENT_BALANCE", "SAME_ACCOUNT", null,
+                        "VALIDATION_ERROR", "VALIDATION_ERROR");
+
+        verify(accountRepo, times(1)).findAllByIdOrAccountNumberInForUpdate(eq(fromId), anyCollection());
+        verify(accountRepo, never()).findByIdForUpdate(any());
+        verify(txRepo).saveAll(argThat(list -> ((java.util.List<?>) list).size() == 2));
+    }
+
+    @Test
+    void bulk_transfer_not_owner_forbidden() {
+        when(accountRepo.findOwnerIdById(fromId)).thenReturn(Optional.of(UUID.randomUUID()));
+
+        assertThatThrownBy(() -> service.bulkTransfer(fromId,
+                java.util.List.of(new BulkTransferRequest.Item(toAccountNumber, BigDecimal.TEN)), UUID.randomUUID()))
+                .isInstanceOfSatisfying(AppException.class,
+                        ex -> assertThat(ex.getErrorCode()).isEqualTo(com.mybanking.app.common.error.ErrorCode.ACCOUNT_FORBIDDEN));
+
+        verify(accountRepo, never()).findAllByIdOrAccountNumberInForUpdate(any(), anyCollection());
+        verifyNoInteractions(txRepo, feePolicy, writeBehind);
+    }
+
+    @Test
+    void write_behind_mode_records_row_instead_of_inserting() {
+        var requester = UUID.randomUUID();
+        var ticket = mock(WriteBehindJournal.Ticket.class);
+
+        when(writeBehind.isEnabled()).thenReturn(true);
+        when(writeBehind.open()).thenReturn(ticket);
+        when(accountRepo.findRowsForUpdate(fromId, toAccountNumber)).thenReturn(List.of(
+                row(fromId, "NL-FROM", requester, "1000.00"), row(toId, toAccountNumber, UUID.randomUUID(), "500.00")));
+        when(feePolicy.feeFor(FeePolicy.Operation.TRANSFER, (CardType) null, Money.of("100.00")))
+                .thenReturn(Money.of("1.00"));
+        when(accountRepo.updateBalance(any(), any(), eq(3L))).thenReturn(1);
+        stubReferences();
+
+        service.transfer(fromId, toAccountNumber, new BigDecimal("100.00"), requester);
+
+        var captor = ArgumentCaptor.forClass(TransferRow.class);
+        verify(ticket).record(captor.capture());
+        assertThat(captor.getValue().fromAccountId()).isEqualTo(fromId);
+        assertThat(captor.getValue().toAccountId()).isEqualTo(toId);
+        assertThat(captor.getValue().fee()).isEqualByComparingTo("1.00");
+        verifyNoInteractions(txRepo, ledgerService);
+    }
+
+    @Test
+    void hot_destination_is_credited_through_slot_without_locking_its_row() {
+        var requester = UUID.randomUUID();
+        var hot = new AccountRow(toId, toAccountNumber, Money.of("0.00"), 3L, UUID.randomUUID(), null, 4);
+
+        when(accountRepo.findRowsForUpdate(fromId, toAccountNumber))
+                .thenReturn(List.of(row(fromId, "NL-FROM", requester, "100.00")));
+        when(accountRepo.findRowByAccountNumber(toAccountNumber)).thenReturn(Optional.of(hot));
+        when(feePolicy.feeFor(FeePolicy.Operation.TRANSFER, (CardType) null, Money.of("10.00")))
+                .thenReturn(Money.ZERO);
+        when(accountRepo.updateBalance(fromId, Money.of("90.00"), 3L)).thenReturn(1);
+        when(hotSlots.consolidatedBalance(toId, 4, Money.of("0.00"))).thenReturn(Money.of("510.00"));
+        stubReferences();
+
+        var r = service.transfer(fromId, toAccountNumber, new BigDecimal("10.00"), requester);
+
+        assertThat(r.fromNewBalance()).isEqualByComparingTo("90.00");
+        assertThat(r.toNewBalance()).isEqualByComparingTo("510.00");
+        verify(hotSlots).credit(toId, 4, Money.of("10.00"));
+        verify(balanceCache).evictAfterCommit(hot.ownerId(), toId, (Long) null);
+        verify(accountRepo, never()).updateBalance(eq(toId), any(), any());
+    }
+
+    @Test
+    void transfer_between_hot_accounts_takes_slot_locks_in_account_order() {
+        var low = UUID.fromString("00000000-0000-0000-0000-000000000001");
+        var high = UUID.fromString("ffffffff-0000-0000-0000-000000000001");
+        var requester = UUID.randomUUID();
+        when(feePolicy.feeFor(eq(FeePolicy.Operation.TRANSFER), isNull(), any(Money.class))).thenReturn(Money.ZERO);
+        when(accountRepo.updateBalance(any(), any(), eq(3L))).thenReturn(1);
+        when(hotSlots.sweep(any(), eq(4), any(), any())).thenAnswer(inv -> inv.getArgument(2));
+        stubReferences();
+
+        // high -> low: the destination sorts first, so its slot is locked before the source's slots
+        transferBetweenHot(high, low, requester);
+        var first = inOrder(hotSlots);
+        first.verify(hotSlots).credit(low, 4, Money.of("10.00"));
+        first.verify(hotSlots).sweep(eq(high), eq(4), any(), any());
+
+        // low -> high: the source sorts first, so it is swept before the destination is credited
+        clearInvocations(hotSlots);
+        transferBetweenHot(low, high, requester);
+        var second = inOrder(hotSlots);
+        second.verify(hotSlots).sweep(eq(low), eq(4), any(), any());
+        second.verify(hotSlots).credit(high, 4, Money.of("10.00"));
+        verify(hotSlots, times(1)).credit(any(UUID.class), anyInt(), any(Money.class));
+    }
+
+    private void transferBetweenHot(UUID source, UUID destination, UUID requester) {
+        var from = new AccountRow(source, "NL-" + source, Money.of("100.00"), 3L, requester, null, 4);
+        var to = new AccountRow(destination, "NL-" + destination, Money.of("0.00"), 3L, UUID.randomUUID(), null, 4);
+        when(accountRepo.findRowsForUpdate(source, to.accountNumber())).thenReturn(List.of(from));
+        when(accountRepo.findRowByAccountNumber(to.accountNumber())).thenReturn(Optional.of(to));
+        when(hotSlots.consolidatedBalance(any(UUID.class), eq(4), any())).thenReturn(Money.ZERO);
+
+        service.transfer(source, to.accountNumber(), new BigDecimal("10.00"), requester);
+    }
+
+    @Test
+    void bulk_transfer_locks_lower_hot_destination_slots_before_sweeping_the_source() {
+        var requester = UUID.randomUUID();
+        var from = acc(UUID.fromString("ffffffff-0000-0000-0000-000000000001"), requester, "0.00");
+        from.setAccountNumber("NL-FROM");
+        from.setHotSlots(4);
+        var low = acc(UUID.fromString("00000000-0000-0000-0000-000000000001"), UUID.randomUUID(), "0.00");
+        low.setAccountNumber(toAccountNumber);
+        low.setHotSlots(2);
+        var slot = AccountSlot.builder()
+                .accountId(low.getId()).slotNo(1).balance(BigDecimal.ZERO).build();
+
+        when(accountRepo.findOwnerIdById(from.getId())).thenReturn(Optional.of(requester));
+        when(accountRepo.findAllByIdOrAccountNumberInForUpdate(eq(from.getId()), anyCollection())).thenReturn(List.of(from));
+        when(accountRepo.findAllByAccountNumberIn(anyCollection())).thenReturn(List.of(low));
+        when(hotSlots.lockCreditSlot(low.getId(), 2)).thenReturn(slot);
+        doAnswer(inv -> {
+            from.setBalance(new BigDecimal("100.00"));
+            return null;
+        }).when(hotSlots).coverDebit(eq(from), any());
+        when(feePolicy.feeFor(eq(FeePolicy.Operation.TRANSFER), isNull(), any(Money.class))).thenReturn(Money.ZERO);
+        when(hotSlots.consolidatedBalance(from)).thenReturn(Money.of("70.00"));
+
+        var r = service.bulkTransfer(from.getId(),
+                List.of(new BulkTransferRequest.Item(toAccountNumber, new BigDecimal("30.00"))), requester);
+
+        assertThat(r.succeeded()).isEqualTo(1);
+        var order = inOrder(hotSlots);
+        order.verify(hotSlots).lockCreditSlot(low.getId(), 2);
+        order.verify(hotSlots).coverDebit(eq(from), any());
+        order.verify(hotSlots).credit(slot, Money.of("30.00"));
+        verify(hotSlots, never()).credit(any(Account.class), any());
+    }
+
+    private static AccountRow row(UUID id, String accountNumber, UUID ownerId, String balance) {
+        return new AccountRow(id, accountNumber, Money.of(balance), 3L, ownerId, null, 0);
+    }
+
+    private void stubReferences() {
+        when(accountRepo.getReferenceById(any())).thenAnswer(inv -> {
+            var a = new Account();
+            a.setId(inv.getArgument(0));
+            return a;
+        });
+    }
 }
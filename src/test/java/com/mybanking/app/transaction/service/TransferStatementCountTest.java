@@ -0,0 +1,65 @@
+package com.mybanking.app.transaction.service;
+
+import com.mybanking.app.account.entity.Account;
+import com.mybanking.app.account.repository.AccountRepository;
+import com.mybanking.app.common.util.Money;
+import com.mybanking.app.user.dto.Role;
+import com.mybanking.app.user.entity.User;
+import com.mybanking.app.user.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+class TransferStatementCountTest {
+
+    @Autowired UserRepository userRepo;
+    @Autowired AccountRepository accountRepo;
+    @Autowired TransactionService txService;
+    @Autowired EntityManagerFactory emf;
+
+    @Test
+    void transfer_reads_both_accounts_in_one_statement() {
+        var owner = userRepo.save(User.builder()
+                .customerNumber("SC" + UUID.randomUUID().toString().substring(0, 8))
+                .name("Stat").surname("Count")
+                .email(UUID.randomUUID() + "@mybanking.nl")
+                .password("{noop}x")
+                .roles(Set.of(Role.USER))
+                .build());
+        var from = accountRepo.save(account(owner, "100.00"));
+        var to = accountRepo.save(account(owner, "0.00"));
+
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        var r = txService.transfer(from.getId(), to.getAccountNumber(), new BigDecimal("10.00"), owner.getId());
+
+        // locking select, two versioned updates, the transaction row and one batch of postings
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(5);
+        assertThat(stats.getEntityLoadCount()).isZero();
+        assertThat(stats.getCollectionLoadCount()).isZero();
+        assertThat(r.fromNewBalance()).isEqualByComparingTo("90.00");
+        assertThat(accountRepo.findById(to.getId()).orElseThrow().getBalance()).isEqualTo(Money.of("10.00"));
+    }
+
+    private static Account account(User owner, String balance) {
+        return Account.builder()
+                .user(owner)
+                .accountNumber("SC" + UUID.randomUUID().toString().replace("-", "").substring(0, 16))
+                .balance(new BigDecimal(balance))
+                .build();
+    }
+}
@@ -0,0 +1,69 @@
+package com.mybanking.app.user.controller;
+
+import com.mybanking.app.auth.service.TokenRevocationService;
+import com.mybanking.app.common.error.AppException;
+import com.mybanking.app.common.error.ErrorCode;
+import com.mybanking.app.security.JwtTokenProvider;
+import com.mybanking.app.user.dto.ImportFormat;
+import com.mybanking.app.user.service.UserImportService;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+
+import static com.mybanking.app.common.security.SecurityUtils.requireAdmin;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = UserImportController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class UserImportControllerTest {
+
+    @Autowired MockMvc mvc;
+
+    @MockitoBean JwtTokenProvider jwtTokenProvider;
+    @MockitoBean TokenRevocationService tokenRevocationService;
+    @MockitoBean UserImportService importService;
+
+    @Test
+    void import_streams_ndjson_report() throws Exception {
+        StreamingResponseBody body = out -> out.write("{\"event\":\"done\"}\n".getBytes(StandardCharsets.UTF_8));
+        when(importService.importUsers(any(), eq(ImportFormat.NDJSON))).thenReturn(body);
+
+        try (MockedStatic<?> ignored = mockStatic(com.mybanking.app.common.security.SecurityUtils.class)) {
+            ignored.when(() -> requireAdmin()).thenAnswer(inv -> null);
+
+            var started = mvc.perform(post("/api/users/admin/import").param("format", "NDJSON")
+                            .contentType("application/x-ndjson").content("{}\n"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mvc.perform(asyncDispatch(started))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.parseMediaType("application/x-ndjson")))
+                    .andExpect(content().string("{\"event\":\"done\"}\n"));
+        }
+    }
+
+    @Test
+    void import_requires_admin() throws Exception {
+        try (MockedStatic<?> ignored = mockStatic(com.mybanking.app.common.security.SecurityUtils.class)) {
+            ignored.when(() -> requireAdmin())
+                    .thenThrow(new AppException(ErrorCode.AUTH_FORBIDDEN, org.springframework.http.HttpStatus.FORBIDDEN, "Admin required"));
+
+            mvc.perform(post("/api/users/admin/import").contentType("text/csv").content("name\n"))
+                    .andExpect(status().isForbidden());
+        }
+        verifyNoInteractions(importService);
+    }
+}
@@ -0,0 +1,202 @@
+package com.mybanking.app.user.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mybanking.app.account.repository.AccountRepository;
+import com.mybanking.app.common.util.CardType;
+import com.mybanking.app.common.util.PostingType;
+import com.mybanking.app.ledger.entity.Posting;
+import com.mybanking.app.ledger.service.LedgerService;
+import com.mybanking.app.user.dto.ImportEvent;
+import com.mybanking.app.user.dto.ImportFormat;
+import com.mybanking.app.user.dto.Role;
+import com.mybanking.app.user.entity.User;
+import com.mybanking.app.user.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = {"app.import.batch-size=2", "app.import.hash-parallelism=2"})
+class UserImportServiceTest {
+
+    @Autowired UserImportService importService;
+    @Autowired UserRepository userRepo;
+    @Autowired AccountRepository accountRepo;
+    @Autowired PasswordEncoder encoder;
+    @Autowired ObjectMapper om;
+    @MockitoSpyBean LedgerService ledgerService;
+
+    private final String tag = UUID.randomUUID().toString().substring(0, 8);
+
+    private String email(String n) { return n + "-" + tag + "@partner.nl"; }
+    private String iban(String n) { return "PB" + tag + n; }
+
+    private List<ImportEvent> run(ImportFormat format, String input) throws Exception {
+        var out = new ByteArrayOutputStream();
+        importService.run(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), format, out);
+        return out.toString(StandardCharsets.UTF_8).lines().map(l -> {
+            try {
+                return om.readValue(l, ImportEvent.class);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }).toList();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void csv_import_creates_users_accounts_and_cards_and_reports_bad_rows() throws Exception {
+        userRepo.save(User.builder().customerNumber("IM" + tag).name("Existing").surname("User")
+                .email(email("taken")).password("{noop}x").roles(Set.of(Role.USER)).build());
+
+        String csv = String.join("\n",
+                "email,name,surname,password,accountNumber,balance,cardType,cardNumber",
+                email("ann").toUpperCase() + ",\"Ann, Jr.\",Smith,S3cretPass," + iban("01") + ",125.50,debit,9999-" + tag + "-01",
+                email("bob") + ",Bob,Jones,S3cretPass," + iban("02") + ",,,",
+                "not-an-email,Bad,Row,S3cretPass," + iban("03") + ",,,",
+                email("bob") + ",Bob,Again,S3cretPass," + iban("04") + ",,,",
+                "",
+                email("taken") + ",Tak,En,S3cretPass," + iban("05") + ",,,",
+                email("cat") + ",Cat,Lee,S3cretPass," + iban("06") + ",10,CREDIT,9999-" + tag + "-06");
+
+        var events = run(ImportFormat.CSV, csv);
+
+        var done = events.get(events.size() - 1);
+        assertThat(done.event()).isEqualTo("done");
+        assertThat(done.processed()).isEqualTo(6);
+        assertThat(done.imported()).isEqualTo(3);
+        assertThat(done.failed()).isEqualTo(3);
+        assertThat(events).filteredOn(e -> e.event().equals("error"))
+                .extracting(ImportEvent::line, ImportEvent::code)
+                .containsExactlyInAnyOrder(tuple(4L, "VALIDATION_ERROR"), tuple(5L, "ALREADY_EXISTS"), tuple(7L, "ALREADY_EXISTS"));
+        assertThat(events).filteredOn(e -> e.event().equals("progress")).isNotEmpty();
+
+        var ann = userRepo.findByEmail(email("ann")).orElseThrow();
+        assertThat(ann.getName()).isEqualTo("Ann, Jr.");
+        assertThat(ann.getCustomerNumber()).startsWith("RB-");
+        assertThat(encoder.matches("S3cretPass", ann.getPassword())).isTrue();
+        var annAccount = accountRepo.findSummariesByUserId(ann.getId());
+        assertThat(annAccount).singleElement().satisfies(a -> {
+            assertThat(a.cardType()).isEqualTo(CardType.DEBIT);
+            assertThat(a.balance()).isEqualByComparingTo("125.50");
+        });
+        assertThat(accountRepo.findExistingAccountNumbers(List.of(iban("02"), iban("03"), iban("04"), iban("05"), iban("06"))))
+                .containsExactlyInAnyOrder(iban("02"), iban("06"));
+
+        var bob = userRepo.findByEmail(email("bob")).orElseThrow();
+        UUID bobAccount = accountRepo.findSummariesByUserId(bob.getId()).get(0).accountId();
+        ArgumentCaptor<List<Posting>> appended = ArgumentCaptor.forClass(List.class);
+        verify(ledgerService, atLeastOnce()).append(appended.capture());
+        assertThat(appended.getAllValues().stream().flatMap(List::stream).filter(p -> p.getAccountId().equals(bobAccount)))
+                .singleElement()
+                .satisfies(p -> {
+                    assertThat(p.getType()).isEqualTo(PostingType.OPENING);
+                    assertThat(p.getAmount()).isEqualByComparingTo("0");
+                });
+    }
+
+    @Test
+    void ndjson_import_reports_malformed_lines() throws Exception {
+        String ndjson = String.join("\n",
+                "{\"name\":\"Dan\",\"surname\":\"Ray\",\"email\":\"" + email("dan") + "\",\"password\":\"S3cretPass\",\"accountNumber\":\"" + iban("11") + "\",\"balance\":5}",
+                "{not json",
+                "{\"name\":\"Eve\",\"surname\":\"Ray\",\"email\":\"" + email("eve") + "\",\"password\":\"short\",\"accountNumber\":\"" + iban("12") + "\"}",
+                "{\"name\":\"Fay\",\"surname\":\"Ray\",\"email\":\"" + email("fay") + "\",\"password\":\"S3cretPass\",\"accountNumber\":\"" + iban("13") + "\",\"cardType\":\"DEBIT\"}");
+
+        var events = run(ImportFormat.NDJSON, ndjson);
+
+        assertThat(events.get(events.size() - 1)).extracting(ImportEvent::imported, ImportEvent::failed).containsExactly(1L, 3L);
+        var errors = events.stream().filter(e -> e.event().equals("error")).toList();
+        assertThat(errors).extracting(ImportEvent::line).containsExactly(2L, 3L, 4L);
+        assertThat(errors.get(0).message()).startsWith("Malformed JSON");
+        assertThat(errors.get(1).message()).contains("password");
+        assertThat(errors.get(2).message()).contains("cardType and cardNumber");
+        var dan = userRepo.findByEmail(email("dan")).orElseThrow();
+        assertThat(accountRepo.findSummariesByUserId(dan.getId()).get(0).balance()).isEqualByComparingTo("5.00");
+    }
+
+    @Test
+    void balance_beyond_cents_range_is_rejected_as_a_row_error() throws Exception {
+        String csv = String.join("\n",
+                "email,name,surname,password,accountNumber,balance",
+                email("huge") + ",Huge,Balance,S3cretPass," + iban("21") + ",99999999999999999.99",
+                email("max") + ",Max,Balance,S3cretPass," + iban("22") + ",9999999999999999.99");
+
+        var events = run(ImportFormat.CSV, csv);
+
+        assertThat(events).filteredOn(e -> e.event().equals("error"))
+                .singleElement().extracting(ImportEvent::line, ImportEvent::code).containsExactly(2L, "VALIDATION_ERROR");
+        assertThat(events.get(events.size() - 1)).extracting(ImportEvent::event, ImportEvent::imported, ImportEvent::failed)
+                .containsExactly("done", 1L, 1L);
+    }
+
+    @Test
+    void unexpected_chunk_failure_is_retried_row_by_row_and_the_report_still_completes() throws Exception {
+        doThrow(new IllegalStateException("ledger unavailable")).doCallRealMethod().when(ledgerService).append(anyList());
+        String csv = String.join("\n",
+                "email,name,surname,password,accountNumber,balance",
+                email("hal") + ",Hal,Ray,S3cretPass," + iban("31") + ",1",
+                email("ida") + ",Ida,Ray,S3cretPass," + iban("32") + ",2");
+
+        var events = run(ImportFormat.CSV, csv);
+
+        assertThat(events).extracting(ImportEvent::event).doesNotContain("error").endsWith("done");
+        assertThat(events.get(events.size() - 1).imported()).isEqualTo(2);
+        assertThat(userRepo.findByEmail(email("hal"))).isPresent();
+    }
+
+    @Test
+    void rows_that_keep_failing_are_reported_and_the_report_still_completes() throws Exception {
+        doThrow(new IllegalStateException("ledger unavailable")).when(ledgerService).append(anyList());
+        String csv = String.join("\n",
+                "email,name,surname,password,accountNumber,balance",
+                email("jon") + ",Jon,Ray,S3cretPass," + iban("41") + ",1");
+
+        var events = run(ImportFormat.CSV, csv);
+
+        assertThat(events).extracting(ImportEvent::event, ImportEvent::line, ImportEvent::code)
+                .containsExactly(tuple("error", 2L, "INTERNAL_ERROR"), tuple("progress", null, null), tuple("done", null, null));
+        assertThat(userRepo.findByEmail(email("jon"))).isEmpty();
+    }
+
+    @Test
+    void ndjson_null_or_non_object_lines_are_row_errors() throws Exception {
+        String ndjson = String.join("\n",
+                "{\"name\":\"Kim\",\"surname\":\"Ray\",\"email\":\"" + email("kim") + "\",\"password\":\"S3cretPass\",\"accountNumber\":\"" + iban("51") + "\"}",
+                "{\"name\":\"Lou\",\"surname\":\"Ray\",\"email\":\"" + email("lou") + "\",\"password\":\"S3cretPass\",\"accountNumber\":\"" + iban("52") + "\"}",
+                "null",
+                "[1]",
+                "{\"name\":\"Mo\",\"surname\":\"Ray\",\"email\":\"" + email("mo") + "\",\"password\":\"S3cretPass\",\"accountNumber\":\"" + iban("53") + "\"}");
+
+        var events = run(ImportFormat.NDJSON, ndjson);
+
+        assertThat(events).filteredOn(e -> e.event().equals("error"))
+                .extracting(ImportEvent::line, ImportEvent::message)
+                .containsExactly(tuple(3L, "Expected a JSON object"), tuple(4L, "Expected a JSON object"));
+        assertThat(events.get(events.size() - 1)).extracting(ImportEvent::processed, ImportEvent::imported, ImportEvent::failed)
+                .containsExactly(5L, 3L, 2L);
+        assertThat(userRepo.findByEmail(email("lou"))).isPresent();
+    }
+
+    @Test
+    void csv_without_required_columns_is_rejected_up_front() throws Exception {
+        var events = run(ImportFormat.CSV, "email,name\n" + email("gus") + ",Gus\n");
+
+        assertThat(events).extracting(ImportEvent::event).containsExactly("error", "done");
+        assertThat(events.get(0).message()).contains("surname", "password", "accountNumber");
+        assertThat(userRepo.findByEmail(email("gus"))).isEmpty();
+    }
+}
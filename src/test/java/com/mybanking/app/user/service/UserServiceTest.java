@@ -23,6 +23,7 @@ class UserServiceTest {
     @Mock UserRepository userRepository;
     @Mock PasswordEncoder passwordEncoder;
     @Mock CustomerNumberGenerator customerNumberGenerator;
+    @Mock UnknownEmailCache unknownEmails;
 
     @InjectMocks UserService userService;
 
@@ -51,6 +52,18 @@ class UserServiceTest {
 
         verify(customerNumberGenerator).next();
         verify(passwordEncoder).encode("S3cret!");
+        verify(unknownEmails).forget("jonathanjackson@mybanking.nl");
+    }
+
+    @Test
+    void register_normalizes_email() {
+        when(customerNumberGenerator.next()).thenReturn("CUST-124");
+        when(userRepository.save(any(User.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        var created = userService.register("Jonathan", "Jackson", " JonathanJackson@MyBanking.nl ", "S3cret!");
+
+        assertThat(created.getEmail()).isEqualTo("jonathanjackson@mybanking.nl");
+        verify(unknownEmails).forget("jonathanjackson@mybanking.nl");
     }
 
     @Test